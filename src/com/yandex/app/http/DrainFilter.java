@@ -0,0 +1,57 @@
+package com.yandex.app.http;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+
+/**
+ * Counts exchanges in flight so that shutdown can wait for them, and turns away new
+ * ones with 503 once draining has started.
+ */
+class DrainFilter extends Filter {
+    private int inFlight;
+    private boolean draining;
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        synchronized (this) {
+            if (draining) {
+                exchange.getResponseHeaders().set("Connection", "close");
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, -1);
+                exchange.close();
+                return;
+            }
+            inFlight++;
+        }
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            synchronized (this) {
+                if (--inFlight == 0) {
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Tracks in-flight exchanges for graceful shutdown";
+    }
+
+    synchronized boolean drain(Duration timeout) throws InterruptedException {
+        draining = true;
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight > 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(Math.max(1, remaining / 1_000_000));
+        }
+        return true;
+    }
+}
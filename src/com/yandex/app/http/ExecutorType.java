@@ -0,0 +1,7 @@
+package com.yandex.app.http;
+
+public enum ExecutorType {
+    FIXED,
+    WORK_STEALING,
+    VIRTUAL
+}
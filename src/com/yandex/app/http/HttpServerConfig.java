@@ -0,0 +1,73 @@
+package com.yandex.app.http;
+
+import java.time.Duration;
+
+public class HttpServerConfig {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_BACKLOG = 128;
+    private static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final int port;
+    private final int backlog;
+    private final ExecutorType executorType;
+    private final int threads;
+    private final Duration drainTimeout;
+
+    private HttpServerConfig(int port, int backlog, ExecutorType executorType, int threads, Duration drainTimeout) {
+        this.port = port;
+        this.backlog = backlog;
+        this.executorType = executorType;
+        this.threads = threads;
+        this.drainTimeout = drainTimeout;
+    }
+
+    public static HttpServerConfig defaults() {
+        return new HttpServerConfig(DEFAULT_PORT, DEFAULT_BACKLOG, ExecutorType.FIXED,
+                Runtime.getRuntime().availableProcessors(), DEFAULT_DRAIN_TIMEOUT);
+    }
+
+    public HttpServerConfig withPort(int port) {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Invalid port: " + port);
+        }
+        return new HttpServerConfig(port, backlog, executorType, threads, drainTimeout);
+    }
+
+    public HttpServerConfig withBacklog(int backlog) {
+        return new HttpServerConfig(port, backlog, executorType, threads, drainTimeout);
+    }
+
+    public HttpServerConfig withExecutor(ExecutorType executorType, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        return new HttpServerConfig(port, backlog, executorType, threads, drainTimeout);
+    }
+
+    public HttpServerConfig withDrainTimeout(Duration drainTimeout) {
+        if (drainTimeout.isNegative()) {
+            throw new IllegalArgumentException("Drain timeout must not be negative: " + drainTimeout);
+        }
+        return new HttpServerConfig(port, backlog, executorType, threads, drainTimeout);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public ExecutorType getExecutorType() {
+        return executorType;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public Duration getDrainTimeout() {
+        return drainTimeout;
+    }
+}
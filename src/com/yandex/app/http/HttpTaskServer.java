@@ -1,54 +1,160 @@
 package com.yandex.app.http;
 
 import com.google.gson.Gson;
+import com.sun.net.httpserver.Filter;
 import com.sun.net.httpserver.HttpServer;
 import com.yandex.app.http.handler.*;
 import com.yandex.app.http.util.GsonUtils;
+import com.yandex.app.http.util.JsonCache;
+import com.sun.net.httpserver.HttpHandler;
+import com.yandex.app.service.ConcurrentTaskManager;
 import com.yandex.app.service.Managers;
 import com.yandex.app.service.TaskManager;
+import com.yandex.app.service.TenantRegistry;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class HttpTaskServer {
     private final HttpServer server;
     private final TaskManager taskManager;
+    private final HttpServerConfig config;
+    private final ExecutorService executor;
+    private final DrainFilter drainFilter = new DrainFilter();
+    private final JsonCache jsonCache = new JsonCache();
     private static final Gson gson = GsonUtils.getGson();
 
-    public HttpTaskServer(TaskManager taskManager) throws IOException {
+    static {
+        // Headers and body go out in separate writes; with Nagle enabled the body waits for a delayed ACK.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Runs requests on the executor from {@code config} if {@code taskManager} is a
+     * {@link ConcurrentTaskManager}; any other manager is not safe to share between
+     * threads, so its requests are handled one at a time on a single worker.
+     */
+    public HttpTaskServer(TaskManager taskManager, HttpServerConfig config) throws IOException {
+        this(taskManager, config, false);
+    }
+
+    /**
+     * Serves one board per tenant, chosen by a {@code /tenants/{key}} path prefix or the
+     * {@code X-Tenant-Id} header. The registry stays open when the server stops.
+     */
+    public HttpTaskServer(TenantRegistry tenants, HttpServerConfig config) throws IOException {
+        this(tenants.manager(), config, true);
+    }
+
+    private HttpTaskServer(TaskManager taskManager, HttpServerConfig config, boolean tenanted) throws IOException {
         this.taskManager = taskManager;
-        this.server = HttpServer.create(new InetSocketAddress(8080), 0);
-        registerHandlers();
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress(config.getPort()), config.getBacklog());
+        boolean threadSafe = tenanted || taskManager instanceof ConcurrentTaskManager;
+        this.executor = createExecutor(threadSafe ? config : config.withExecutor(ExecutorType.FIXED, 1));
+        server.setExecutor(executor);
+        registerHandlers(tenanted);
+    }
+
+    public HttpTaskServer(TaskManager taskManager) throws IOException {
+        this(taskManager, HttpServerConfig.defaults());
     }
 
     public HttpTaskServer() throws IOException {
-        this(Managers.getDefault());
+        this(Managers.getConcurrent());
     }
 
-    private void registerHandlers() {
-        server.createContext("/tasks", new TasksHandler(taskManager));
-        server.createContext("/subtasks", new SubtasksHandler(taskManager));
-        server.createContext("/epics", new EpicsHandler(taskManager));
-        server.createContext("/history", new HistoryHandler(taskManager));
-        server.createContext("/prioritized", new PrioritizedHandler(taskManager));
+    private void registerHandlers(boolean tenanted) {
+        Router router = new Router();
+        new TasksHandler(taskManager, jsonCache).register(router);
+        new SubtasksHandler(taskManager, jsonCache).register(router);
+        new EpicsHandler(taskManager, jsonCache).register(router);
+        new HistoryHandler(taskManager).register(router);
+        new PrioritizedHandler(taskManager).register(router);
+        new BatchHandler(taskManager).register(router);
+        new StatsHandler(taskManager, jsonCache).register(router);
+        new SearchHandler(taskManager).register(router);
+        HttpHandler root = tenanted ? new TenantHandler(router) : router;
+        List<Filter> filters = server.createContext("/", root).getFilters();
+        filters.add(drainFilter);
+        filters.add(new SessionFilter());
     }
 
     public void start() {
         server.start();
-        System.out.println("HTTP Task Server started on port 8080");
+        System.out.println("HTTP Task Server started on port " + getPort());
     }
 
     public void stop() {
+        try {
+            if (!drainFilter.drain(config.getDrainTimeout())) {
+                System.out.println("HTTP Task Server drain timed out, closing remaining exchanges");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
         server.stop(0);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(config.getDrainTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
         System.out.println("HTTP Task Server stopped");
     }
 
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public JsonCache getJsonCache() {
+        return jsonCache;
+    }
+
     public static Gson getGson() {
         return gson;
     }
 
+    private static ExecutorService createExecutor(HttpServerConfig config) {
+        switch (config.getExecutorType()) {
+            case WORK_STEALING:
+                return Executors.newWorkStealingPool(config.getThreads());
+            case VIRTUAL:
+                try {
+                    return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    // Virtual threads need Java 21; a thread per request is the closest equivalent.
+                    return Executors.newCachedThreadPool(namedThreads("http-request-"));
+                }
+            case FIXED:
+            default:
+                return Executors.newFixedThreadPool(config.getThreads(), namedThreads("http-worker-"));
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
     public static void main(String[] args) throws IOException {
         HttpTaskServer server = new HttpTaskServer();
         server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
     }
 }
@@ -0,0 +1,185 @@
+package com.yandex.app.http;
+
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dispatches exchanges by method and path template such as {@code /epics/{id}/subtasks}.
+ * Templates are compiled into a segment tree when registered; matching walks the raw
+ * path in place, comparing literal segments with {@link String#regionMatches} and
+ * parsing {@code {param}} segments as non-negative ints, so the only allocation per
+ * request is the params array. A path that matches with no route for the method gets
+ * 405 with an Allow header, any other path 404. Unparseable JSON bodies get 400.
+ */
+public class Router implements HttpHandler {
+    private final Node root = new Node();
+    private int maxParams;
+
+    @FunctionalInterface
+    public interface Route {
+        void handle(HttpExchange exchange, int[] params) throws IOException;
+    }
+
+    private static class Node {
+        final List<String> literals = new ArrayList<>();
+        final List<Node> literalChildren = new ArrayList<>();
+        Node paramChild;
+        final Map<String, Route> routes = new LinkedHashMap<>();
+
+        Node literal(String segment) {
+            int index = literals.indexOf(segment);
+            if (index >= 0) {
+                return literalChildren.get(index);
+            }
+            Node child = new Node();
+            literals.add(segment);
+            literalChildren.add(child);
+            return child;
+        }
+
+        Node matchLiteral(String path, int from, int to) {
+            for (int i = 0; i < literals.size(); i++) {
+                String literal = literals.get(i);
+                if (literal.length() == to - from && path.regionMatches(from, literal, 0, literal.length())) {
+                    return literalChildren.get(i);
+                }
+            }
+            return null;
+        }
+    }
+
+    public Router get(String template, Route route) {
+        return add("GET", template, route);
+    }
+
+    public Router post(String template, Route route) {
+        return add("POST", template, route);
+    }
+
+    public Router delete(String template, Route route) {
+        return add("DELETE", template, route);
+    }
+
+    public Router add(String method, String template, Route route) {
+        Node node = root;
+        int params = 0;
+        for (String segment : template.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                if (node.paramChild == null) {
+                    node.paramChild = new Node();
+                }
+                node = node.paramChild;
+                params++;
+            } else {
+                node = node.literal(segment);
+            }
+        }
+        if (node.routes.putIfAbsent(method, route) != null) {
+            throw new IllegalArgumentException("Route already registered: " + method + " " + template);
+        }
+        maxParams = Math.max(maxParams, params);
+        return this;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        handle(exchange, exchange.getRequestURI().getRawPath());
+    }
+
+    /**
+     * Dispatches on {@code path} rather than the request path, for callers that have
+     * already consumed a prefix of it.
+     */
+    public void handle(HttpExchange exchange, String path) throws IOException {
+        try {
+            int[] params = new int[maxParams];
+            Node node = match(path, params);
+            if (node == null || node.routes.isEmpty()) {
+                send(exchange, HttpURLConnection.HTTP_NOT_FOUND, "{\"error\": \"Resource not found\"}");
+                return;
+            }
+            Route route = node.routes.get(exchange.getRequestMethod());
+            if (route == null) {
+                exchange.getResponseHeaders().set("Allow", String.join(", ", node.routes.keySet()));
+                send(exchange, HttpURLConnection.HTTP_BAD_METHOD, "{\"error\": \"Method not allowed\"}");
+                return;
+            }
+            route.handle(exchange, params);
+        } catch (JsonParseException e) {
+            send(exchange, HttpURLConnection.HTTP_BAD_REQUEST, "{\"error\": \"Malformed request body\"}");
+        } catch (Exception e) {
+            // The exception text stays on the server; clients only learn that the request failed.
+            System.out.println("Request " + exchange.getRequestMethod() + " " + path + " failed: " + e);
+            send(exchange, HttpURLConnection.HTTP_INTERNAL_ERROR, "{\"error\": \"Internal server error\"}");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Node match(String path, int[] params) {
+        Node node = root;
+        int param = 0;
+        int length = path.length();
+        int from = 0;
+        while (node != null) {
+            while (from < length && path.charAt(from) == '/') {
+                from++;
+            }
+            if (from == length) {
+                return node;
+            }
+            int to = path.indexOf('/', from);
+            if (to < 0) {
+                to = length;
+            }
+            Node literal = node.matchLiteral(path, from, to);
+            if (literal != null) {
+                node = literal;
+            } else if (node.paramChild != null && (params[param] = parseId(path, from, to)) >= 0) {
+                node = node.paramChild;
+                param++;
+            } else {
+                return null;
+            }
+            from = to;
+        }
+        return null;
+    }
+
+    private static int parseId(String path, int from, int to) {
+        if (to - from > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    static void send(HttpExchange exchange, int statusCode, String json) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        byte[] response = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(statusCode, response.length);
+        exchange.getResponseBody().write(response);
+    }
+}
@@ -0,0 +1,48 @@
+package com.yandex.app.http;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import com.yandex.app.http.util.QueryParams;
+import com.yandex.app.service.HistoryScope;
+import com.yandex.app.util.ThreadScope;
+
+import java.io.IOException;
+
+/**
+ * Binds the caller's history session for the rest of the exchange. The key comes from
+ * the {@code X-Session-Id} header or, failing that, the {@code session} query parameter;
+ * requests without one, or with one longer than {@link #MAX_KEY_LENGTH}, share the
+ * anonymous history.
+ */
+class SessionFilter extends Filter {
+    static final String HEADER = "X-Session-Id";
+    static final String PARAM = "session";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        ThreadScope.Binding session = HistoryScope.enter(sessionKey(exchange));
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            session.close();
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Binds the caller's history session";
+    }
+
+    private static String sessionKey(HttpExchange exchange) {
+        String key = exchange.getRequestHeaders().getFirst(HEADER);
+        if (key == null) {
+            String rawQuery = exchange.getRequestURI().getRawQuery();
+            if (rawQuery != null && rawQuery.contains(PARAM + "=")) {
+                key = QueryParams.parse(rawQuery).get(PARAM);
+            }
+        }
+        return key != null && !key.isEmpty() && key.length() <= MAX_KEY_LENGTH ? key : null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.yandex.app.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.yandex.app.service.TenantRegistry;
+import com.yandex.app.service.TenantScope;
+import com.yandex.app.util.ThreadScope;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * Binds the tenant of an exchange and hands the rest of the path to the router. The key
+ * comes from a {@code /tenants/{key}} path prefix, which is stripped, or else from the
+ * {@code X-Tenant-Id} header; requests with neither use the registry's default tenant.
+ * Keys that could not name a tenant file get 400.
+ */
+class TenantHandler implements HttpHandler {
+    static final String HEADER = "X-Tenant-Id";
+    static final String PREFIX = "/tenants/";
+
+    private final Router router;
+
+    TenantHandler(Router router) {
+        this.router = router;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getRawPath();
+        String key = exchange.getRequestHeaders().getFirst(HEADER);
+        if (path.startsWith(PREFIX)) {
+            int end = path.indexOf('/', PREFIX.length());
+            key = end < 0 ? path.substring(PREFIX.length()) : path.substring(PREFIX.length(), end);
+            path = end < 0 ? "/" : path.substring(end);
+        }
+        if (key != null && !TenantRegistry.isValidKey(key)) {
+            try {
+                Router.send(exchange, HttpURLConnection.HTTP_BAD_REQUEST, "{\"error\": \"Invalid tenant\"}");
+            } finally {
+                exchange.close();
+            }
+            return;
+        }
+        ThreadScope.Binding tenant = TenantScope.enter(key);
+        try {
+            router.handle(exchange, path);
+        } finally {
+            tenant.close();
+        }
+    }
+}
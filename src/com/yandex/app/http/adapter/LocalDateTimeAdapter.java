@@ -5,6 +5,7 @@ import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 
 import java.io.IOException;
+import java.time.DateTimeException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -17,7 +18,7 @@ public class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
             jsonWriter.nullValue();
             return;
         }
-        jsonWriter.value(localDateTime.format(dtf));
+        jsonWriter.value(format(localDateTime));
     }
 
     @Override
@@ -26,7 +27,98 @@ public class LocalDateTimeAdapter extends TypeAdapter<LocalDateTime> {
             jsonReader.nextNull();
             return null;
         }
-        String date = jsonReader.nextString();
-        return LocalDateTime.parse(date, dtf);
+        return parse(jsonReader.nextString());
+    }
+
+    /**
+     * Same output as {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}, written into a single
+     * char array for four-digit years; other years go through the formatter.
+     */
+    public static String format(LocalDateTime value) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            return value.format(dtf);
+        }
+        int nano = value.getNano();
+        int fractionDigits = 0;
+        if (nano != 0) {
+            fractionDigits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                fractionDigits--;
+            }
+        }
+        char[] chars = new char[fractionDigits == 0 ? 19 : 20 + fractionDigits];
+        digits(chars, 0, year, 4);
+        chars[4] = '-';
+        digits(chars, 5, value.getMonthValue(), 2);
+        chars[7] = '-';
+        digits(chars, 8, value.getDayOfMonth(), 2);
+        chars[10] = 'T';
+        digits(chars, 11, value.getHour(), 2);
+        chars[13] = ':';
+        digits(chars, 14, value.getMinute(), 2);
+        chars[16] = ':';
+        digits(chars, 17, value.getSecond(), 2);
+        if (fractionDigits != 0) {
+            chars[19] = '.';
+            digits(chars, 20, nano, fractionDigits);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm[:ss[.fraction]]} by hand and falls back to
+     * {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} for anything else.
+     */
+    public static LocalDateTime parse(String text) {
+        int length = text.length();
+        if (length >= 16 && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T'
+                && text.charAt(13) == ':') {
+            int year = number(text, 0, 4);
+            int month = number(text, 5, 7);
+            int day = number(text, 8, 10);
+            int hour = number(text, 11, 13);
+            int minute = number(text, 14, 16);
+            int second = 0;
+            int nano = 0;
+            boolean valid = year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0;
+            if (valid && length > 16) {
+                valid = length >= 19 && text.charAt(16) == ':' && (second = number(text, 17, 19)) >= 0;
+                if (valid && length > 19) {
+                    valid = length <= 29 && length > 20 && text.charAt(19) == '.' && (nano = number(text, 20, length)) >= 0;
+                    for (int i = length; valid && i < 29; i++) {
+                        nano *= 10;
+                    }
+                }
+            }
+            if (valid) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+                } catch (DateTimeException e) {
+                    // Let the formatter produce its usual error.
+                }
+            }
+        }
+        return LocalDateTime.parse(text, dtf);
+    }
+
+    private static void digits(char[] chars, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int number(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
     }
 }
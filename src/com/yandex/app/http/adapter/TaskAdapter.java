@@ -0,0 +1,181 @@
+package com.yandex.app.http.adapter;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.yandex.app.model.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming adapter for {@link Task} and its subclasses. Objects carry a {@code "type"}
+ * discriminator ({@link TaskType} name) that selects the class on read; bodies without
+ * it are read as the type the adapter was created for.
+ */
+public class TaskAdapter extends TypeAdapter<Task> {
+    private final TaskType defaultType;
+
+    public TaskAdapter(TaskType defaultType) {
+        this.defaultType = defaultType;
+    }
+
+    @Override
+    public void write(JsonWriter out, Task task) throws IOException {
+        if (task == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("type").value(task.getType().name());
+        out.name("id").value(task.getId());
+        if (task.getName() != null) {
+            out.name("name").value(task.getName());
+        }
+        if (task.getDescription() != null) {
+            out.name("description").value(task.getDescription());
+        }
+        if (task.getStatus() != null) {
+            out.name("status").value(task.getStatus().name());
+        }
+        if (task.getDuration() != null) {
+            out.name("duration").value(task.getDuration().toMinutes());
+        }
+        if (task.getStartTime() != null) {
+            out.name("startTime").value(LocalDateTimeAdapter.format(task.getStartTime()));
+        }
+        if (task instanceof Subtask) {
+            out.name("epicId").value(((Subtask) task).getEpicId());
+        } else if (task instanceof Epic) {
+            Epic epic = (Epic) task;
+            out.name("subtaskIds").beginArray();
+            for (int subtaskId : epic.getSubtaskIds()) {
+                out.value(subtaskId);
+            }
+            out.endArray();
+            if (epic.getEndTime() != null) {
+                out.name("endTime").value(LocalDateTimeAdapter.format(epic.getEndTime()));
+            }
+        }
+        out.endObject();
+    }
+
+    @Override
+    public Task read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        TaskType type = defaultType;
+        int id = 0;
+        int epicId = 0;
+        String name = null;
+        String description = null;
+        Status status = null;
+        Duration duration = null;
+        LocalDateTime startTime = null;
+        LocalDateTime endTime = null;
+        List<Integer> subtaskIds = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String field = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (field) {
+                case "type":
+                    type = type(in.nextString());
+                    break;
+                case "id":
+                    id = in.nextInt();
+                    break;
+                case "name":
+                    name = in.nextString();
+                    break;
+                case "description":
+                    description = in.nextString();
+                    break;
+                case "status":
+                    status = status(in.nextString());
+                    break;
+                case "duration":
+                    duration = Duration.ofMinutes(in.nextLong());
+                    break;
+                case "startTime":
+                    startTime = LocalDateTimeAdapter.parse(in.nextString());
+                    break;
+                case "epicId":
+                    epicId = in.nextInt();
+                    break;
+                case "subtaskIds":
+                    subtaskIds = new ArrayList<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        subtaskIds.add(in.nextInt());
+                    }
+                    in.endArray();
+                    break;
+                case "endTime":
+                    endTime = LocalDateTimeAdapter.parse(in.nextString());
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (defaultType != TaskType.TASK && type != defaultType) {
+            throw new JsonParseException("Expected " + defaultType + " but got " + type);
+        }
+        switch (type) {
+            case EPIC:
+                Epic epic = new Epic(id, name, description);
+                if (status != null) {
+                    epic.setStatusEpic(status);
+                }
+                if (duration != null) {
+                    epic.setDuration(duration);
+                }
+                if (startTime != null) {
+                    epic.setStartTime(startTime);
+                }
+                if (endTime != null) {
+                    epic.setEndTime(endTime);
+                }
+                if (subtaskIds != null) {
+                    for (int subtaskId : subtaskIds) {
+                        epic.addSubtaskId(subtaskId);
+                    }
+                }
+                return epic;
+            case SUBTASK:
+                return new Subtask(epicId, id, name, description, status, duration, startTime);
+            case TASK:
+            default:
+                return new Task(id, name, description, status, duration, startTime);
+        }
+    }
+
+    private static TaskType type(String value) {
+        try {
+            return TaskType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("Unknown task type: " + value);
+        }
+    }
+
+    private static Status status(String value) {
+        try {
+            return Status.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
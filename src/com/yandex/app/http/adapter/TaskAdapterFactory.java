@@ -0,0 +1,30 @@
+package com.yandex.app.http.adapter;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.yandex.app.model.Epic;
+import com.yandex.app.model.Subtask;
+import com.yandex.app.model.Task;
+import com.yandex.app.model.TaskType;
+
+public class TaskAdapterFactory implements TypeAdapterFactory {
+    private final TaskAdapter taskAdapter = new TaskAdapter(TaskType.TASK);
+    private final TaskAdapter epicAdapter = new TaskAdapter(TaskType.EPIC);
+    private final TaskAdapter subtaskAdapter = new TaskAdapter(TaskType.SUBTASK);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        if (raw == Task.class) {
+            return (TypeAdapter<T>) taskAdapter;
+        } else if (raw == Epic.class) {
+            return (TypeAdapter<T>) epicAdapter;
+        } else if (raw == Subtask.class) {
+            return (TypeAdapter<T>) subtaskAdapter;
+        }
+        return null;
+    }
+}
@@ -1,49 +1,229 @@
 package com.yandex.app.http.handler;
 
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
+import com.yandex.app.http.Router;
+import com.yandex.app.http.adapter.LocalDateTimeAdapter;
 import com.yandex.app.http.util.GsonUtils;
+import com.yandex.app.http.util.JsonCache;
+import com.yandex.app.http.util.QueryParams;
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import com.yandex.app.model.TaskType;
+import com.yandex.app.service.TaskManager;
+import com.yandex.app.service.TaskPage;
+import com.yandex.app.service.TaskQuery;
+import com.yandex.app.service.TaskSort;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 public abstract class BaseHttpHandler {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int HTTP_NOT_MODIFIED = 304;
+
     protected final Gson gson = GsonUtils.getGson();
 
     protected BaseHttpHandler() {
     }
 
+    public abstract void register(Router router);
+
     protected void sendText(HttpExchange exchange, String text, int statusCode) throws IOException {
-        byte[] response = text.getBytes(StandardCharsets.UTF_8);
+        sendBytes(exchange, text.getBytes(StandardCharsets.UTF_8), statusCode);
+    }
+
+    protected void sendBytes(HttpExchange exchange, byte[] response, int statusCode) throws IOException {
         exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
         exchange.sendResponseHeaders(statusCode, response.length);
         exchange.getResponseBody().write(response);
         exchange.close();
     }
 
-    protected void sendNotFound(HttpExchange exchange) throws IOException {
-        sendText(exchange, "{\"error\": \"Resource not found\"}", HttpURLConnection.HTTP_NOT_FOUND);
+    /**
+     * Sends a single task, reusing its encoding from {@code cache} while it is unchanged,
+     * or 304 if the client already holds its current version.
+     */
+    protected void sendTask(HttpExchange exchange, Task task, JsonCache cache) throws IOException {
+        if (notModified(exchange, task.getVersion())) {
+            return;
+        }
+        sendBytes(exchange, cache.encode(task, this::encode), HttpURLConnection.HTTP_OK);
     }
 
-    protected void sendHasInteractions(HttpExchange exchange) throws IOException {
-        sendText(exchange, "{\"error\": \"Task overlaps with existing tasks\"}", HttpURLConnection.HTTP_NOT_ACCEPTABLE);
+    /**
+     * Sets the {@code ETag} for {@code version} and, if {@code If-None-Match} already
+     * names it, answers 304 with no body. The version has to be read before the body is
+     * built, so that a change racing with the request can only make the tag older than
+     * the body and never the other way round.
+     */
+    protected boolean notModified(HttpExchange exchange, long version) throws IOException {
+        String etag = "\"" + Long.toString(version, 36) + "\"";
+        exchange.getResponseHeaders().set("ETag", etag);
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null || !matches(ifNoneMatch, etag)) {
+            return false;
+        }
+        exchange.sendResponseHeaders(HTTP_NOT_MODIFIED, -1);
+        exchange.close();
+        return true;
     }
 
-    protected void sendServerError(HttpExchange exchange, String message) throws IOException {
-        sendText(exchange, "{\"error\": \"" + message + "\"}", HttpURLConnection.HTTP_INTERNAL_ERROR);
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    protected int getIdFromPath(HttpExchange exchange) {
-        String path = exchange.getRequestURI().getPath();
-        String[] segments = path.split("/");
+    private byte[] encode(Task task) {
+        return gson.toJson(task).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Streams {@code items} as a JSON array with chunked transfer encoding, so the body is
+     * never held in memory as a whole. {@code items} may be a live view of the manager;
+     * {@link com.yandex.app.http.HttpTaskServer} only serves a manager that hands those out
+     * from a single thread, so no change can run while the list is being written.
+     */
+    protected void sendJsonList(HttpExchange exchange, Iterable<? extends Task> items) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+        try (JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), STREAM_BUFFER_SIZE))) {
+            writer.beginArray();
+            for (Task item : items) {
+                gson.toJson(item, item.getClass(), writer);
+            }
+            writer.endArray();
+        }
+        exchange.close();
+    }
+
+    /**
+     * Serves a collection listing. Without a query string the whole of {@code all} is
+     * streamed; otherwise {@code limit}, {@code cursor} (or {@code after} for an id),
+     * {@code status}, {@code type} (comma-separated), {@code from}, {@code to} and
+     * {@code sort=id|startTime} override {@code defaults} and are run through
+     * {@link TaskManager#query}. The cursor of the next page, if any, is returned in the
+     * {@code X-Next-Cursor} header. The {@code ETag} follows the
+     * {@linkplain TaskManager#modificationCount modification counters} of the listed types.
+     */
+    protected void sendListing(HttpExchange exchange, TaskManager taskManager, TaskQuery defaults,
+                               Iterable<? extends Task> all) throws IOException {
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            if (!notModified(exchange, modificationCount(taskManager, defaults))) {
+                sendJsonList(exchange, all);
+            }
+            return;
+        }
+        TaskQuery query;
+        try {
+            query = toQuery(QueryParams.parse(rawQuery), defaults);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            sendText(exchange, "{\"error\": \"Invalid query parameters\"}", HttpURLConnection.HTTP_BAD_REQUEST);
+            return;
+        }
+        if (notModified(exchange, modificationCount(taskManager, query))) {
+            return;
+        }
+        TaskPage page;
         try {
-            return Integer.parseInt(segments[segments.length - 1]);
-        } catch (NumberFormatException e) {
-            return -1;
+            page = taskManager.query(query);
+        } catch (IllegalArgumentException e) {
+            exchange.getResponseHeaders().remove("ETag");
+            sendText(exchange, "{\"error\": \"Invalid query parameters\"}", HttpURLConnection.HTTP_BAD_REQUEST);
+            return;
         }
+        if (page.hasNext()) {
+            exchange.getResponseHeaders().set(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        sendJsonList(exchange, page.getItems());
     }
-}
 
+    private static long modificationCount(TaskManager taskManager, TaskQuery query) {
+        long count = 0;
+        for (TaskType type : query.getTypes()) {
+            count = Math.max(count, taskManager.modificationCount(type));
+        }
+        return count;
+    }
 
+    private static TaskQuery toQuery(Map<String, String> params, TaskQuery defaults) {
+        TaskQuery query = defaults;
+        String types = params.get("type");
+        if (types != null) {
+            Set<TaskType> parsed = EnumSet.noneOf(TaskType.class);
+            for (String type : types.split(",")) {
+                parsed.add(TaskType.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+            }
+            query = query.withTypes(parsed);
+        }
+        String status = params.get("status");
+        if (status != null) {
+            query = query.withStatus(Status.valueOf(status.toUpperCase(Locale.ROOT)));
+        }
+        String from = params.get("from");
+        String to = params.get("to");
+        if (from != null || to != null) {
+            query = query.withStartBetween(from != null ? LocalDateTimeAdapter.parse(from) : null,
+                    to != null ? LocalDateTimeAdapter.parse(to) : null);
+        }
+        String sort = params.get("sort");
+        if (sort != null) {
+            if (sort.equalsIgnoreCase("id")) {
+                query = query.withSort(TaskSort.ID);
+            } else if (sort.equalsIgnoreCase("startTime")) {
+                query = query.withSort(TaskSort.START_TIME);
+            } else {
+                throw new IllegalArgumentException("Unknown sort: " + sort);
+            }
+        }
+        String limit = params.get("limit");
+        if (limit != null) {
+            query = query.withLimit(Integer.parseInt(limit));
+        }
+        String cursor = params.getOrDefault("cursor", params.get("after"));
+        if (cursor != null) {
+            query = query.withCursor(cursor);
+        }
+        return query;
+    }
 
+    /**
+     * Sends {@code {"error": message}}, with the message escaped by Gson.
+     */
+    protected void sendError(HttpExchange exchange, String message, int statusCode) throws IOException {
+        sendText(exchange, gson.toJson(Map.of("error", String.valueOf(message))), statusCode);
+    }
+
+    protected void sendNotFound(HttpExchange exchange) throws IOException {
+        sendText(exchange, "{\"error\": \"Resource not found\"}", HttpURLConnection.HTTP_NOT_FOUND);
+    }
+
+    protected void sendHasInteractions(HttpExchange exchange) throws IOException {
+        sendText(exchange, "{\"error\": \"Task overlaps with existing tasks\"}", HttpURLConnection.HTTP_NOT_ACCEPTABLE);
+    }
+
+    protected String readBody(HttpExchange exchange) throws IOException {
+        return new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,76 @@
+package com.yandex.app.http.handler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.yandex.app.http.Router;
+import com.yandex.app.model.Epic;
+import com.yandex.app.model.Subtask;
+import com.yandex.app.model.Task;
+import com.yandex.app.model.TaskType;
+import com.yandex.app.service.TaskManager;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchHandler extends BaseHttpHandler {
+    private final TaskManager taskManager;
+
+    public BatchHandler(TaskManager taskManager) {
+        this.taskManager = taskManager;
+    }
+
+    private static class Batch {
+        List<Task> tasks;
+        List<Epic> epics;
+        List<Subtask> subtasks;
+    }
+
+    @Override
+    public void register(Router router) {
+        router.post("/batch", (exchange, params) -> load(exchange));
+    }
+
+    private void load(HttpExchange exchange) throws IOException {
+        Batch batch = gson.fromJson(readBody(exchange), Batch.class);
+        List<Task> items = new ArrayList<>();
+        if (batch != null && batch.tasks != null) {
+            for (Task task : batch.tasks) {
+                // The Task adapter reads any discriminator; epics and subtasks have their own lists.
+                if (task == null || task.getType() != TaskType.TASK) {
+                    sendText(exchange, "{\"error\": \"Batch tasks must be of type TASK\"}", HttpURLConnection.HTTP_BAD_REQUEST);
+                    return;
+                }
+            }
+            items.addAll(batch.tasks);
+        }
+        if (batch != null && batch.epics != null) {
+            for (Epic epic : batch.epics) {
+                // Subtask links and derived fields are rebuilt by the manager.
+                items.add(new Epic(epic.getId(), epic.getName(), epic.getDescription()));
+            }
+        }
+        if (batch != null && batch.subtasks != null) {
+            items.addAll(batch.subtasks);
+        }
+
+        try {
+            taskManager.bulkLoad(items);
+        } catch (IllegalStateException e) {
+            sendHasInteractions(exchange);
+            return;
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, e.getMessage(), HttpURLConnection.HTTP_BAD_REQUEST);
+            return;
+        }
+
+        StringBuilder ids = new StringBuilder("{\"ids\": [");
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                ids.append(", ");
+            }
+            ids.append(items.get(i).getId());
+        }
+        sendText(exchange, ids.append("]}").toString(), HttpURLConnection.HTTP_CREATED);
+    }
+}
@@ -1,13 +1,9 @@
 package com.yandex.app.http.handler;
 
-import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
+import com.yandex.app.http.Router;
 import com.yandex.app.service.TaskManager;
 
-import java.io.IOException;
-import java.net.HttpURLConnection;
-
-public class HistoryHandler extends BaseHttpHandler implements HttpHandler {
+public class HistoryHandler extends BaseHttpHandler {
     private final TaskManager taskManager;
 
     public HistoryHandler(TaskManager taskManager) {
@@ -15,18 +11,7 @@ public class HistoryHandler extends BaseHttpHandler implements HttpHandler {
     }
 
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        String method = exchange.getRequestMethod();
-        String path = exchange.getRequestURI().getPath();
-
-        try {
-            if (method.equals("GET") && path.equals("/history")) {
-                sendText(exchange, gson.toJson(taskManager.getHistory()), HttpURLConnection.HTTP_OK);
-            } else {
-                sendNotFound(exchange);
-            }
-        } catch (Exception e) {
-            sendServerError(exchange, "Server error: " + e.getMessage());
-        }
+    public void register(Router router) {
+        router.get("/history", (exchange, params) -> sendJsonList(exchange, taskManager.getHistory()));
     }
 }
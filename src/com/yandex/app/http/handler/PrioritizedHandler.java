@@ -1,13 +1,14 @@
 package com.yandex.app.http.handler;
 
-import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
+import com.yandex.app.http.Router;
+import com.yandex.app.model.TaskType;
 import com.yandex.app.service.TaskManager;
+import com.yandex.app.service.TaskQuery;
+import com.yandex.app.service.TaskSort;
 
-import java.io.IOException;
-import java.net.HttpURLConnection;
+public class PrioritizedHandler extends BaseHttpHandler {
+    private static final TaskQuery PRIORITIZED = TaskQuery.of(TaskType.TASK, TaskType.SUBTASK).withSort(TaskSort.START_TIME);
 
-public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
     private final TaskManager taskManager;
 
     public PrioritizedHandler(TaskManager taskManager) {
@@ -15,18 +16,8 @@ public class PrioritizedHandler extends BaseHttpHandler implements HttpHandler {
     }
 
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        String method = exchange.getRequestMethod();
-        String path = exchange.getRequestURI().getPath();
-
-        try {
-            if (method.equals("GET") && path.equals("/prioritized")) {
-                sendText(exchange, gson.toJson(taskManager.getPrioritizedTasks()), HttpURLConnection.HTTP_OK);
-            } else {
-                sendNotFound(exchange);
-            }
-        } catch (Exception e) {
-            sendServerError(exchange, "Server error: " + e.getMessage());
-        }
+    public void register(Router router) {
+        router.get("/prioritized", (exchange, params) ->
+                sendListing(exchange, taskManager, PRIORITIZED, taskManager.prioritizedView()));
     }
 }
@@ -0,0 +1,40 @@
+package com.yandex.app.http.handler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.yandex.app.http.Router;
+import com.yandex.app.http.util.QueryParams;
+import com.yandex.app.service.TaskManager;
+import com.yandex.app.service.TaskQuery;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Map;
+
+public class SearchHandler extends BaseHttpHandler {
+    private final TaskManager taskManager;
+
+    public SearchHandler(TaskManager taskManager) {
+        this.taskManager = taskManager;
+    }
+
+    @Override
+    public void register(Router router) {
+        router.get("/search", (exchange, params) -> search(exchange));
+    }
+
+    private void search(HttpExchange exchange) throws IOException {
+        Map<String, String> params = QueryParams.parse(exchange.getRequestURI().getRawQuery());
+        String query = params.get("q");
+        int limit;
+        try {
+            limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : TaskQuery.UNLIMITED;
+        } catch (NumberFormatException e) {
+            limit = -1;
+        }
+        if (query == null || query.isBlank() || limit <= 0) {
+            sendText(exchange, "{\"error\": \"Invalid query parameters\"}", HttpURLConnection.HTTP_BAD_REQUEST);
+            return;
+        }
+        sendJsonList(exchange, taskManager.search(query, limit));
+    }
+}
@@ -0,0 +1,62 @@
+package com.yandex.app.http.handler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.yandex.app.http.Router;
+import com.yandex.app.http.util.JsonCache;
+import com.yandex.app.model.Status;
+import com.yandex.app.model.TaskType;
+import com.yandex.app.service.TaskManager;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class StatsHandler extends BaseHttpHandler {
+    private final TaskManager taskManager;
+    private final JsonCache jsonCache;
+
+    public StatsHandler(TaskManager taskManager) {
+        this(taskManager, null);
+    }
+
+    /**
+     * Also reports the hit rate of {@code jsonCache} under {@code "jsonCache"}.
+     */
+    public StatsHandler(TaskManager taskManager, JsonCache jsonCache) {
+        this.taskManager = taskManager;
+        this.jsonCache = jsonCache;
+    }
+
+    @Override
+    public void register(Router router) {
+        router.get("/stats", (exchange, params) -> getStats(exchange));
+    }
+
+    private void getStats(HttpExchange exchange) throws IOException {
+        Map<String, Map<String, ?>> stats = new LinkedHashMap<>();
+        stats.put("tasks", counts(TaskType.TASK));
+        stats.put("epics", counts(TaskType.EPIC));
+        stats.put("subtasks", counts(TaskType.SUBTASK));
+        if (jsonCache != null) {
+            Map<String, Number> cache = new LinkedHashMap<>();
+            cache.put("hits", jsonCache.getHits());
+            cache.put("misses", jsonCache.getMisses());
+            cache.put("hitRate", jsonCache.hitRate());
+            cache.put("bytesSaved", jsonCache.getBytesSaved());
+            stats.put("jsonCache", cache);
+        }
+        sendText(exchange, gson.toJson(stats), HttpURLConnection.HTTP_OK);
+    }
+
+    private Map<String, Integer> counts(TaskType type) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int total = 0;
+        for (Map.Entry<Status, Integer> entry : taskManager.countByStatus(type).entrySet()) {
+            counts.put(entry.getKey().name(), entry.getValue());
+            total += entry.getValue();
+        }
+        counts.put("total", total);
+        return counts;
+    }
+}
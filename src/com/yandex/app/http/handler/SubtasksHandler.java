@@ -1,58 +1,63 @@
 package com.yandex.app.http.handler;
 
 import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
+import com.yandex.app.http.Router;
+import com.yandex.app.http.util.JsonCache;
 import com.yandex.app.model.Subtask;
+import com.yandex.app.model.TaskType;
 import com.yandex.app.service.TaskManager;
+import com.yandex.app.service.TaskQuery;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
-public class SubtasksHandler extends BaseHttpHandler implements HttpHandler {
+public class SubtasksHandler extends BaseHttpHandler {
     private final TaskManager taskManager;
+    private final JsonCache jsonCache;
 
     public SubtasksHandler(TaskManager taskManager) {
+        this(taskManager, new JsonCache());
+    }
+
+    public SubtasksHandler(TaskManager taskManager, JsonCache jsonCache) {
         this.taskManager = taskManager;
+        this.jsonCache = jsonCache;
     }
 
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        String method = exchange.getRequestMethod();
-        String path = exchange.getRequestURI().getPath();
+    public void register(Router router) {
+        router.get("/subtasks", (exchange, params) -> getAll(exchange))
+                .get("/subtasks/{id}", (exchange, params) -> getById(exchange, params[0]))
+                .post("/subtasks", (exchange, params) -> add(exchange))
+                .delete("/subtasks/{id}", (exchange, params) -> delete(exchange, params[0]));
+    }
+
+    private void getAll(HttpExchange exchange) throws IOException {
+        sendListing(exchange, taskManager, TaskQuery.of(TaskType.SUBTASK), taskManager.subtasksView());
+    }
 
+    private void getById(HttpExchange exchange, int id) throws IOException {
+        Optional<Subtask> subtask = taskManager.getSubtask(id);
+        if (subtask.isPresent()) {
+            sendTask(exchange, subtask.get(), jsonCache);
+        } else {
+            sendNotFound(exchange);
+        }
+    }
+
+    private void add(HttpExchange exchange) throws IOException {
+        Subtask subtask = gson.fromJson(readBody(exchange), Subtask.class);
         try {
-            if (method.equals("GET")) {
-                if (path.equals("/subtasks")) {
-                    sendText(exchange, gson.toJson(taskManager.getAllSubtasks()), HttpURLConnection.HTTP_OK);
-                } else if (path.matches("/subtasks/\\d+")) {
-                    int id = getIdFromPath(exchange);
-                    Optional<Subtask> subtask = taskManager.getSubtask(id);
-                    if (subtask.isPresent()) {
-                        sendText(exchange, gson.toJson(subtask.get()), HttpURLConnection.HTTP_OK);
-                    } else {
-                        sendNotFound(exchange);
-                    }
-                }
-            } else if (method.equals("POST") && path.equals("/subtasks")) {
-                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
-                Subtask subtask = gson.fromJson(body, Subtask.class);
-                try {
-                    int id = taskManager.addSubtask(subtask);
-                    sendText(exchange, "{\"id\": " + id + "}", HttpURLConnection.HTTP_CREATED);
-                } catch (IllegalStateException e) {
-                    sendHasInteractions(exchange);
-                }
-            } else if (method.equals("DELETE") && path.matches("/subtasks/\\d+")) {
-                int id = getIdFromPath(exchange);
-                taskManager.deleteSubtaskById(id);
-                sendText(exchange, "{\"message\": \"Subtask deleted\"}", HttpURLConnection.HTTP_OK);
-            } else {
-                sendNotFound(exchange);
-            }
-        } catch (Exception e) {
-            sendServerError(exchange, "Server error: " + e.getMessage());
+            int id = taskManager.addSubtask(subtask);
+            sendText(exchange, "{\"id\": " + id + "}", HttpURLConnection.HTTP_CREATED);
+        } catch (IllegalStateException e) {
+            sendHasInteractions(exchange);
         }
     }
+
+    private void delete(HttpExchange exchange, int id) throws IOException {
+        taskManager.deleteSubtaskById(id);
+        sendText(exchange, "{\"message\": \"Subtask deleted\"}", HttpURLConnection.HTTP_OK);
+    }
 }
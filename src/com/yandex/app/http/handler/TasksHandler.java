@@ -1,58 +1,67 @@
 package com.yandex.app.http.handler;
 
 import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
+import com.yandex.app.http.Router;
+import com.yandex.app.http.util.JsonCache;
 import com.yandex.app.model.Task;
+import com.yandex.app.model.TaskType;
 import com.yandex.app.service.TaskManager;
+import com.yandex.app.service.TaskQuery;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
-public class TasksHandler extends BaseHttpHandler implements HttpHandler {
+public class TasksHandler extends BaseHttpHandler {
     private final TaskManager taskManager;
+    private final JsonCache jsonCache;
 
     public TasksHandler(TaskManager taskManager) {
+        this(taskManager, new JsonCache());
+    }
+
+    public TasksHandler(TaskManager taskManager, JsonCache jsonCache) {
         this.taskManager = taskManager;
+        this.jsonCache = jsonCache;
     }
 
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        String method = exchange.getRequestMethod();
-        String path = exchange.getRequestURI().getPath();
+    public void register(Router router) {
+        router.get("/tasks", (exchange, params) -> getAll(exchange))
+                .get("/tasks/{id}", (exchange, params) -> getById(exchange, params[0]))
+                .post("/tasks", (exchange, params) -> add(exchange))
+                .delete("/tasks/{id}", (exchange, params) -> delete(exchange, params[0]));
+    }
 
+    private void getAll(HttpExchange exchange) throws IOException {
+        sendListing(exchange, taskManager, TaskQuery.of(TaskType.TASK), taskManager.tasksView());
+    }
+
+    private void getById(HttpExchange exchange, int id) throws IOException {
+        Optional<Task> task = taskManager.getTask(id);
+        if (task.isPresent()) {
+            sendTask(exchange, task.get(), jsonCache);
+        } else {
+            sendNotFound(exchange);
+        }
+    }
+
+    private void add(HttpExchange exchange) throws IOException {
+        Task task = gson.fromJson(readBody(exchange), Task.class);
+        if (task == null || task.getType() != TaskType.TASK) {
+            sendText(exchange, "{\"error\": \"Expected a TASK\"}", HttpURLConnection.HTTP_BAD_REQUEST);
+            return;
+        }
         try {
-            if (method.equals("GET")) {
-                if (path.equals("/tasks")) {
-                    sendText(exchange, gson.toJson(taskManager.getAllTasks()), HttpURLConnection.HTTP_OK);
-                } else if (path.matches("/tasks/\\d+")) {
-                    int id = getIdFromPath(exchange);
-                    Optional<Task> task = taskManager.getTask(id);
-                    if (task.isPresent()) {
-                        sendText(exchange, gson.toJson(task.get()), HttpURLConnection.HTTP_OK);
-                    } else {
-                        sendNotFound(exchange);
-                    }
-                }
-            } else if (method.equals("POST") && path.equals("/tasks")) {
-                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
-                Task task = gson.fromJson(body, Task.class);
-                try {
-                    int id = taskManager.addTask(task);
-                    sendText(exchange, "{\"id\": " + id + "}", HttpURLConnection.HTTP_CREATED);
-                } catch (IllegalStateException e) {
-                    sendHasInteractions(exchange);
-                }
-            } else if (method.equals("DELETE") && path.matches("/tasks/\\d+")) {
-                int id = getIdFromPath(exchange);
-                taskManager.deleteTaskById(id);
-                sendText(exchange, "{\"message\": \"Task deleted\"}", HttpURLConnection.HTTP_OK);
-            } else {
-                sendNotFound(exchange);
-            }
-        } catch (Exception e) {
-            sendServerError(exchange, "Server error: " + e.getMessage());
+            int id = taskManager.addTask(task);
+            sendText(exchange, "{\"id\": " + id + "}", HttpURLConnection.HTTP_CREATED);
+        } catch (IllegalStateException e) {
+            sendHasInteractions(exchange);
         }
     }
+
+    private void delete(HttpExchange exchange, int id) throws IOException {
+        taskManager.deleteTaskById(id);
+        sendText(exchange, "{\"message\": \"Task deleted\"}", HttpURLConnection.HTTP_OK);
+    }
 }
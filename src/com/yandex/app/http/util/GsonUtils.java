@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.yandex.app.http.adapter.DurationAdapter;
 import com.yandex.app.http.adapter.LocalDateTimeAdapter;
+import com.yandex.app.http.adapter.TaskAdapterFactory;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
@@ -12,6 +13,7 @@ public class GsonUtils {
     private static final Gson GSON = new GsonBuilder()
             .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
             .registerTypeAdapter(Duration.class, new DurationAdapter())
+            .registerTypeAdapterFactory(new TaskAdapterFactory())
             .create();
 
     private GsonUtils() {
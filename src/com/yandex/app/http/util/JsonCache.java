@@ -0,0 +1,97 @@
+package com.yandex.app.http.util;
+
+import com.yandex.app.model.Task;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of tasks already encoded as UTF-8 JSON. Slots are picked by id, one
+ * entry per slot, and an entry only matches the same task object at the same
+ * {@linkplain Task#getVersion() version}, so any change made through the manager, an
+ * epic recompute included, turns the next lookup into a miss without the manager having
+ * to know about the cache. Ids that share a slot simply replace each other.
+ */
+public final class JsonCache {
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public JsonCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public JsonCache(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid cache capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the cached encoding of {@code task}, or encodes it with {@code encoder} and
+     * caches the result. The version is read before encoding, so a change that lands
+     * while the task is being encoded only costs another miss later.
+     */
+    public byte[] encode(Task task, Function<? super Task, byte[]> encoder) {
+        long version = task.getVersion();
+        int slot = task.getId() & mask;
+        Entry entry = slots.get(slot);
+        if (entry != null && entry.task == task && entry.version == version) {
+            hits.increment();
+            bytesSaved.add(entry.json.length);
+            return entry.json;
+        }
+        misses.increment();
+        byte[] json = encoder.apply(task);
+        slots.set(slot, new Entry(task, version, json));
+        return json;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Total size of the responses served from the cache instead of being encoded again.
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    public double hitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private static final class Entry {
+        final Task task;
+        final long version;
+        final byte[] json;
+
+        Entry(Task task, long version, byte[] json) {
+            this.task = task;
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
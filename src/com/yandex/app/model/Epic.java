@@ -1,16 +1,20 @@
 package com.yandex.app.model;
 
-import com.yandex.app.service.InMemoryTaskManager;
+import com.yandex.app.util.IntSet;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Optional;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 public class Epic extends Task {
 
-    private final ArrayList<Integer> subtaskIds = new ArrayList<>();
+    private IntSet subtaskIds = new IntSet();
     private LocalDateTime endTime;
+    private transient EpicAggregate aggregate;
+    private transient volatile Epic snapshot;
 
     public Epic(int id, String name, String description) {
         super(id, name, description, Status.NEW, null, null);
@@ -20,8 +24,8 @@ public class Epic extends Task {
         super(name, description, Status.NEW, null, null);
     }
 
-    public ArrayList<Integer> getSubtaskIds() {
-        return subtaskIds;
+    public List<Integer> getSubtaskIds() {
+        return subtaskIds.asList();
     }
 
     public void addSubtaskId(int subtaskId) {
@@ -29,49 +33,114 @@ public class Epic extends Task {
     }
 
     public void removeSubtaskId(int subtaskId) {
-        subtaskIds.remove((Integer) subtaskId);
+        subtaskIds.remove(subtaskId);
+        aggregate().remove(subtaskId);
+        refresh();
     }
 
     public void clearSubtasks() {
         subtaskIds.clear();
+        aggregate().clear();
+        refresh();
+    }
+
+    public void addSubtask(Subtask subtask) {
+        subtaskIds.add(subtask.getId());
+        aggregate().put(subtask);
+        refresh();
+    }
+
+    public void replaceSubtask(Subtask subtask) {
+        aggregate().put(subtask);
+        refresh();
+    }
+
+    public void adoptSubtasks(Epic previous) {
+        if (previous != this) {
+            subtaskIds = new IntSet(previous.subtaskIds);
+            aggregate = previous.aggregate();
+        }
+        refresh();
+    }
+
+    /**
+     * Returns a detached copy of this epic, shared by callers until the epic's version
+     * changes. Managers update epics in place as their subtasks change, so a reader that
+     * keeps an epic past the manager's lock takes a snapshot while still holding it.
+     */
+    public Epic snapshot() {
+        Epic copy = snapshot;
+        if (copy == null || copy.getVersion() != getVersion()) {
+            copy = new Epic(getId(), getName(), getDescription());
+            copy.subtaskIds = new IntSet(subtaskIds);
+            copy.setStatus(getStatus());
+            copy.setDuration(getDuration());
+            copy.setStartTime(getStartTime());
+            copy.endTime = endTime;
+            copy.setVersion(getVersion());
+            copy.snapshot = copy;
+            snapshot = copy;
+        }
+        return copy;
     }
 
     public void setStatusEpic(Status status) {
         this.setStatus(status);
     }
 
-    public void updateTimeFields(InMemoryTaskManager manager) {
-        if (subtaskIds.isEmpty()) {
-            setDuration(null);
-            setStartTime(null);
-            endTime = null;
-            return;
+    public void updateTimeFields(SubtaskView subtasks) {
+        EpicAggregate rebuilt = new EpicAggregate();
+        subtaskIds.forEach(id -> {
+            Subtask subtask = subtasks.find(id);
+            if (subtask != null) {
+                rebuilt.put(subtask);
+            }
+        });
+        aggregate = rebuilt;
+        refresh();
+    }
+
+    /**
+     * Recomputes the derived fields from {@code subtasks} by a full scan and throws if
+     * they disagree with the incrementally maintained ones.
+     */
+    public void verifyAggregates(Collection<? extends Subtask> subtasks) {
+        Set<Integer> expectedIds = new HashSet<>();
+        EpicAggregate expected = new EpicAggregate();
+        for (Subtask subtask : subtasks) {
+            expectedIds.add(subtask.getId());
+            expected.put(subtask);
         }
+        check("subtask ids", expectedIds, new HashSet<>(subtaskIds.asList()));
+        check("status", expected.status(), getStatus());
+        check("duration", expected.totalDuration(), getDuration());
+        check("start time", expected.earliestStart(), getStartTime());
+        check("end time", expected.latestEnd(), endTime);
+    }
 
-        Duration totalDuration = Duration.ZERO;
-        LocalDateTime earliestStart = null;
-        LocalDateTime latestEnd = null;
-
-        for (Integer subtaskId : subtaskIds) {
-            Optional<Subtask> subtaskOpt = manager.getSubtask(subtaskId);
-            if (subtaskOpt.isPresent()) {
-                Subtask subtask = subtaskOpt.get();
-                if (subtask.getStartTime() != null && subtask.getDuration() != null) {
-                    totalDuration = totalDuration.plus(subtask.getDuration());
-                    if (earliestStart == null || subtask.getStartTime().isBefore(earliestStart)) {
-                        earliestStart = subtask.getStartTime();
-                    }
-                    LocalDateTime subtaskEnd = subtask.getEndTime();
-                    if (subtaskEnd != null && (latestEnd == null || subtaskEnd.isAfter(latestEnd))) {
-                        latestEnd = subtaskEnd;
-                    }
-                }
-            }
+    private void check(String field, Object expected, Object actual) {
+        if (!Objects.equals(expected, actual)) {
+            throw new IllegalStateException("Epic " + getId() + " " + field + " is " + actual + ", expected " + expected);
+        }
+    }
+
+    private EpicAggregate aggregate() {
+        if (aggregate == null) {
+            aggregate = new EpicAggregate();
         }
+        return aggregate;
+    }
+
+    private void refresh() {
+        EpicAggregate totals = aggregate();
+        setStatus(totals.status());
+        setDuration(totals.totalDuration());
+        setStartTime(totals.earliestStart());
+        endTime = totals.latestEnd();
+    }
 
-        setDuration(totalDuration);
-        setStartTime(earliestStart);
-        endTime = latestEnd;
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
     }
 
     public LocalDateTime getEndTime() {
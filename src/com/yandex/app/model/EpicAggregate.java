@@ -0,0 +1,109 @@
+package com.yandex.app.model;
+
+import com.yandex.app.util.IntMap;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Running totals over the subtasks of one epic. Each subtask's contribution is
+ * captured when it is added so it can be taken back out on update or removal
+ * without rescanning the other subtasks: counters and the total duration change in
+ * O(1), and start/end times are kept in counted sorted multisets so that the
+ * earliest start and latest end survive deletions in O(log k).
+ */
+class EpicAggregate {
+    private final IntMap<Contribution> contributions = new IntMap<>();
+    private final NavigableMap<LocalDateTime, Integer> starts = new TreeMap<>();
+    private final NavigableMap<LocalDateTime, Integer> ends = new TreeMap<>();
+    private int newCount;
+    private int doneCount;
+    private Duration totalDuration = Duration.ZERO;
+
+    private static class Contribution {
+        final Status status;
+        final Duration duration;
+        final LocalDateTime start;
+        final LocalDateTime end;
+
+        Contribution(Subtask subtask) {
+            this.status = subtask.getStatus();
+            boolean scheduled = subtask.getStartTime() != null && subtask.getDuration() != null;
+            this.duration = scheduled ? subtask.getDuration() : null;
+            this.start = scheduled ? subtask.getStartTime() : null;
+            this.end = scheduled ? subtask.getEndTime() : null;
+        }
+    }
+
+    void put(Subtask subtask) {
+        remove(subtask.getId());
+        Contribution contribution = new Contribution(subtask);
+        contributions.put(subtask.getId(), contribution);
+        if (contribution.status == Status.NEW) {
+            newCount++;
+        } else if (contribution.status == Status.DONE) {
+            doneCount++;
+        }
+        if (contribution.duration != null) {
+            totalDuration = totalDuration.plus(contribution.duration);
+            starts.merge(contribution.start, 1, Integer::sum);
+            ends.merge(contribution.end, 1, Integer::sum);
+        }
+    }
+
+    void remove(int subtaskId) {
+        Contribution contribution = contributions.remove(subtaskId);
+        if (contribution == null) {
+            return;
+        }
+        if (contribution.status == Status.NEW) {
+            newCount--;
+        } else if (contribution.status == Status.DONE) {
+            doneCount--;
+        }
+        if (contribution.duration != null) {
+            totalDuration = totalDuration.minus(contribution.duration);
+            decrement(starts, contribution.start);
+            decrement(ends, contribution.end);
+        }
+    }
+
+    void clear() {
+        contributions.clear();
+        starts.clear();
+        ends.clear();
+        newCount = 0;
+        doneCount = 0;
+        totalDuration = Duration.ZERO;
+    }
+
+    int size() {
+        return contributions.size();
+    }
+
+    Status status() {
+        int size = contributions.size();
+        if (size == 0 || newCount == size) {
+            return Status.NEW;
+        }
+        return doneCount == size ? Status.DONE : Status.IN_PROGRESS;
+    }
+
+    Duration totalDuration() {
+        return contributions.isEmpty() ? null : totalDuration;
+    }
+
+    LocalDateTime earliestStart() {
+        return starts.isEmpty() ? null : starts.firstKey();
+    }
+
+    LocalDateTime latestEnd() {
+        return ends.isEmpty() ? null : ends.lastKey();
+    }
+
+    private static void decrement(NavigableMap<LocalDateTime, Integer> multiset, LocalDateTime key) {
+        multiset.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+    }
+}
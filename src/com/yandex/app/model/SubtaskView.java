@@ -0,0 +1,10 @@
+package com.yandex.app.model;
+
+/**
+ * Read-only subtask lookup for epic aggregation. Unlike {@code TaskManager.getSubtask}
+ * it must not record anything in history.
+ */
+@FunctionalInterface
+public interface SubtaskView {
+    Subtask find(int id);
+}
@@ -11,6 +11,7 @@ public class Task {
     private Status status;
     private Duration duration;
     private LocalDateTime startTime;
+    private transient volatile long version;
 
     public Task(int id, String name, String description, Status status, Duration duration, LocalDateTime startTime) {
         this.id = id;
@@ -84,6 +85,19 @@ public class Task {
         this.description = description;
     }
 
+    /**
+     * Stamp the managing {@link com.yandex.app.service.TaskManager} moves forward after
+     * each change to this task, including an epic's recomputed fields. It is set after the
+     * change itself, so a reader that sees a version also sees the state it stands for.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public TaskType getType() {
         return TaskType.TASK;
     }
@@ -0,0 +1,223 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned columnar snapshot. A fixed 32-byte header (magic, version, row count, string count,
+ * string pool offset, id high-water mark) is followed by one column per field and a pool of UTF-8 strings that the
+ * name and description columns point into. Files are read through a {@link MappedByteBuffer}.
+ */
+class BinarySnapshot {
+    static final int MAGIC = 0x53424E4B;
+    static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 32;
+    private static final int ROW_BYTES = 4 + 4 + 4 + 4 + 8 + 8 + 4 + 1 + 1;
+    private static final int NO_STRING = -1;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+    private static final TaskType[] TYPES = TaskType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private BinarySnapshot() {
+    }
+
+    static boolean isBinary(File file) throws IOException {
+        if (file.length() < HEADER_BYTES) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(magic);
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    static void write(File target, List<? extends Task> rows, int highWater, boolean force) throws IOException {
+        int count = rows.size();
+        Map<String, Integer> poolIndex = new HashMap<>();
+        List<byte[]> pool = new ArrayList<>();
+        int[] names = new int[count];
+        int[] descriptions = new int[count];
+        long poolBytes = 0;
+        for (int i = 0; i < count; i++) {
+            Task row = rows.get(i);
+            names[i] = intern(row.getName(), poolIndex, pool);
+            descriptions[i] = intern(row.getDescription(), poolIndex, pool);
+        }
+        for (byte[] string : pool) {
+            poolBytes += 4 + string.length;
+        }
+
+        long poolOffset = HEADER_BYTES + (long) count * ROW_BYTES;
+        long size = poolOffset + poolBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot is too large: " + size + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(pool.size()).putLong(poolOffset).putInt(highWater).putInt(0);
+
+        Columns columns = new Columns(count);
+        for (int i = 0; i < count; i++) {
+            Task row = rows.get(i);
+            buffer.putInt(columns.id + 4 * i, row.getId());
+            buffer.putInt(columns.epicId + 4 * i, row instanceof Subtask ? ((Subtask) row).getEpicId() : 0);
+            buffer.putInt(columns.name + 4 * i, names[i]);
+            buffer.putInt(columns.description + 4 * i, descriptions[i]);
+            buffer.putLong(columns.duration + 8 * i, row.getDuration() != null ? row.getDuration().toMinutes() : NO_VALUE);
+            LocalDateTime start = row.getStartTime();
+            buffer.putLong(columns.startSecond + 8 * i, start != null ? start.toEpochSecond(ZoneOffset.UTC) : NO_VALUE);
+            buffer.putInt(columns.startNano + 4 * i, start != null ? start.getNano() : 0);
+            buffer.put(columns.type + i, (byte) row.getType().ordinal());
+            buffer.put(columns.status + i, (byte) row.getStatus().ordinal());
+        }
+
+        buffer.position((int) poolOffset);
+        for (byte[] string : pool) {
+            buffer.putInt(string.length).put(string);
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(target.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (force) {
+                channel.force(true);
+            }
+        }
+    }
+
+    static List<Task> read(File source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a binary task snapshot: " + source.getPath());
+            }
+            int version = buffer.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + source.getPath());
+            }
+            int count = buffer.getInt(8);
+            int stringCount = buffer.getInt(12);
+            int position = (int) buffer.getLong(16);
+
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < stringCount; i++) {
+                byte[] bytes = new byte[buffer.getInt(position)];
+                buffer.get(position + 4, bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+                position += 4 + bytes.length;
+            }
+
+            Columns columns = new Columns(count);
+            List<Task> rows = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int id = buffer.getInt(columns.id + 4 * i);
+                String name = string(strings, buffer.getInt(columns.name + 4 * i));
+                String description = string(strings, buffer.getInt(columns.description + 4 * i));
+                long minutes = buffer.getLong(columns.duration + 8 * i);
+                Duration duration = minutes != NO_VALUE ? Duration.ofMinutes(minutes) : null;
+                long second = buffer.getLong(columns.startSecond + 8 * i);
+                LocalDateTime start = second != NO_VALUE
+                        ? LocalDateTime.ofEpochSecond(second, buffer.getInt(columns.startNano + 4 * i), ZoneOffset.UTC)
+                        : null;
+                Status status = decode(STATUSES, buffer.get(columns.status + i), "status", i, source);
+
+                switch (decode(TYPES, buffer.get(columns.type + i), "type", i, source)) {
+                    case TASK:
+                        rows.add(new Task(id, name, description, status, duration, start));
+                        break;
+                    case EPIC:
+                        rows.add(new Epic(id, name, description));
+                        break;
+                    case SUBTASK:
+                        int epicId = buffer.getInt(columns.epicId + 4 * i);
+                        rows.add(new Subtask(epicId, id, name, description, status, duration, start));
+                        break;
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Returns the id high-water mark stored in the header; snapshots written before it was
+     * recorded hold zero there.
+     */
+    static int readHighWater(File source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends.
+            }
+            return header.hasRemaining() ? 0 : header.getInt(24);
+        }
+    }
+
+    private static int intern(String value, Map<String, Integer> poolIndex, List<byte[]> pool) {
+        if (value == null) {
+            return NO_STRING;
+        }
+        Integer index = poolIndex.get(value);
+        if (index == null) {
+            index = pool.size();
+            poolIndex.put(value, index);
+            pool.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return index;
+    }
+
+    private static String string(String[] strings, int index) {
+        return index == NO_STRING ? null : strings[index];
+    }
+
+    private static <E> E decode(E[] values, byte stored, String field, int row, File source) throws IOException {
+        int ordinal = Byte.toUnsignedInt(stored);
+        if (ordinal >= values.length) {
+            throw new IOException("Unknown " + field + " " + ordinal + " in row " + row + ": " + source.getPath());
+        }
+        return values[ordinal];
+    }
+
+    private static class Columns {
+        final int id;
+        final int epicId;
+        final int name;
+        final int description;
+        final int duration;
+        final int startSecond;
+        final int startNano;
+        final int type;
+        final int status;
+
+        Columns(int count) {
+            id = HEADER_BYTES;
+            epicId = id + 4 * count;
+            name = epicId + 4 * count;
+            description = name + 4 * count;
+            duration = description + 4 * count;
+            startSecond = duration + 8 * count;
+            startNano = startSecond + 8 * count;
+            type = startNano + 4 * count;
+            status = type + count;
+        }
+    }
+}
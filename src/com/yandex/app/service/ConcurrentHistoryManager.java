@@ -0,0 +1,201 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Task;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, thread-safe history with least-recently-viewed eviction. {@link #add} only
+ * appends to a small ring buffer picked by thread, so concurrent views do not contend on
+ * a shared lock; whichever thread fills a buffer past half drains every buffer into the
+ * LRU order under a try-lock. {@link #getHistory} waits for the drain lock instead, which
+ * is held for at most one pass over the buffers, and drains every claimed slot, so the
+ * history always includes the caller's own earlier views; it returns an immutable
+ * snapshot that is rebuilt only after a drain changed something.
+ *
+ * <p>Views recorded by different threads are ordered by drain, not by wall clock.
+ * {@link #remove} drains first, so a view recorded before the removal cannot bring the
+ * task back afterwards.
+ */
+public class ConcurrentHistoryManager implements HistoryManager {
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private static final int BUFFER_SIZE = 64;
+    private static final int MASK = BUFFER_SIZE - 1;
+    private static final int DRAIN_THRESHOLD = BUFFER_SIZE / 2;
+
+    private final ReadBuffer[] buffers;
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Map<Integer, Task> entries;
+    private boolean changed;
+    private volatile List<Task> snapshot = List.of();
+
+    public ConcurrentHistoryManager() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ConcurrentHistoryManager(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("History capacity must be positive: " + capacity);
+        }
+        int stripes = 1;
+        while (stripes < 2 * Runtime.getRuntime().availableProcessors()) {
+            stripes <<= 1;
+        }
+        buffers = new ReadBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            buffers[i] = new ReadBuffer();
+        }
+        entries = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Task> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @Override
+    public void add(Task task) {
+        if (task == null) {
+            return;
+        }
+        ReadBuffer buffer = buffers[stripe()];
+        while (true) {
+            switch (buffer.offer(task)) {
+                case ADDED:
+                    return;
+                case ADDED_DRAIN:
+                    if (drainLock.tryLock()) {
+                        try {
+                            drainAll();
+                        } finally {
+                            drainLock.unlock();
+                        }
+                    }
+                    return;
+                case FULL:
+                    drainLock.lock();
+                    try {
+                        drainAll();
+                    } finally {
+                        drainLock.unlock();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public void remove(int id) {
+        drainLock.lock();
+        try {
+            drainCompletely();
+            if (entries.remove(id) != null) {
+                changed = true;
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        drainLock.lock();
+        try {
+            drainCompletely();
+            if (changed) {
+                snapshot = List.copyOf(entries.values());
+                changed = false;
+            }
+        } finally {
+            drainLock.unlock();
+        }
+        return snapshot;
+    }
+
+    private void drainAll() {
+        for (ReadBuffer buffer : buffers) {
+            buffer.drain(this, false);
+        }
+    }
+
+    /**
+     * Drains every view recorded so far, waiting out writers that claimed a slot but have
+     * not filled it yet; a view from another thread sharing the stripe could otherwise
+     * hold back the caller's own later one.
+     */
+    private void drainCompletely() {
+        for (ReadBuffer buffer : buffers) {
+            buffer.drain(this, true);
+        }
+    }
+
+    private void record(Task task) {
+        entries.remove(task.getId());
+        entries.put(task.getId(), task);
+        changed = true;
+    }
+
+    private int stripe() {
+        int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (buffers.length - 1);
+    }
+
+    private enum Offer {
+        ADDED,
+        ADDED_DRAIN,
+        FULL,
+        RETRY
+    }
+
+    private static final class ReadBuffer {
+        private final AtomicReferenceArray<Task> slots = new AtomicReferenceArray<>(BUFFER_SIZE);
+        private final AtomicLong writes = new AtomicLong();
+        private volatile long reads;
+
+        Offer offer(Task task) {
+            long head = reads;
+            long tail = writes.get();
+            long size = tail - head;
+            if (size >= BUFFER_SIZE) {
+                return Offer.FULL;
+            }
+            if (!writes.compareAndSet(tail, tail + 1)) {
+                return Offer.RETRY;
+            }
+            slots.lazySet((int) tail & MASK, task);
+            return size + 1 >= DRAIN_THRESHOLD ? Offer.ADDED_DRAIN : Offer.ADDED;
+        }
+
+        /**
+         * Runs under the drain lock. Unless {@code complete}, stops at a slot that has been
+         * claimed but not yet filled and leaves it to the next drain; otherwise waits for
+         * it, which is short since a claimed slot is filled right after the claim.
+         */
+        void drain(ConcurrentHistoryManager history, boolean complete) {
+            long head = reads;
+            long tail = writes.get();
+            for (; head < tail; head++) {
+                int index = (int) head & MASK;
+                Task task = slots.get(index);
+                while (task == null && complete) {
+                    Thread.yield();
+                    task = slots.get(index);
+                }
+                if (task == null) {
+                    break;
+                }
+                slots.lazySet(index, null);
+                history.record(task);
+            }
+            reads = head;
+        }
+    }
+}
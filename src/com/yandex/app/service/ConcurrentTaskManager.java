@@ -0,0 +1,253 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Epic;
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Subtask;
+import com.yandex.app.model.Task;
+import com.yandex.app.model.TaskType;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe task manager for the multi-threaded HTTP server. Mutations run one at a
+ * time under a write lock, since an overlap check, its slot reservation and the epic
+ * and index updates that follow have to be atomic together; lookups and listings share
+ * a read lock and run in parallel. History is a {@link SessionHistoryManager} of
+ * {@link ConcurrentHistoryManager}s, so {@code get*} calls that record history can
+ * still do so under the read lock, each into the caller's own session. Epics are
+ * handed out as {@linkplain Epic#snapshot() snapshots}, since they are updated in place
+ * and their callers use them after the lock is released.
+ */
+public class ConcurrentTaskManager extends InMemoryTaskManager {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
+    public ConcurrentTaskManager() {
+        this(SlotCalendar.DEFAULT_GRANULARITY);
+    }
+
+    public ConcurrentTaskManager(Duration slotGranularity) {
+        this(slotGranularity, ConcurrentHistoryManager.DEFAULT_CAPACITY);
+    }
+
+    public ConcurrentTaskManager(Duration slotGranularity, int historyCapacity) {
+        this(slotGranularity, new SessionHistoryManager(historyCapacity,
+                Math.max(SessionHistoryManager.DEFAULT_MAX_NODES, 2 * historyCapacity),
+                SessionHistoryManager.DEFAULT_IDLE_TIMEOUT));
+    }
+
+    ConcurrentTaskManager(Duration slotGranularity, HistoryManager historyManager) {
+        super(slotGranularity, historyManager);
+    }
+
+    @Override
+    public int addTask(Task task) {
+        return write(() -> super.addTask(task));
+    }
+
+    @Override
+    public int addEpic(Epic epic) {
+        return write(() -> super.addEpic(epic));
+    }
+
+    @Override
+    public int addSubtask(Subtask subtask) {
+        return write(() -> super.addSubtask(subtask));
+    }
+
+    @Override
+    public void bulkLoad(Collection<? extends Task> items) {
+        write(() -> super.bulkLoad(items));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        write(() -> super.updateTask(task));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        write(() -> super.updateEpic(epic));
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        write(() -> super.updateSubtask(subtask));
+    }
+
+    @Override
+    public Optional<Task> getTask(int id) {
+        return read(() -> super.getTask(id));
+    }
+
+    @Override
+    public Optional<Subtask> getSubtask(int id) {
+        return read(() -> super.getSubtask(id));
+    }
+
+    @Override
+    public Optional<Epic> getEpic(int id) {
+        return read(() -> EpicSnapshots.of(super.getEpic(id)));
+    }
+
+    @Override
+    public void deleteTaskById(int id) {
+        write(() -> super.deleteTaskById(id));
+    }
+
+    @Override
+    public void deleteEpicById(int id) {
+        write(() -> super.deleteEpicById(id));
+    }
+
+    @Override
+    public void deleteSubtaskById(int id) {
+        write(() -> super.deleteSubtaskById(id));
+    }
+
+    @Override
+    public ArrayList<Task> getAllTasks() {
+        return read(super::getAllTasks);
+    }
+
+    @Override
+    public ArrayList<Epic> getAllEpics() {
+        return read(() -> EpicSnapshots.of(super.getAllEpics()));
+    }
+
+    @Override
+    public ArrayList<Subtask> getAllSubtasks() {
+        return read(super::getAllSubtasks);
+    }
+
+    @Override
+    public ArrayList<Subtask> getSubtasksByEpicId(int epicId) {
+        return read(() -> super.getSubtasksByEpicId(epicId));
+    }
+
+    /**
+     * Returns a snapshot rather than a live view, which could not be iterated safely
+     * after the read lock is released.
+     */
+    @Override
+    public Collection<Task> tasksView() {
+        return read(() -> new ArrayList<>(super.tasksView()));
+    }
+
+    @Override
+    public Collection<Epic> epicsView() {
+        return read(() -> EpicSnapshots.of(super.epicsView()));
+    }
+
+    @Override
+    public Collection<Subtask> subtasksView() {
+        return read(() -> new ArrayList<>(super.subtasksView()));
+    }
+
+    @Override
+    public Collection<Task> prioritizedView() {
+        return read(() -> new ArrayList<>(super.prioritizedView()));
+    }
+
+    @Override
+    public TaskPage query(TaskQuery query) {
+        return read(() -> EpicSnapshots.of(super.query(query)));
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        return read(() -> EpicSnapshots.of(super.search(query, limit)));
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskType type, Status status) {
+        return read(() -> EpicSnapshots.of(super.findByStatus(type, status)));
+    }
+
+    @Override
+    public Map<Status, Integer> countByStatus(TaskType type) {
+        return read(() -> super.countByStatus(type));
+    }
+
+    @Override
+    public long modificationCount(TaskType type) {
+        return read(() -> super.modificationCount(type));
+    }
+
+    @Override
+    public void clearTasks() {
+        write(super::clearTasks);
+    }
+
+    @Override
+    public void clearSubtasks() {
+        write(super::clearSubtasks);
+    }
+
+    @Override
+    public void clearEpics() {
+        write(super::clearEpics);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(() -> EpicSnapshots.of(super.getHistory()));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return read(super::getPrioritizedTasks);
+    }
+
+    @Override
+    public List<Task> tasksStartingBetween(LocalDateTime from, LocalDateTime to) {
+        return read(() -> super.tasksStartingBetween(from, to));
+    }
+
+    @Override
+    public List<Task> tasksActiveAt(LocalDateTime instant) {
+        return read(() -> super.tasksActiveAt(instant));
+    }
+
+    @Override
+    public List<Task> nextTasks(LocalDateTime from, int limit) {
+        return read(() -> super.nextTasks(from, limit));
+    }
+
+    private <R> R read(Supplier<R> action) {
+        readLock.lock();
+        try {
+            return action.get();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private <R> R write(Supplier<R> action) {
+        writeLock.lock();
+        try {
+            return action.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.yandex.app.service;
+
+public enum DurabilityMode {
+    NONE,
+    BATCHED,
+    SYNC
+}
@@ -0,0 +1,40 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Epic;
+import com.yandex.app.model.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Replaces epics with their {@linkplain Epic#snapshot() snapshots} in results that are
+ * read under a lock and used after it is released, so a concurrent subtask change cannot
+ * be seen half applied. Tasks and subtasks are replaced rather than changed in place and
+ * are passed through as they are.
+ */
+final class EpicSnapshots {
+    private EpicSnapshots() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Task> T of(T task) {
+        return task instanceof Epic ? (T) ((Epic) task).snapshot() : task;
+    }
+
+    static <T extends Task> Optional<T> of(Optional<T> task) {
+        return task.map(EpicSnapshots::of);
+    }
+
+    static <T extends Task> ArrayList<T> of(Collection<T> items) {
+        ArrayList<T> result = new ArrayList<>(items.size());
+        for (T item : items) {
+            result.add(of(item));
+        }
+        return result;
+    }
+
+    static TaskPage of(TaskPage page) {
+        return new TaskPage(of(page.getItems()), page.getNextCursor());
+    }
+}
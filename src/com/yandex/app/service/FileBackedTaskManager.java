@@ -4,18 +4,63 @@ import com.yandex.app.Main;
 import com.yandex.app.model.*;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
 
-public class FileBackedTaskManager extends InMemoryTaskManager {
-    private final File file;
+public class FileBackedTaskManager extends InMemoryTaskManager implements Closeable {
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final String HEADER = "id,type,name,status,description,epic";
+    private static final String HIGH_WATER = "#high-water";
+    private static final String ADD = "ADD";
+    private static final String UPDATE = "UPD";
+    private static final String DELETE = "DEL";
+    private static final String CLEAR = "CLR";
+
+    private final File file;
+    private final File journalFile;
+    private final StorageOptions options;
+    private final GroupCommitter committer;
+    private volatile FileChannel journal;
+    private int journalRecords;
+    private boolean restoring;
+    private boolean restored;
 
     public FileBackedTaskManager(File file) {
+        this(file, StorageOptions.defaults());
+    }
+
+    public FileBackedTaskManager(File file, StorageOptions options) {
+        this(file, options, Managers.getDefaultHistory());
+    }
+
+    FileBackedTaskManager(File file, StorageOptions options, HistoryManager historyManager) {
+        super(SlotCalendar.DEFAULT_GRANULARITY, historyManager);
         this.file = file;
+        this.journalFile = journalFileFor(file);
+        this.options = options;
+        this.committer = options.getDurability() == DurabilityMode.BATCHED
+                ? new GroupCommitter("task-store-flusher-" + file.getName(), this::commitBatch,
+                        options.getBatchWindow(), options.getBatchOperations())
+                : null;
+    }
+
+    public static File journalFileFor(File file) {
+        return new File(file.getPath() + ".journal");
     }
 
     public static class ManagerSaveException extends RuntimeException {
@@ -25,8 +70,76 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     }
 
     protected void save() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            writer.write("id,type,name,status,description,epic\n");
+        writeSnapshot(file, false);
+    }
+
+    public synchronized void compact() {
+        replaceSnapshot(options.getDurability() != DurabilityMode.NONE);
+        try {
+            FileChannel previous = journal;
+            journal = FileChannel.open(journalFile.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            if (previous != null) {
+                previous.close();
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Error compacting journal: " + journalFile.getPath(), e);
+        }
+        journalRecords = 0;
+        restored = true;
+    }
+
+    public CompletableFuture<Void> whenDurable() {
+        return committer != null ? committer.whenDurable() : CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (committer != null) {
+                committer.close();
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Error flushing tasks to file: " + file.getPath(), e);
+        } finally {
+            closeJournal();
+        }
+    }
+
+    public synchronized void exportCsv(File target) {
+        writeCsv(target, false);
+    }
+
+    public static FileBackedTaskManager importCsv(File csv, File file, StorageOptions options) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, options);
+        try {
+            manager.bulkLoad(readCsv(csv));
+        } catch (IOException e) {
+            throw new ManagerSaveException("Error importing tasks from file: " + csv.getPath(), e);
+        }
+        return manager;
+    }
+
+    private void writeSnapshot(File target, boolean force) {
+        if (options.getSnapshotFormat() == SnapshotFormat.CSV) {
+            writeCsv(target, force);
+            return;
+        }
+        List<Task> rows = new ArrayList<>(getAllTasks());
+        rows.addAll(getAllEpics());
+        rows.addAll(getAllSubtasks());
+        try {
+            BinarySnapshot.write(target, rows, idAllocator().highWater(), force);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Error saving tasks to file: " + target.getPath(), e);
+        }
+    }
+
+    private void writeCsv(File target, boolean force) {
+        try (FileOutputStream out = new FileOutputStream(target);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writer.write(HEADER + "\n");
+            writer.write(HIGH_WATER + "," + idAllocator().highWater() + "\n");
 
             for (Task task : getAllTasks()) {
                 writer.write(toString(task) + "\n");
@@ -39,21 +152,321 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
             for (Subtask subtask : getAllSubtasks()) {
                 writer.write(toString(subtask) + "\n");
             }
+
+            writer.flush();
+            if (force) {
+                out.getChannel().force(true);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Error saving tasks to file: " + target.getPath(), e);
+        }
+    }
+
+    private void replaceSnapshot(boolean force) {
+        File tmp = new File(file.getPath() + ".tmp");
+        writeSnapshot(tmp, force);
+        try {
+            try {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
         } catch (IOException e) {
             throw new ManagerSaveException("Error saving tasks to file: " + file.getPath(), e);
         }
     }
 
+    private void persistPut(String op, Task task) {
+        if (restoring) {
+            return;
+        }
+        if (options.isJournaled()) {
+            appendJournal(op + "," + toString(task));
+        } else {
+            saveSnapshot();
+        }
+        submitBatch();
+    }
+
+    private void persistBulk() {
+        if (restoring) {
+            return;
+        }
+        if (options.isJournaled()) {
+            // One snapshot instead of a journal record per item.
+            compact();
+        } else {
+            saveSnapshot();
+        }
+        submitBatch();
+    }
+
+    private void persistDelete(TaskType type, int id) {
+        if (restoring) {
+            return;
+        }
+        if (options.isJournaled()) {
+            appendJournal(DELETE + "," + type.name() + "," + id);
+        } else {
+            saveSnapshot();
+        }
+        submitBatch();
+    }
+
+    private void persistClear(TaskType type) {
+        if (restoring) {
+            return;
+        }
+        if (options.isJournaled()) {
+            appendJournal(CLEAR + "," + type.name());
+        } else {
+            saveSnapshot();
+        }
+        submitBatch();
+    }
+
+    private void saveSnapshot() {
+        switch (options.getDurability()) {
+            case NONE:
+                save();
+                break;
+            case SYNC:
+                replaceSnapshot(true);
+                break;
+            case BATCHED:
+                // Coalesced: the flusher writes one snapshot per batch window.
+                break;
+        }
+    }
+
+    private void appendJournal(String record) {
+        if (journal == null && !restored) {
+            // The file does not describe this manager yet, so start the journal from a snapshot that already holds the record.
+            compact();
+            return;
+        }
+        if (journal == null) {
+            openJournal();
+        }
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap((frame(record) + "\n").getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                journal.write(bytes);
+            }
+            if (options.getDurability() == DurabilityMode.SYNC) {
+                journal.force(false);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Error writing journal: " + journalFile.getPath(), e);
+        }
+        if (++journalRecords >= options.getCompactionThreshold()) {
+            compact();
+        }
+    }
+
+    /**
+     * Prefixes a journal record with the CRC-32 of its UTF-8 bytes as eight hex digits,
+     * so a record cut short by a crash can be told apart from a complete one.
+     */
+    private static String frame(String record) {
+        return String.format("%08x", checksum(record)) + "," + record;
+    }
+
+    /**
+     * Returns the record in a framed journal line, or {@code null} if the line does not
+     * pass its checksum.
+     */
+    private static String unframe(String line) {
+        if (line.length() < 9 || line.charAt(8) != ',') {
+            return null;
+        }
+        long expected;
+        try {
+            expected = Long.parseLong(line.substring(0, 8), 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        String record = line.substring(9);
+        return checksum(record) == expected ? record : null;
+    }
+
+    private static long checksum(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private void submitBatch() {
+        if (committer == null) {
+            return;
+        }
+        try {
+            committer.submit();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Error flushing tasks to file: " + file.getPath(), e);
+        }
+    }
+
+    private void commitBatch() throws IOException {
+        if (!options.isJournaled()) {
+            synchronized (this) {
+                replaceSnapshot(true);
+            }
+            return;
+        }
+        FileChannel channel = journal;
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // Compaction swapped the journal only after forcing a snapshot that covers everything written to it.
+        }
+    }
+
+    private void openJournal() {
+        try {
+            journal = FileChannel.open(journalFile.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new ManagerSaveException("Error opening journal: " + journalFile.getPath(), e);
+        }
+    }
+
+    private void closeJournal() {
+        FileChannel channel = journal;
+        if (channel == null) {
+            return;
+        }
+        journal = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new ManagerSaveException("Error closing journal: " + journalFile.getPath(), e);
+        }
+    }
+
+    private void replay(String record) {
+        int comma = record.indexOf(',');
+        String op = record.substring(0, comma);
+        String payload = record.substring(comma + 1);
+        switch (op) {
+            case ADD:
+            case UPDATE:
+                Task task = fromString(payload);
+                if (op.equals(ADD) && !contains(task.getId())) {
+                    restore(task);
+                } else if (task instanceof Epic) {
+                    updateEpic((Epic) task);
+                } else if (task instanceof Subtask) {
+                    updateSubtask((Subtask) task);
+                } else {
+                    updateTask(task);
+                }
+                break;
+            case DELETE:
+                String[] parts = payload.split(",");
+                int id = Integer.parseInt(parts[1]);
+                switch (TaskType.valueOf(parts[0])) {
+                    case TASK:
+                        deleteTaskById(id);
+                        break;
+                    case EPIC:
+                        deleteEpicById(id);
+                        break;
+                    case SUBTASK:
+                        deleteSubtaskById(id);
+                        break;
+                }
+                break;
+            case CLEAR:
+                switch (TaskType.valueOf(payload)) {
+                    case TASK:
+                        clearTasks();
+                        break;
+                    case EPIC:
+                        clearEpics();
+                        break;
+                    case SUBTASK:
+                        clearSubtasks();
+                        break;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown journal operation: " + op);
+        }
+    }
+
+    private void restore(Task task) {
+        if (task instanceof Epic) {
+            addEpic((Epic) task);
+        } else if (task instanceof Subtask) {
+            addSubtask((Subtask) task);
+        } else {
+            addTask(task);
+        }
+    }
+
     private String toString(Task task) {
-        String epicId = task instanceof Subtask ? String.valueOf(((Subtask) task).getEpicId()) : "";
-        String duration = task.getDuration() != null ? String.valueOf(task.getDuration().toMinutes()) : "";
-        String startTime = task.getStartTime() != null ? task.getStartTime().format(FORMATTER) : "";
-        return String.format("%d,%s,%s,%s,%s,%s,%s,%s",
-                task.getId(), task.getType().name(), task.getName(), task.getStatus(), task.getDescription(), duration, epicId, startTime);
+        StringBuilder line = new StringBuilder(96)
+                .append(task.getId()).append(',')
+                .append(task.getType().name()).append(',')
+                .append(task.getName()).append(',')
+                .append(task.getStatus()).append(',')
+                .append(task.getDescription()).append(',');
+        if (task.getDuration() != null) {
+            line.append(task.getDuration().toMinutes());
+        }
+        line.append(',');
+        if (task instanceof Subtask) {
+            line.append(((Subtask) task).getEpicId());
+        }
+        line.append(',');
+        if (task.getStartTime() != null) {
+            FORMATTER.formatTo(task.getStartTime(), line);
+        }
+        return line.toString();
+    }
+
+    private static List<Task> readSnapshot(File file) throws IOException {
+        return BinarySnapshot.isBinary(file) ? BinarySnapshot.read(file) : readCsv(file);
     }
 
-    private Task fromString(String value) {
-        String[] parts = value.split(",");
+    private static List<Task> readCsv(File file) throws IOException {
+        String content = Files.readString(file.toPath());
+        String[] lines = content.split("\n");
+        List<Task> rows = new ArrayList<>(lines.length);
+
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                rows.add(fromString(line));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the id high-water mark of a snapshot, or zero for files written before it was
+     * recorded. CSV files carry it on the line after the header.
+     */
+    private static int readHighWater(File file) throws IOException {
+        if (BinarySnapshot.isBinary(file)) {
+            return BinarySnapshot.readHighWater(file);
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            reader.readLine();
+            String line = reader.readLine();
+            if (line != null && line.startsWith(HIGH_WATER + ",")) {
+                return Integer.parseInt(line.substring(HIGH_WATER.length() + 1).trim());
+            }
+            return 0;
+        }
+    }
+
+    private static Task fromString(String value) {
+        String[] parts = value.split(",", -1);
         int id = Integer.parseInt(parts[0]);
         TaskType type = TaskType.valueOf(parts[1]);
         String name = parts[2];
@@ -76,106 +489,142 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     }
 
     public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager manager = new FileBackedTaskManager(file);
-        if (!file.exists() || file.length() == 0) {
-            return manager;
-        }
+        return loadFromFile(file, StorageOptions.defaults());
+    }
+
+    public static FileBackedTaskManager loadFromFile(File file, StorageOptions options) {
+        return loadFromFile(file, options, Managers.getDefaultHistory());
+    }
+
+    static FileBackedTaskManager loadFromFile(File file, StorageOptions options, HistoryManager historyManager) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, options, historyManager);
+        boolean torn = false;
+        manager.restoring = true;
         try {
-            String content = Files.readString(file.toPath());
-            String[] lines = content.split("\n");
-
-            for (int i = 1; i < lines.length; i++) {
-                String line = lines[i].trim();
-                if (!line.isEmpty()) {
-                    Task task = manager.fromString(line);
-                    if (task instanceof Task && !(task instanceof Epic || task instanceof Subtask)) {
-                        manager.addTask(task);
-                    } else if (task instanceof Epic) {
-                        manager.addEpic((Epic) task);
-                    } else if (task instanceof Subtask) {
-                        manager.addSubtask((Subtask) task);
+            if (file.exists() && file.length() > 0) {
+                manager.loadUnchecked(readSnapshot(file));
+                manager.idAllocator().advancePast(readHighWater(file));
+            }
+            if (manager.journalFile.exists()) {
+                List<String> records = Files.readAllLines(manager.journalFile.toPath(), StandardCharsets.UTF_8);
+                for (int i = 0; i < records.size(); i++) {
+                    if (records.get(i).isEmpty()) {
+                        continue;
+                    }
+                    String record = unframe(records.get(i));
+                    if (record == null) {
+                        if (i < records.size() - 1) {
+                            throw new ManagerSaveException("Corrupt journal record " + (i + 1) + " in "
+                                    + manager.journalFile.getPath(), null);
+                        }
+                        // A torn final record is an append interrupted by a crash; everything before it is intact.
+                        torn = true;
+                        continue;
                     }
+                    // A complete record that fails to replay is not torn, so the error is not swallowed.
+                    manager.replay(record);
+                    manager.journalRecords++;
                 }
             }
         } catch (IOException e) {
             throw new ManagerSaveException("Error loading tasks from file: " + file.getPath(), e);
+        } finally {
+            manager.restoring = false;
+        }
+        manager.restored = true;
+
+        if (options.isJournaled() && torn) {
+            manager.compact();
+        } else if (!options.isJournaled() && manager.journalFile.exists()) {
+            manager.save();
+            if (!manager.journalFile.delete()) {
+                throw new ManagerSaveException("Error removing journal: " + manager.journalFile.getPath(), null);
+            }
         }
         return manager;
     }
 
     @Override
-    public int addTask(Task task) {
+    public synchronized int addTask(Task task) {
         int id = super.addTask(task);
-        save();
+        persistPut(ADD, task);
         return id;
     }
 
     @Override
-    public int addEpic(Epic epic) {
+    public synchronized int addEpic(Epic epic) {
         int id = super.addEpic(epic);
-        save();
+        persistPut(ADD, epic);
         return id;
     }
 
     @Override
-    public int addSubtask(Subtask subtask) {
+    public synchronized int addSubtask(Subtask subtask) {
         int id = super.addSubtask(subtask);
-        save();
+        if (id != -1) {
+            persistPut(ADD, subtask);
+        }
         return id;
     }
 
     @Override
-    public void updateTask(Task task) {
+    public synchronized void bulkLoad(Collection<? extends Task> items) {
+        super.bulkLoad(items);
+        persistBulk();
+    }
+
+    @Override
+    public synchronized void updateTask(Task task) {
         super.updateTask(task);
-        save();
+        persistPut(UPDATE, task);
     }
 
     @Override
-    public void updateEpic(Epic epic) {
+    public synchronized void updateEpic(Epic epic) {
         super.updateEpic(epic);
-        save();
+        persistPut(UPDATE, epic);
     }
 
     @Override
-    public void updateSubtask(Subtask subtask) {
+    public synchronized void updateSubtask(Subtask subtask) {
         super.updateSubtask(subtask);
-        save();
+        persistPut(UPDATE, subtask);
     }
 
     @Override
-    public void deleteTaskById(int id) {
+    public synchronized void deleteTaskById(int id) {
         super.deleteTaskById(id);
-        save();
+        persistDelete(TaskType.TASK, id);
     }
 
     @Override
-    public void deleteEpicById(int id) {
+    public synchronized void deleteEpicById(int id) {
         super.deleteEpicById(id);
-        save();
+        persistDelete(TaskType.EPIC, id);
     }
 
     @Override
-    public void deleteSubtaskById(int id) {
+    public synchronized void deleteSubtaskById(int id) {
         super.deleteSubtaskById(id);
-        save();
+        persistDelete(TaskType.SUBTASK, id);
     }
 
     @Override
-    public void clearTasks() {
+    public synchronized void clearTasks() {
         super.clearTasks();
-        save();
+        persistClear(TaskType.TASK);
     }
 
     @Override
-    public void clearSubtasks() {
+    public synchronized void clearSubtasks() {
         super.clearSubtasks();
-        save();
+        persistClear(TaskType.SUBTASK);
     }
 
     @Override
-    public void clearEpics() {
+    public synchronized void clearEpics() {
         super.clearEpics();
-        save();
+        persistClear(TaskType.EPIC);
     }
 
     public static void main(String[] args) throws IOException {
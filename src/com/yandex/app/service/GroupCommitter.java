@@ -0,0 +1,136 @@
+package com.yandex.app.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background flusher for {@link DurabilityMode#BATCHED}. Writers call {@link #submit()} after
+ * each mutation; the flusher waits until the batch window has passed or enough operations
+ * have piled up, runs the commit action once for all of them, and completes the futures of
+ * everyone who asked to wait.
+ */
+class GroupCommitter implements Closeable {
+    interface Commit {
+        void run() throws IOException;
+    }
+
+    private final Commit commit;
+    private final long windowNanos;
+    private final int maxOperations;
+    private final Thread flusher;
+    private final NavigableMap<Long, CompletableFuture<Void>> waiters = new TreeMap<>();
+    private long submitted;
+    private long committed;
+    private IOException failure;
+    private boolean closed;
+
+    GroupCommitter(String name, Commit commit, Duration window, int maxOperations) {
+        this.commit = commit;
+        this.windowNanos = window.toNanos();
+        this.maxOperations = maxOperations;
+        this.flusher = new Thread(this::run, name);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    synchronized void submit() throws IOException {
+        throwIfFailed();
+        if (closed) {
+            throw new IOException("Group committer is closed");
+        }
+        submitted++;
+        long pending = submitted - committed;
+        if (pending == 1 || pending >= maxOperations) {
+            notifyAll();
+        }
+    }
+
+    synchronized CompletableFuture<Void> whenDurable() {
+        if (failure != null) {
+            return CompletableFuture.failedFuture(failure);
+        }
+        if (committed >= submitted) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return waiters.computeIfAbsent(submitted, seq -> new CompletableFuture<>());
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            throwIfFailed();
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                long target;
+                synchronized (this) {
+                    while (!closed && submitted == committed) {
+                        wait();
+                    }
+                    if (submitted == committed) {
+                        return;
+                    }
+                    long deadline = System.nanoTime() + windowNanos;
+                    long remaining;
+                    while (!closed && submitted - committed < maxOperations
+                            && (remaining = deadline - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                    target = submitted;
+                }
+
+                IOException error = null;
+                try {
+                    commit.run();
+                } catch (IOException e) {
+                    error = e;
+                } catch (RuntimeException e) {
+                    error = new IOException(e);
+                }
+
+                synchronized (this) {
+                    if (error != null) {
+                        failure = error;
+                        for (CompletableFuture<Void> waiter : waiters.values()) {
+                            waiter.completeExceptionally(error);
+                        }
+                        waiters.clear();
+                        return;
+                    }
+                    committed = target;
+                    Map<Long, CompletableFuture<Void>> done = waiters.headMap(target, true);
+                    for (CompletableFuture<Void> waiter : done.values()) {
+                        waiter.complete(null);
+                    }
+                    done.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException("Background flush failed", failure);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.yandex.app.service;
+
+import com.yandex.app.util.ThreadScope;
+
+/**
+ * Binds a history session key to the current thread for the duration of a request, so
+ * a {@link SessionHistoryManager} records and returns that caller's history without the
+ * key being passed through every {@link TaskManager} call.
+ */
+public final class HistoryScope {
+    private static final ThreadScope SCOPE = new ThreadScope();
+
+    private HistoryScope() {
+    }
+
+    public static ThreadScope.Binding enter(String session) {
+        return SCOPE.enter(session);
+    }
+
+    public static String current() {
+        return SCOPE.current();
+    }
+}
@@ -0,0 +1,79 @@
+package com.yandex.app.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out positive ids for one manager. Each thread reserves a block of
+ * {@link #getBlockSize()} ids from a shared counter and then allocates from it without
+ * touching shared state, so concurrent inserts only meet once per block. Ids are unique
+ * but not ordered across threads, and the unused rest of a block is skipped for good.
+ *
+ * <p>The {@linkplain #highWater() high-water mark} is the largest id ever reserved or
+ * {@linkplain #advancePast claimed}; an allocator restored past it never repeats an id.
+ * Ids claimed explicitly have to be registered before any thread could allocate them,
+ * which the managers ensure by doing both under the same lock.
+ */
+public final class IdAllocator {
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private final int blockSize;
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    public IdAllocator() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    public IdAllocator(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+    }
+
+    public int next() {
+        Block block = blocks.get();
+        if (block.next > block.last || block.next <= claimed.get()) {
+            reserve(block);
+        }
+        return block.next++;
+    }
+
+    /**
+     * Makes sure {@code id} and every id below it are never handed out.
+     */
+    public void advancePast(int id) {
+        if (id > claimed.get()) {
+            reserved.accumulateAndGet(id, Math::max);
+            claimed.accumulateAndGet(id, Math::max);
+        }
+    }
+
+    public int highWater() {
+        return reserved.get();
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    private void reserve(Block block) {
+        int current;
+        int last;
+        do {
+            current = reserved.get();
+            if (current > Integer.MAX_VALUE - blockSize) {
+                throw new IllegalStateException("Id space exhausted");
+            }
+            last = current + blockSize;
+        } while (!reserved.compareAndSet(current, last));
+        block.next = current + 1;
+        block.last = last;
+    }
+
+    private static final class Block {
+        int next = 1;
+        int last;
+    }
+}
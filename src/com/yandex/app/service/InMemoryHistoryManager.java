@@ -1,14 +1,13 @@
 package com.yandex.app.service;
 
 import com.yandex.app.model.Task;
+import com.yandex.app.util.IntMap;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class InMemoryHistoryManager implements HistoryManager {
-    private final Map<Integer, Node> taskIdToNode = new HashMap<>();
+    private final IntMap<Node> taskIdToNode = new IntMap<>();
 
     private static class Node {
         Task task;
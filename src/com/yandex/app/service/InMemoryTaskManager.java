@@ -1,25 +1,55 @@
 package com.yandex.app.service;
 
 import com.yandex.app.model.*;
+import com.yandex.app.util.IdSet;
+import com.yandex.app.util.IntMap;
+import com.yandex.app.util.IntSet;
 
+import java.time.DateTimeException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneOffset;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class InMemoryTaskManager implements TaskManager {
-    private static int id = 0;
-    private final Map<Integer, Task> tasks = new HashMap<>();
-    private final Map<Integer, Epic> epics = new HashMap<>();
-    private final Map<Integer, Subtask> subtasks = new HashMap<>();
-    private final HistoryManager historyManager = Managers.getDefaultHistory();
-    private final TreeSet<Task> prioritizedTasks = new TreeSet<>((t1, t2) -> {
-        if (t1.getStartTime() == null) return 1;
-        if (t2.getStartTime() == null) return -1;
-        return t1.getStartTime().compareTo(t2.getStartTime());
-    });
-    private final Map<LocalDateTime, Boolean> timeSlots = new HashMap<>();
+    private static final Comparator<Task> START_ORDER = Comparator
+            .comparing(Task::getStartTime, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(Task::getId);
+    private static final Comparator<Task> ID_ORDER = Comparator.comparingInt(Task::getId);
+
+    private final IntMap<Task> tasks = new IntMap<>();
+    private final IntMap<Epic> epics = new IntMap<>();
+    private final IntMap<Subtask> subtasks = new IntMap<>();
+    private final IntMap<IntSet> subtaskIdsByEpic = new IntMap<>();
+    private final StatusIndex taskStatuses = new StatusIndex();
+    private final StatusIndex epicStatuses = new StatusIndex();
+    private final StatusIndex subtaskStatuses = new StatusIndex();
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final IdAllocator idAllocator = new IdAllocator();
+    private final HistoryManager historyManager;
+    private final TreeSet<Task> prioritizedTasks = new TreeSet<>(START_ORDER);
+    // Epics change their start in place, so they are keyed by a probe of the start they were indexed under.
+    private final TreeMap<Task, Epic> scheduledEpics = new TreeMap<>(START_ORDER);
+    private final IntMap<Task> scheduledEpicKeys = new IntMap<>();
+    private final IntervalIndex intervalIndex = new IntervalIndex();
+    private final SlotCalendar slotCalendar;
+    private final SubtaskView subtaskView = subtasks::get;
+    // Starts from the clock so versions and ETags keep increasing across restarts and reloads.
+    private long version = System.currentTimeMillis() << 20;
+    private final long[] modifications = new long[TaskType.values().length];
+
+    public InMemoryTaskManager() {
+        this(SlotCalendar.DEFAULT_GRANULARITY);
+    }
+
+    public InMemoryTaskManager(Duration slotGranularity) {
+        this(slotGranularity, Managers.getDefaultHistory());
+    }
+
+    protected InMemoryTaskManager(Duration slotGranularity, HistoryManager historyManager) {
+        this.slotCalendar = new SlotCalendar(slotGranularity);
+        this.historyManager = historyManager;
+    }
 
     @Override
     public int addTask(Task task) {
@@ -29,27 +59,36 @@ public class InMemoryTaskManager implements TaskManager {
 
         reserveTimeSlots(task);
 
-        int localId = task.getId();
-        if (localId == 0) {
-            localId = generateId();
-            task.setId(localId);
-        }
+        int localId = assignId(task);
         tasks.put(localId, task);
+        taskStatuses.put(localId, task.getStatus());
+        searchIndex.add(task);
 
         if (task.getStartTime() != null) {
             prioritizedTasks.add(task);
         }
+        intervalIndex.add(task);
+        stamp(task);
         return localId;
     }
 
+    /**
+     * Subtask ids carried by {@code epic} are ignored: they may belong to other epics,
+     * and the link is only recorded from the subtask's side. The epic instead takes the
+     * subtasks already stored with its id as their epic id.
+     */
     @Override
     public int addEpic(Epic epic) {
-        int localId = epic.getId();
-        if (localId == 0) {
-            localId = generateId();
-            epic.setId(localId);
+        int localId = assignId(epic);
+        epic.clearSubtasks();
+        IntSet linked = subtaskIdsByEpic.get(localId);
+        if (linked != null) {
+            linked.forEach(epic::addSubtaskId);
+            epic.updateTimeFields(subtaskView);
         }
         epics.put(localId, epic);
+        epicChanged(epic);
+        searchIndex.add(epic);
         return localId;
     }
 
@@ -59,28 +98,29 @@ public class InMemoryTaskManager implements TaskManager {
             throw new IllegalStateException("Subtask overlaps with existing tasks");
         }
 
-        reserveTimeSlots(subtask);
-
         int localId = subtask.getId();
         if (localId == subtask.getEpicId()) {
             return -1;
         }
-        if (localId == 0) {
-            localId = generateId();
-            subtask.setId(localId);
-        }
+
+        reserveTimeSlots(subtask);
+        localId = assignId(subtask);
         subtasks.put(localId, subtask);
+        indexSubtask(subtask);
+        subtaskStatuses.put(localId, subtask.getStatus());
+        searchIndex.add(subtask);
 
         Epic epic = epics.get(subtask.getEpicId());
         if (epic != null) {
-            epic.addSubtaskId(localId);
-            updateEpicStatus(epic);
-            epic.updateTimeFields(this);
+            epic.addSubtask(subtask);
+            epicChanged(epic);
         }
 
         if (subtask.getStartTime() != null) {
             prioritizedTasks.add(subtask);
         }
+        intervalIndex.add(subtask);
+        stamp(subtask);
 
         return localId;
     }
@@ -95,24 +135,27 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         Task oldTask = tasks.get(task.getId());
-        if (oldTask != null) {
-            freeTimeSlots(oldTask);
-        }
-
-        reserveTimeSlots(task);
+        replaceTimeSlots(oldTask, task);
 
         tasks.put(task.getId(), task);
+        taskStatuses.put(task.getId(), task.getStatus());
+        searchIndex.update(task);
         prioritizedTasks.remove(oldTask);
         if (task.getStartTime() != null) {
             prioritizedTasks.add(task);
         }
+        intervalIndex.add(task);
+        stamp(task);
     }
 
     @Override
     public void updateEpic(Epic epic) {
         if (epic != null && epics.containsKey(epic.getId()) && epic.getId() > 0) {
+            Epic previous = epics.get(epic.getId());
+            epic.adoptSubtasks(previous);
             epics.put(epic.getId(), epic);
-            epic.updateTimeFields(this);
+            epicChanged(epic);
+            searchIndex.update(epic);
         }
     }
 
@@ -126,23 +169,35 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         Subtask oldSubtask = subtasks.get(subtask.getId());
-        if (oldSubtask != null) {
-            freeTimeSlots(oldSubtask);
-        }
-
-        reserveTimeSlots(subtask);
+        replaceTimeSlots(oldSubtask, subtask);
         subtasks.put(subtask.getId(), subtask);
+        subtaskStatuses.put(subtask.getId(), subtask.getStatus());
+        searchIndex.update(subtask);
 
         Epic epic = epics.get(subtask.getEpicId());
-        if (epic != null) {
-            updateEpicStatus(epic);
-            epic.updateTimeFields(this);
+        if (oldSubtask.getEpicId() != subtask.getEpicId()) {
+            unindexSubtask(oldSubtask);
+            indexSubtask(subtask);
+            Epic oldEpic = epics.get(oldSubtask.getEpicId());
+            if (oldEpic != null) {
+                oldEpic.removeSubtaskId(subtask.getId());
+                epicChanged(oldEpic);
+            }
+            if (epic != null) {
+                epic.addSubtask(subtask);
+                epicChanged(epic);
+            }
+        } else if (epic != null) {
+            epic.replaceSubtask(subtask);
+            epicChanged(epic);
         }
 
         prioritizedTasks.remove(oldSubtask);
         if (subtask.getStartTime() != null) {
             prioritizedTasks.add(subtask);
         }
+        intervalIndex.add(subtask);
+        stamp(subtask);
     }
 
     @Override
@@ -178,25 +233,38 @@ public class InMemoryTaskManager implements TaskManager {
         if (task != null) {
             freeTimeSlots(task);
             prioritizedTasks.remove(task);
+            intervalIndex.remove(id);
             tasks.remove(id);
+            taskStatuses.remove(id);
+            searchIndex.remove(task.getId());
             historyManager.remove(id);
+            changed(TaskType.TASK);
         }
     }
 
     @Override
     public void deleteEpicById(int id) {
         if (epics.containsKey(id)) {
-            Epic epic = epics.get(id);
-
-            for (int subtaskId : epic.getSubtaskIds()) {
-                freeTimeSlots(subtasks.get(subtaskId));
-                prioritizedTasks.remove(subtasks.get(subtaskId));
-                subtasks.remove(subtaskId);
-                historyManager.remove(subtaskId);
+            IntSet subtaskIds = subtaskIdsByEpic.remove(id);
+            if (subtaskIds != null) {
+                subtaskIds.forEach(subtaskId -> {
+                    Subtask subtask = subtasks.remove(subtaskId);
+                    freeTimeSlots(subtask);
+                    prioritizedTasks.remove(subtask);
+                    intervalIndex.remove(subtaskId);
+                    subtaskStatuses.remove(subtaskId);
+                    searchIndex.remove(subtask.getId());
+                    historyManager.remove(subtaskId);
+                });
+                changed(TaskType.SUBTASK);
             }
 
             epics.remove(id);
+            unscheduleEpic(id);
+            searchIndex.remove(id);
+            epicStatuses.remove(id);
             historyManager.remove(id);
+            changed(TaskType.EPIC);
         }
     }
 
@@ -206,23 +274,31 @@ public class InMemoryTaskManager implements TaskManager {
         if (subtask != null) {
             freeTimeSlots(subtask);
             prioritizedTasks.remove(subtask);
+            intervalIndex.remove(id);
             int epicId = subtask.getEpicId();
             subtasks.remove(id);
+            unindexSubtask(subtask);
+            subtaskStatuses.remove(id);
+            searchIndex.remove(subtask.getId());
             historyManager.remove(id);
+            changed(TaskType.SUBTASK);
             Epic epic = epics.get(epicId);
             if (epic != null) {
                 epic.removeSubtaskId(id);
-                updateEpicStatus(epic);
-                epic.updateTimeFields(this);
+                epicChanged(epic);
             }
         }
     }
 
     @Override
     public ArrayList<Subtask> getSubtasksByEpicId(int epicId) {
-        return subtasks.values().stream()
-                .filter(subtask -> subtask.getEpicId() == epicId)
-                .collect(Collectors.toCollection(ArrayList::new));
+        IntSet subtaskIds = subtaskIdsByEpic.get(epicId);
+        if (subtaskIds == null) {
+            return new ArrayList<>();
+        }
+        ArrayList<Subtask> result = new ArrayList<>(subtaskIds.size());
+        subtaskIds.forEach(id -> result.add(subtasks.get(id)));
+        return result;
     }
 
     @Override
@@ -240,14 +316,313 @@ public class InMemoryTaskManager implements TaskManager {
         return new ArrayList<>(subtasks.values());
     }
 
+    @Override
+    public Collection<Task> tasksView() {
+        return tasks.values();
+    }
+
+    @Override
+    public Collection<Epic> epicsView() {
+        return epics.values();
+    }
+
+    @Override
+    public Collection<Subtask> subtasksView() {
+        return subtasks.values();
+    }
+
+    @Override
+    public Collection<Task> prioritizedView() {
+        return Collections.unmodifiableSet(prioritizedTasks);
+    }
+
+    /**
+     * Walks the id-ordered stores, or the start-time ordered prioritized set and scheduled
+     * epics, from the cursor onwards and stops one item past the limit; only the page is
+     * copied. Id-sorted queries with a start window walk the window instead of the stores.
+     */
+    @Override
+    public TaskPage query(TaskQuery query) {
+        Iterator<Task> source = query.getSort() == TaskSort.START_TIME ? byStartTime(query) : byId(query);
+        List<Task> items = new ArrayList<>(Math.min(query.getLimit(), 64));
+        while (source.hasNext()) {
+            Task item = source.next();
+            if (!query.matches(item)) {
+                continue;
+            }
+            if (items.size() == query.getLimit()) {
+                return new TaskPage(items, cursorOf(items.get(items.size() - 1), query.getSort()));
+            }
+            items.add(item);
+        }
+        return new TaskPage(items, null);
+    }
+
+    private Iterator<Task> byId(TaskQuery query) {
+        int after = query.getCursor() != null ? parseIdCursor(query.getCursor()) : Integer.MIN_VALUE;
+        if (query.getFrom() != null || query.getTo() != null) {
+            return byIdWithin(query, after);
+        }
+        List<Iterator<? extends Task>> sources = new ArrayList<>(3);
+        if (query.getTypes().contains(TaskType.TASK)) {
+            sources.add(byId(tasks, taskStatuses, query.getStatus(), after));
+        }
+        if (query.getTypes().contains(TaskType.EPIC)) {
+            sources.add(byId(epics, epicStatuses, query.getStatus(), after));
+        }
+        if (query.getTypes().contains(TaskType.SUBTASK)) {
+            sources.add(byId(subtasks, subtaskStatuses, query.getStatus(), after));
+        }
+        return merge(sources, ID_ORDER);
+    }
+
+    private static Iterator<? extends Task> byId(IntMap<? extends Task> store, StatusIndex statuses,
+                                                 Status status, int after) {
+        if (status == null) {
+            return store.valuesAfter(after);
+        }
+        IdSet ids = statuses.get(status);
+        return new Iterator<Task>() {
+            private int next = ids.higher(after);
+
+            @Override
+            public boolean hasNext() {
+                return next != IdSet.NONE;
+            }
+
+            @Override
+            public Task next() {
+                if (next == IdSet.NONE) {
+                    throw new NoSuchElementException();
+                }
+                Task task = store.get(next);
+                next = ids.higher(next);
+                return task;
+            }
+        };
+    }
+
+    private Iterator<Task> byStartTime(TaskQuery query) {
+        Task lower = query.getFrom() != null ? probe(query.getFrom(), Integer.MIN_VALUE) : null;
+        boolean lowerInclusive = true;
+        if (query.getCursor() != null) {
+            Task after = parseStartCursor(query.getCursor());
+            if (lower == null || START_ORDER.compare(after, lower) >= 0) {
+                lower = after;
+                lowerInclusive = false;
+            }
+        }
+        Task upper = query.getTo() != null ? probe(query.getTo(), Integer.MIN_VALUE) : null;
+        if (lower != null && upper != null && START_ORDER.compare(lower, upper) >= 0) {
+            return Collections.emptyIterator();
+        }
+
+        List<Iterator<? extends Task>> sources = new ArrayList<>(2);
+        if (query.getTypes().contains(TaskType.TASK) || query.getTypes().contains(TaskType.SUBTASK)) {
+            sources.add(range(prioritizedTasks, lower, lowerInclusive, upper).iterator());
+        }
+        if (query.getTypes().contains(TaskType.EPIC)) {
+            sources.add(range(scheduledEpics.navigableKeySet(), lower, lowerInclusive, upper).stream()
+                    .map(scheduledEpics::get)
+                    .iterator());
+        }
+        return merge(sources, START_ORDER);
+    }
+
+    /**
+     * Id-sorted page over a start-time window: walks the window in the prioritized set
+     * and the scheduled epics, keeping only the smallest ids past the cursor, instead of
+     * walking the whole id-ordered stores.
+     */
+    private Iterator<Task> byIdWithin(TaskQuery query, int after) {
+        Task lower = query.getFrom() != null ? probe(query.getFrom(), Integer.MIN_VALUE) : null;
+        Task upper = query.getTo() != null ? probe(query.getTo(), Integer.MIN_VALUE) : null;
+        if (lower != null && upper != null && START_ORDER.compare(lower, upper) >= 0) {
+            return Collections.emptyIterator();
+        }
+        // query() reads one item past the limit to decide whether there is a next page.
+        int keep = query.getLimit() == Integer.MAX_VALUE ? Integer.MAX_VALUE : query.getLimit() + 1;
+        PriorityQueue<Task> smallest = new PriorityQueue<>(ID_ORDER.reversed());
+        if (query.getTypes().contains(TaskType.TASK) || query.getTypes().contains(TaskType.SUBTASK)) {
+            for (Task task : range(prioritizedTasks, lower, true, upper)) {
+                keepSmallest(smallest, task, query, after, keep);
+            }
+        }
+        if (query.getTypes().contains(TaskType.EPIC)) {
+            for (Task key : range(scheduledEpics.navigableKeySet(), lower, true, upper)) {
+                keepSmallest(smallest, scheduledEpics.get(key), query, after, keep);
+            }
+        }
+        List<Task> page = new ArrayList<>(smallest);
+        page.sort(ID_ORDER);
+        return page.iterator();
+    }
+
+    private static void keepSmallest(PriorityQueue<Task> smallest, Task task, TaskQuery query, int after, int keep) {
+        if (task.getId() <= after || !query.matches(task)) {
+            return;
+        }
+        if (smallest.size() < keep) {
+            smallest.add(task);
+        } else if (task.getId() < smallest.peek().getId()) {
+            smallest.poll();
+            smallest.add(task);
+        }
+    }
+
+    private static NavigableSet<Task> range(NavigableSet<Task> set, Task lower, boolean lowerInclusive, Task upper) {
+        NavigableSet<Task> view = set;
+        if (lower != null) {
+            view = view.tailSet(lower, lowerInclusive);
+        }
+        if (upper != null) {
+            view = view.headSet(upper, false);
+        }
+        return view;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Iterator<Task> merge(List<Iterator<? extends Task>> sources, Comparator<Task> order) {
+        if (sources.size() == 1) {
+            return (Iterator<Task>) sources.get(0);
+        }
+        Task[] heads = new Task[sources.size()];
+        for (int i = 0; i < heads.length; i++) {
+            heads[i] = sources.get(i).hasNext() ? sources.get(i).next() : null;
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                for (Task head : heads) {
+                    if (head != null) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public Task next() {
+                int min = -1;
+                for (int i = 0; i < heads.length; i++) {
+                    if (heads[i] != null && (min < 0 || order.compare(heads[i], heads[min]) < 0)) {
+                        min = i;
+                    }
+                }
+                if (min < 0) {
+                    throw new NoSuchElementException();
+                }
+                Task next = heads[min];
+                heads[min] = sources.get(min).hasNext() ? sources.get(min).next() : null;
+                return next;
+            }
+        };
+    }
+
+    private static String cursorOf(Task last, TaskSort sort) {
+        if (sort == TaskSort.ID) {
+            return Integer.toString(last.getId());
+        }
+        LocalDateTime start = last.getStartTime();
+        return start.toEpochSecond(ZoneOffset.UTC) + "." + start.getNano() + "." + last.getId();
+    }
+
+    private static int parseIdCursor(String cursor) {
+        try {
+            return Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static Task parseStartCursor(String cursor) {
+        String[] parts = cursor.split("\\.");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            LocalDateTime start = LocalDateTime.ofEpochSecond(Long.parseLong(parts[0]), Integer.parseInt(parts[1]), ZoneOffset.UTC);
+            return probe(start, Integer.parseInt(parts[2]));
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static Task probe(LocalDateTime start, int id) {
+        return new Task(id, null, null, Status.NEW, null, start);
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        int[] ids = searchIndex.search(query);
+        List<Task> result = new ArrayList<>(Math.min(ids.length, limit));
+        for (int i = 0; i < ids.length && result.size() < limit; i++) {
+            Task task = find(ids[i]);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskType type, Status status) {
+        IntMap<? extends Task> store = store(type);
+        IdSet ids = statuses(type).get(status);
+        List<Task> result = new ArrayList<>(ids.size());
+        ids.forEach(id -> result.add(store.get(id)));
+        return result;
+    }
+
+    @Override
+    public Map<Status, Integer> countByStatus(TaskType type) {
+        StatusIndex index = statuses(type);
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            counts.put(status, index.count(status));
+        }
+        return counts;
+    }
+
+    private IntMap<? extends Task> store(TaskType type) {
+        switch (type) {
+            case EPIC:
+                return epics;
+            case SUBTASK:
+                return subtasks;
+            default:
+                return tasks;
+        }
+    }
+
+    private StatusIndex statuses(TaskType type) {
+        switch (type) {
+            case EPIC:
+                return epicStatuses;
+            case SUBTASK:
+                return subtaskStatuses;
+            default:
+                return taskStatuses;
+        }
+    }
+
+    @Override
+    public long modificationCount(TaskType type) {
+        return modifications[type.ordinal()];
+    }
+
     @Override
     public void clearTasks() {
         for (Task task : tasks.values()) {
             freeTimeSlots(task);
             prioritizedTasks.remove(task);
+            intervalIndex.remove(task.getId());
+            searchIndex.remove(task.getId());
             historyManager.remove(task.getId());
         }
         tasks.clear();
+        taskStatuses.clear();
+        changed(TaskType.TASK);
     }
 
     @Override
@@ -255,28 +630,188 @@ public class InMemoryTaskManager implements TaskManager {
         for (Subtask subtask : subtasks.values()) {
             freeTimeSlots(subtask);
             prioritizedTasks.remove(subtask);
+            intervalIndex.remove(subtask.getId());
+            searchIndex.remove(subtask.getId());
             historyManager.remove(subtask.getId());
         }
-        for (Epic epic : epics.values()) {
-            epic.getSubtaskIds().clear();
-            updateEpicStatus(epic);
-            epic.updateTimeFields(this);
-        }
+        subtaskIdsByEpic.forEachKey(epicId -> {
+            Epic epic = epics.get(epicId);
+            if (epic != null) {
+                epic.clearSubtasks();
+                epicChanged(epic);
+            }
+        });
+        subtaskIdsByEpic.clear();
         subtasks.clear();
+        subtaskStatuses.clear();
+        changed(TaskType.SUBTASK);
     }
 
     @Override
     public void clearEpics() {
-        for (Integer id : subtasks.keySet()) {
-            freeTimeSlots(subtasks.get(id));
-            prioritizedTasks.remove(subtasks.get(id));
-            historyManager.remove(id);
+        for (Subtask subtask : subtasks.values()) {
+            freeTimeSlots(subtask);
+            prioritizedTasks.remove(subtask);
+            intervalIndex.remove(subtask.getId());
+            searchIndex.remove(subtask.getId());
+            historyManager.remove(subtask.getId());
         }
-        for (Integer id : epics.keySet()) {
-            historyManager.remove(id);
+        for (Epic epic : epics.values()) {
+            searchIndex.remove(epic.getId());
+            historyManager.remove(epic.getId());
         }
         epics.clear();
+        scheduledEpics.clear();
+        scheduledEpicKeys.clear();
         subtasks.clear();
+        subtaskIdsByEpic.clear();
+        epicStatuses.clear();
+        subtaskStatuses.clear();
+        changed(TaskType.EPIC);
+        changed(TaskType.SUBTASK);
+    }
+
+    @Override
+    public void bulkLoad(Collection<? extends Task> items) {
+        List<Task> scheduled = new ArrayList<>();
+        IntSet ids = new IntSet();
+        for (Task item : items) {
+            if (item.getId() != 0 && (contains(item.getId()) || !ids.add(item.getId()))) {
+                throw new IllegalArgumentException("Duplicate task id: " + item.getId());
+            }
+            if (isSelfLinked(item)) {
+                continue;
+            }
+            if (!(item instanceof Epic) && item.getStartTime() != null && item.getDuration() != null) {
+                scheduled.add(item);
+            }
+        }
+        scheduled.sort(Comparator.comparing(Task::getStartTime));
+
+        Task previous = null;
+        for (int i = 0; i < scheduled.size(); i++) {
+            Task item = scheduled.get(i);
+            if (intervalIndex.overlaps(item) || (previous != null && !previous.getEndTime().isBefore(item.getStartTime()))
+                    || !slotCalendar.isFree(item.getStartTime(), item.getEndTime())) {
+                for (int j = 0; j < i; j++) {
+                    freeTimeSlots(scheduled.get(j));
+                }
+                throw new IllegalStateException("Task overlaps with existing tasks");
+            }
+            slotCalendar.reserve(item.getStartTime(), item.getEndTime());
+            previous = item;
+        }
+        insertAll(items, false);
+    }
+
+    protected void loadUnchecked(Collection<? extends Task> items) {
+        insertAll(items, true);
+    }
+
+    private void insertAll(Collection<? extends Task> items, boolean reserveSlots) {
+        // Explicit ids are claimed first, so an item without one is never given an id that
+        // a later item in the same batch sets explicitly.
+        for (Task item : items) {
+            if (item.getId() != 0) {
+                idAllocator.advancePast(item.getId());
+            }
+        }
+        List<Subtask> loadedSubtasks = new ArrayList<>();
+        List<Task> loaded = new ArrayList<>(items.size());
+        for (Task item : items) {
+            assignId(item);
+            if (item instanceof Epic) {
+                epics.put(item.getId(), (Epic) item);
+                epicChanged((Epic) item);
+            } else if (item instanceof Subtask) {
+                if (isSelfLinked(item)) {
+                    continue;
+                }
+                subtasks.put(item.getId(), (Subtask) item);
+                indexSubtask((Subtask) item);
+                subtaskStatuses.put(item.getId(), item.getStatus());
+                loadedSubtasks.add((Subtask) item);
+                stamp(item);
+            } else {
+                tasks.put(item.getId(), item);
+                taskStatuses.put(item.getId(), item.getStatus());
+                stamp(item);
+            }
+            loaded.add(item);
+            if (!(item instanceof Epic) && item.getStartTime() != null) {
+                prioritizedTasks.add(item);
+                intervalIndex.add(item);
+                if (reserveSlots && item.getDuration() != null) {
+                    slotCalendar.reserve(item.getStartTime(), item.getEndTime());
+                }
+            }
+        }
+
+        for (Subtask subtask : loadedSubtasks) {
+            Epic epic = epics.get(subtask.getEpicId());
+            if (epic != null) {
+                epic.addSubtask(subtask);
+                epicChanged(epic);
+            }
+        }
+        searchIndex.addAll(loaded);
+    }
+
+    private void indexSubtask(Subtask subtask) {
+        subtaskIdsByEpic.computeIfAbsent(subtask.getEpicId(), epicId -> new IntSet()).add(subtask.getId());
+    }
+
+    private void epicChanged(Epic epic) {
+        epicStatuses.put(epic.getId(), epic.getStatus());
+        unscheduleEpic(epic.getId());
+        if (epic.getStartTime() != null) {
+            Task key = probe(epic.getStartTime(), epic.getId());
+            scheduledEpics.put(key, epic);
+            scheduledEpicKeys.put(epic.getId(), key);
+        }
+        stamp(epic);
+    }
+
+    private void unscheduleEpic(int id) {
+        Task key = scheduledEpicKeys.remove(id);
+        if (key != null) {
+            scheduledEpics.remove(key);
+        }
+    }
+
+    private void stamp(Task task) {
+        task.setVersion(++version);
+        modifications[task.getType().ordinal()] = version;
+    }
+
+    private void changed(TaskType type) {
+        modifications[type.ordinal()] = ++version;
+    }
+
+    private void unindexSubtask(Subtask subtask) {
+        IntSet subtaskIds = subtaskIdsByEpic.get(subtask.getEpicId());
+        if (subtaskIds != null && subtaskIds.remove(subtask.getId()) && subtaskIds.isEmpty()) {
+            subtaskIdsByEpic.remove(subtask.getEpicId());
+        }
+    }
+
+    private static boolean isSelfLinked(Task item) {
+        return item instanceof Subtask && item.getId() == ((Subtask) item).getEpicId();
+    }
+
+    private Task find(int id) {
+        Task task = tasks.get(id);
+        if (task == null) {
+            task = epics.get(id);
+        }
+        if (task == null) {
+            task = subtasks.get(id);
+        }
+        return task;
+    }
+
+    protected boolean contains(int id) {
+        return tasks.containsKey(id) || epics.containsKey(id) || subtasks.containsKey(id);
     }
 
     @Override
@@ -288,79 +823,79 @@ public class InMemoryTaskManager implements TaskManager {
         return new ArrayList<>(prioritizedTasks);
     }
 
+    @Override
+    public List<Task> tasksStartingBetween(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(prioritizedTasks.subSet(probe(from, Integer.MIN_VALUE), true, probe(to, Integer.MIN_VALUE), false));
+    }
+
+    /**
+     * Scheduled items never overlap, so at most one item with a duration covers
+     * {@code instant}, and the interval index, which only holds items with a duration,
+     * finds it with a single floor lookup. Intervals are half-open here, and items
+     * without a duration are never active.
+     */
+    @Override
+    public List<Task> tasksActiveAt(LocalDateTime instant) {
+        int id = intervalIndex.coveringId(instant);
+        Task task = id == -1 ? null : find(id);
+        return task == null ? new ArrayList<>() : new ArrayList<>(List.of(task));
+    }
+
+    @Override
+    public List<Task> nextTasks(LocalDateTime from, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        List<Task> next = new ArrayList<>(Math.min(limit, 64));
+        Iterator<Task> iterator = prioritizedTasks.tailSet(probe(from, Integer.MIN_VALUE), true).iterator();
+        while (next.size() < limit && iterator.hasNext()) {
+            next.add(iterator.next());
+        }
+        return next;
+    }
+
     private boolean hasOverlap(Task task) {
-        return prioritizedTasks.stream()
-                .filter(t -> t.getStartTime() != null && t.getDuration() != null)
-                .anyMatch(t -> isOverlapping(task, t));
+        return intervalIndex.overlaps(task);
     }
 
-    private boolean isOverlapping(Task task1, Task task2) {
-        if (task1.getStartTime() == null || task1.getDuration() == null ||
-                task2.getStartTime() == null || task2.getDuration() == null) {
-            return false;
+    private int assignId(Task task) {
+        if (task.getId() == 0) {
+            task.setId(idAllocator.next());
+        } else {
+            idAllocator.advancePast(task.getId());
         }
-        LocalDateTime start1 = task1.getStartTime();
-        LocalDateTime end1 = task1.getEndTime();
-        LocalDateTime start2 = task2.getStartTime();
-        LocalDateTime end2 = task2.getEndTime();
-        return !(end1.isBefore(start2) || end2.isBefore(start1));
+        return task.getId();
     }
 
-    private int generateId() {
-        return ++id;
+    protected IdAllocator idAllocator() {
+        return idAllocator;
     }
 
     private void reserveTimeSlots(Task task) {
         if (task.getStartTime() == null || task.getDuration() == null) return;
-        LocalDateTime start = task.getStartTime();
-        LocalDateTime end = task.getEndTime();
-        LocalDateTime current = start.truncatedTo(ChronoUnit.MINUTES);
-        while (current.isBefore(end) || current.equals(end)) {
-            if (timeSlots.getOrDefault(current, false)) {
-                throw new IllegalStateException("Time slot already reserved");
-            }
-            timeSlots.put(current, true);
-            current = current.plusMinutes(15);
+        if (!slotCalendar.isFree(task.getStartTime(), task.getEndTime())) {
+            throw new IllegalStateException("Time slot already reserved");
         }
+        slotCalendar.reserve(task.getStartTime(), task.getEndTime());
     }
 
     private void freeTimeSlots(Task task) {
-        if (task.getStartTime() == null || task.getDuration() == null) return;
-        LocalDateTime start = task.getStartTime();
-        LocalDateTime end = task.getEndTime();
-        LocalDateTime current = start.truncatedTo(ChronoUnit.MINUTES);
-        while (current.isBefore(end) || current.equals(end)) {
-            timeSlots.remove(current);
-            current = current.plusMinutes(15);
-        }
+        if (task == null || task.getStartTime() == null || task.getDuration() == null) return;
+        slotCalendar.release(task.getStartTime(), task.getEndTime());
     }
 
-    private void updateEpicStatus(Epic epic) {
-        ArrayList<Integer> subtaskIds = epic.getSubtaskIds();
-        if (subtaskIds.isEmpty()) {
-            epic.setStatusEpic(Status.NEW);
-            return;
-        }
-
-        boolean allNew = true;
-        boolean allDone = true;
-
-        for (int subtaskId : subtaskIds) {
-            Status status = subtasks.get(subtaskId).getStatus();
-            if (status != Status.NEW) {
-                allNew = false;
-            }
-            if (status != Status.DONE) {
-                allDone = false;
+    private void replaceTimeSlots(Task oldTask, Task newTask) {
+        freeTimeSlots(oldTask);
+        try {
+            reserveTimeSlots(newTask);
+        } catch (IllegalStateException e) {
+            if (oldTask != null) {
+                reserveTimeSlots(oldTask);
             }
-        }
-
-        if (allDone) {
-            epic.setStatusEpic(Status.DONE);
-        } else if (allNew) {
-            epic.setStatusEpic(Status.NEW);
-        } else {
-            epic.setStatusEpic(Status.IN_PROGRESS);
+            throw e;
         }
     }
 }
@@ -0,0 +1,92 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Task;
+import com.yandex.app.util.IntMap;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Start-ordered index of the scheduled intervals held by a task manager.
+ * The manager never admits two intersecting intervals, so the entries are disjoint and
+ * sorted by both start and end: the floor entry carries the maximum end of everything
+ * starting before a point, and an overlap query only has to look at its two neighbours.
+ * Intervals are closed, so touching endpoints count as an overlap.
+ */
+class IntervalIndex {
+    private final NavigableMap<LocalDateTime, Interval> byStart = new TreeMap<>();
+    private final IntMap<LocalDateTime> startById = new IntMap<>();
+
+    private static class Interval {
+        final int id;
+        final LocalDateTime end;
+
+        Interval(int id, LocalDateTime end) {
+            this.id = id;
+            this.end = end;
+        }
+    }
+
+    boolean overlaps(Task task) {
+        if (!isScheduled(task)) {
+            return false;
+        }
+        LocalDateTime start = task.getStartTime();
+        LocalDateTime end = task.getEndTime();
+
+        Map.Entry<LocalDateTime, Interval> before = byStart.floorEntry(start);
+        if (before != null && before.getValue().id == task.getId()) {
+            before = byStart.lowerEntry(before.getKey());
+        }
+        if (before != null && !before.getValue().end.isBefore(start)) {
+            return true;
+        }
+
+        Map.Entry<LocalDateTime, Interval> after = byStart.higherEntry(start);
+        if (after != null && after.getValue().id == task.getId()) {
+            after = byStart.higherEntry(after.getKey());
+        }
+        return after != null && !after.getKey().isAfter(end);
+    }
+
+    /**
+     * Returns the id of the interval covering {@code instant}, or -1. Intervals are taken
+     * as half-open here, and since they are disjoint only the last one starting at or
+     * before the instant can cover it.
+     */
+    int coveringId(LocalDateTime instant) {
+        Map.Entry<LocalDateTime, Interval> floor = byStart.floorEntry(instant);
+        return floor != null && floor.getValue().end.isAfter(instant) ? floor.getValue().id : -1;
+    }
+
+    void add(Task task) {
+        remove(task.getId());
+        if (!isScheduled(task)) {
+            return;
+        }
+        byStart.put(task.getStartTime(), new Interval(task.getId(), task.getEndTime()));
+        startById.put(task.getId(), task.getStartTime());
+    }
+
+    void remove(int id) {
+        LocalDateTime start = startById.remove(id);
+        if (start != null) {
+            byStart.remove(start);
+        }
+    }
+
+    void clear() {
+        byStart.clear();
+        startById.clear();
+    }
+
+    int size() {
+        return byStart.size();
+    }
+
+    private static boolean isScheduled(Task task) {
+        return task.getStartTime() != null && task.getDuration() != null;
+    }
+}
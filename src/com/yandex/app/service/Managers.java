@@ -1,10 +1,21 @@
 package com.yandex.app.service;
 
+import java.io.File;
+
 public class Managers {
     public static TaskManager getDefault() {
         return new InMemoryTaskManager();
     }
 
+    public static TaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
+    public static TenantRegistry getTenants(File directory) {
+        return new TenantRegistry(directory, StorageOptions.defaults().withJournal(true),
+                TenantRegistry.DEFAULT_MEMORY_BUDGET, TenantRegistry.DEFAULT_IDLE_TIMEOUT);
+    }
+
     public static HistoryManager getDefaultHistory() {
         return new InMemoryHistoryManager();
     }
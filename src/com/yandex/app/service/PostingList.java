@@ -0,0 +1,200 @@
+package com.yandex.app.service;
+
+import java.util.Arrays;
+
+/**
+ * Sorted ids compressed as varint-encoded gaps. Ids above the last encoded one are
+ * appended in place, which covers freshly generated ids; anything else goes to small
+ * sorted pending arrays of additions and removals that are merged back into the
+ * encoded gaps once they outgrow a fraction of the list. The first id of every
+ * {@value #SKIP} encoded ones is kept with its offset, so membership of an encoded id
+ * is checked by decoding one block; adding a present id or removing an absent one does
+ * nothing.
+ */
+class PostingList {
+    private static final long BASE = Integer.MIN_VALUE - 1L;
+    private static final int MIN_PENDING = 16;
+    private static final int[] NO_IDS = new int[0];
+    private static final int SKIP = 64;
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int count;
+    private long last = BASE;
+    private int[] added = NO_IDS;
+    private int addedCount;
+    private int[] removed = NO_IDS;
+    private int removedCount;
+    private int[] skipIds = NO_IDS;
+    private int[] skipOffsets = NO_IDS;
+
+    void add(int id) {
+        int index = Arrays.binarySearch(removed, 0, removedCount, id);
+        if (index >= 0) {
+            removedCount = delete(removed, removedCount, index);
+        } else if (id > last) {
+            append(id);
+        } else if (!encodedContains(id)) {
+            index = Arrays.binarySearch(added, 0, addedCount, id);
+            if (index < 0) {
+                added = insert(added, addedCount++, -index - 1, id);
+                compactIfNeeded();
+            }
+        }
+    }
+
+    void remove(int id) {
+        int index = Arrays.binarySearch(added, 0, addedCount, id);
+        if (index >= 0) {
+            addedCount = delete(added, addedCount, index);
+            return;
+        }
+        if (!encodedContains(id)) {
+            return;
+        }
+        index = Arrays.binarySearch(removed, 0, removedCount, id);
+        if (index < 0) {
+            removed = insert(removed, removedCount++, -index - 1, id);
+            compactIfNeeded();
+        }
+    }
+
+    int size() {
+        return count + addedCount - removedCount;
+    }
+
+    int encodedBytes() {
+        return length;
+    }
+
+    int[] toArray() {
+        int[] ids = new int[size()];
+        int n = 0;
+        int a = 0;
+        int r = 0;
+        int position = 0;
+        long value = BASE;
+        for (int i = 0; i < count; i++) {
+            long gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                gap |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += gap;
+            int id = (int) value;
+            while (a < addedCount && added[a] < id) {
+                ids[n++] = added[a++];
+            }
+            if (r < removedCount && removed[r] == id) {
+                r++;
+                continue;
+            }
+            ids[n++] = id;
+        }
+        while (a < addedCount) {
+            ids[n++] = added[a++];
+        }
+        return ids;
+    }
+
+    /**
+     * Whether {@code id} is among the encoded ids, regardless of pending removals.
+     */
+    private boolean encodedContains(int id) {
+        if (count == 0 || id > last) {
+            return false;
+        }
+        int blocks = (count + SKIP - 1) / SKIP;
+        int block = Arrays.binarySearch(skipIds, 0, blocks, id);
+        if (block >= 0) {
+            return true;
+        }
+        block = -block - 2;
+        if (block < 0) {
+            return false;
+        }
+        // The block's first id is already known, so decoding starts after its gap.
+        int position = skipOffsets[block];
+        while (data[position] < 0) {
+            position++;
+        }
+        position++;
+        long value = skipIds[block];
+        int end = Math.min(count, (block + 1) * SKIP);
+        for (int i = block * SKIP + 1; i < end; i++) {
+            long gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                gap |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            value += gap;
+            if (value >= id) {
+                return value == id;
+            }
+        }
+        return false;
+    }
+
+    private void append(int id) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        if (count % SKIP == 0) {
+            int block = count / SKIP;
+            if (block == skipIds.length) {
+                skipIds = Arrays.copyOf(skipIds, Math.max(4, block * 2));
+                skipOffsets = Arrays.copyOf(skipOffsets, skipIds.length);
+            }
+            skipIds[block] = id;
+            skipOffsets[block] = length;
+        }
+        long gap = id - last;
+        while (gap >= 0x80) {
+            data[length++] = (byte) (gap | 0x80);
+            gap >>>= 7;
+        }
+        data[length++] = (byte) gap;
+        last = id;
+        count++;
+    }
+
+    private void compactIfNeeded() {
+        if (addedCount + removedCount <= MIN_PENDING + (count >>> 3)) {
+            return;
+        }
+        int[] ids = toArray();
+        data = new byte[Math.max(8, ids.length * 2)];
+        length = 0;
+        count = 0;
+        last = BASE;
+        added = NO_IDS;
+        addedCount = 0;
+        removed = NO_IDS;
+        removedCount = 0;
+        skipIds = NO_IDS;
+        skipOffsets = NO_IDS;
+        for (int id : ids) {
+            append(id);
+        }
+    }
+
+    private static int[] insert(int[] ids, int size, int index, int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = id;
+        return ids;
+    }
+
+    private static int delete(int[] ids, int size, int index) {
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        return size - 1;
+    }
+}
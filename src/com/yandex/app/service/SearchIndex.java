@@ -0,0 +1,312 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Task;
+import com.yandex.app.util.IntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted index from the lower-cased letter-and-digit runs of names and descriptions
+ * to {@link PostingList posting lists} of ids. Terms are kept sorted so a prefix is a
+ * sub-map. The terms indexed for each id are kept as well, so an update diffs them
+ * against the item as it is now and a removal drops exactly what was indexed, even
+ * when the caller changed the stored instance in place. Those per-id arrays hold the
+ * map's own key instances, so a term's text is stored once however many ids carry it.
+ *
+ * <p>Queries are whitespace-separated words that must all match; {@code OR} between
+ * groups of words matches either group, and a trailing {@code *} makes a word a prefix.
+ */
+class SearchIndex {
+    private static final String OR = "OR";
+    private static final String AND = "AND";
+    private static final int[] NO_IDS = new int[0];
+
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final IntMap<String[]> termsById = new IntMap<>();
+
+    void add(Task task) {
+        update(task);
+    }
+
+    void remove(int id) {
+        String[] terms = termsById.remove(id);
+        if (terms != null) {
+            for (String term : terms) {
+                removeTerm(term, id);
+            }
+        }
+    }
+
+    /**
+     * Reindexes {@code task} under its id, adding it if it is not indexed yet.
+     */
+    void update(Task task) {
+        int id = task.getId();
+        Set<String> terms = terms(task);
+        String[] indexed = new String[terms.size()];
+        int count = 0;
+        String[] before = termsById.get(id);
+        if (before != null) {
+            for (String term : before) {
+                if (terms.remove(term)) {
+                    indexed[count++] = term;
+                } else {
+                    removeTerm(term, id);
+                }
+            }
+        }
+        for (String term : terms) {
+            String key = canonical(term);
+            postings.computeIfAbsent(key, t -> new PostingList()).add(id);
+            indexed[count++] = key;
+        }
+        termsById.put(id, indexed);
+    }
+
+    /**
+     * Indexes {@code items} in one pass: ids are grouped per term first and each group is
+     * sorted, so a posting list receives its new ids in order and mostly appends.
+     */
+    void addAll(Collection<? extends Task> items) {
+        Map<String, IdBuffer> grouped = new HashMap<>();
+        for (Task item : items) {
+            if (termsById.containsKey(item.getId())) {
+                update(item);
+                continue;
+            }
+            Set<String> terms = terms(item);
+            String[] indexed = new String[terms.size()];
+            int count = 0;
+            for (String term : terms) {
+                IdBuffer ids = grouped.get(term);
+                if (ids == null) {
+                    ids = new IdBuffer(canonical(term));
+                    grouped.put(ids.term, ids);
+                }
+                ids.add(item.getId());
+                indexed[count++] = ids.term;
+            }
+            termsById.put(item.getId(), indexed);
+        }
+        for (IdBuffer ids : grouped.values()) {
+            Arrays.sort(ids.ids, 0, ids.size);
+            PostingList list = postings.computeIfAbsent(ids.term, t -> new PostingList());
+            for (int i = 0; i < ids.size; i++) {
+                list.add(ids.ids[i]);
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+        termsById.clear();
+    }
+
+    /**
+     * Returns the terms {@code id} is indexed under, or {@code null}.
+     */
+    String[] indexedTerms(int id) {
+        return termsById.get(id);
+    }
+
+    int termCount() {
+        return postings.size();
+    }
+
+    long encodedBytes() {
+        long bytes = 0;
+        for (PostingList list : postings.values()) {
+            bytes += list.encodedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the ids matching {@code query} in ascending order.
+     */
+    int[] search(String query) {
+        int[] result = null;
+        List<String> group = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            if (word.equals(OR)) {
+                result = union(result, matchAll(group));
+                group.clear();
+            } else if (!word.isEmpty() && !word.equals(AND)) {
+                group.add(word);
+            }
+        }
+        result = union(result, matchAll(group));
+        return result != null ? result : NO_IDS;
+    }
+
+    private int[] matchAll(List<String> words) {
+        if (words.isEmpty()) {
+            return null;
+        }
+        List<int[]> matches = new ArrayList<>();
+        for (String word : words) {
+            boolean prefix = word.endsWith("*");
+            List<String> terms = tokenize(prefix ? word.substring(0, word.length() - 1) : word);
+            for (int i = 0; i < terms.size(); i++) {
+                int[] ids = prefix && i == terms.size() - 1 ? matchPrefix(terms.get(i)) : matchTerm(terms.get(i));
+                if (ids.length == 0) {
+                    return NO_IDS;
+                }
+                matches.add(ids);
+            }
+        }
+        if (matches.isEmpty()) {
+            return null;
+        }
+        matches.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] result = matches.get(0);
+        for (int i = 1; i < matches.size() && result.length > 0; i++) {
+            result = intersect(result, matches.get(i));
+        }
+        return result;
+    }
+
+    private int[] matchTerm(String term) {
+        PostingList list = postings.get(term);
+        return list != null ? list.toArray() : NO_IDS;
+    }
+
+    /**
+     * Unions the posting lists of every term with the prefix pairwise, in rounds, so each
+     * id is merged about log(terms) times.
+     */
+    private int[] matchPrefix(String prefix) {
+        List<int[]> lists = new ArrayList<>();
+        for (PostingList list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            lists.add(list.toArray());
+        }
+        if (lists.isEmpty()) {
+            return NO_IDS;
+        }
+        while (lists.size() > 1) {
+            List<int[]> merged = new ArrayList<>((lists.size() + 1) / 2);
+            for (int i = 0; i < lists.size(); i += 2) {
+                merged.add(i + 1 < lists.size() ? union(lists.get(i), lists.get(i + 1)) : lists.get(i));
+            }
+            lists = merged;
+        }
+        return lists.get(0);
+    }
+
+    /**
+     * Returns the instance {@code term} is already keyed by, or {@code term} itself if it
+     * is new.
+     */
+    private String canonical(String term) {
+        String key = postings.ceilingKey(term);
+        return term.equals(key) ? key : term;
+    }
+
+    private void removeTerm(String term, int id) {
+        PostingList list = postings.get(term);
+        if (list != null) {
+            list.remove(id);
+            if (list.size() == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private static Set<String> terms(Task task) {
+        Set<String> terms = new HashSet<>();
+        terms.addAll(tokenize(task.getName()));
+        terms.addAll(tokenize(task.getDescription()));
+        return terms;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        int[] result = new int[a.length + b.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[n++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                result[n++] = b[j++];
+            } else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static class IdBuffer {
+        final String term;
+        int[] ids = new int[4];
+        int size;
+
+        IdBuffer(String term) {
+            this.term = term;
+        }
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Task;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * History partitioned by the session bound with {@link HistoryScope}; calls outside a
+ * scope share one anonymous history. Each session is a {@link ConcurrentHistoryManager}
+ * of {@code sessionCapacity} entries, and at most {@code maxNodes / sessionCapacity}
+ * histories, the anonymous one included, are kept, which caps the total number of
+ * entries. Sessions idle for longer than the timeout are dropped, and when the cap is
+ * reached the least recently active one makes room for a new session.
+ *
+ * <p>Recording a view looks the session up in a {@link ConcurrentHashMap} and touches
+ * its last-access time; only opening a new session takes a lock.
+ */
+public class SessionHistoryManager implements HistoryManager {
+    public static final int DEFAULT_MAX_NODES = 1_000_000;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+
+    private final int sessionCapacity;
+    private final int maxSessions;
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final HistoryManager anonymous;
+    private long nextSweep;
+
+    public SessionHistoryManager(int sessionCapacity, int maxNodes, Duration idleTimeout) {
+        this(sessionCapacity, maxNodes, idleTimeout, System::nanoTime);
+    }
+
+    SessionHistoryManager(int sessionCapacity, int maxNodes, Duration idleTimeout, LongSupplier clock) {
+        if (sessionCapacity <= 0 || maxNodes < 2 * sessionCapacity || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Invalid session history limits: " + sessionCapacity + " per session, "
+                    + maxNodes + " in total, " + idleTimeout + " idle timeout");
+        }
+        this.sessionCapacity = sessionCapacity;
+        this.maxSessions = maxNodes / sessionCapacity - 1;
+        this.idleNanos = idleTimeout.toNanos();
+        this.clock = clock;
+        this.anonymous = new ConcurrentHistoryManager(sessionCapacity);
+        this.nextSweep = clock.getAsLong() + idleNanos;
+    }
+
+    @Override
+    public void add(Task task) {
+        history().add(task);
+    }
+
+    /**
+     * Removes the task from every session, so a deleted task disappears for all callers.
+     */
+    @Override
+    public void remove(int id) {
+        anonymous.remove(id);
+        for (Session session : sessions.values()) {
+            session.history.remove(id);
+        }
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return history().getHistory();
+    }
+
+    int sessionCount() {
+        return sessions.size();
+    }
+
+    private HistoryManager history() {
+        String key = HistoryScope.current();
+        if (key == null) {
+            return anonymous;
+        }
+        long now = clock.getAsLong();
+        Session session = sessions.get(key);
+        if (session == null) {
+            session = open(key, now);
+        }
+        session.lastAccess = now;
+        return session.history;
+    }
+
+    private synchronized Session open(String key, long now) {
+        Session session = sessions.get(key);
+        if (session != null) {
+            return session;
+        }
+        if (now - nextSweep >= 0 || sessions.size() >= maxSessions) {
+            expireIdle(now);
+            nextSweep = now + idleNanos / 4;
+        }
+        if (sessions.size() >= maxSessions) {
+            evictLeastRecent();
+        }
+        session = new Session(new ConcurrentHistoryManager(sessionCapacity), now);
+        sessions.put(key, session);
+        return session;
+    }
+
+    private void expireIdle(long now) {
+        sessions.values().removeIf(session -> now - session.lastAccess > idleNanos);
+    }
+
+    private void evictLeastRecent() {
+        String eldest = null;
+        long eldestAccess = 0;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            long access = entry.getValue().lastAccess;
+            if (eldest == null || access - eldestAccess < 0) {
+                eldest = entry.getKey();
+                eldestAccess = access;
+            }
+        }
+        if (eldest != null) {
+            sessions.remove(eldest);
+        }
+    }
+
+    private static final class Session {
+        final HistoryManager history;
+        volatile long lastAccess;
+
+        Session(HistoryManager history, long lastAccess) {
+            this.history = history;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
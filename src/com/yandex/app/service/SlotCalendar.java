@@ -0,0 +1,126 @@
+package com.yandex.app.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reserved time slots as a bitmap over epoch-aligned quanta of a fixed granularity.
+ * Bits live in lazily allocated pages of {@link #PAGE_BITS} quanta and ranges are
+ * tested, set and cleared a 64-bit word at a time. A reservation covers every quantum
+ * from the one holding its start to the one holding its end, both inclusive.
+ */
+class SlotCalendar {
+    static final Duration DEFAULT_GRANULARITY = Duration.ofMinutes(1);
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_BITS = 1 << PAGE_SHIFT;
+    private static final int PAGE_WORDS = PAGE_BITS >>> 6;
+
+    private final long granularitySeconds;
+    private final Map<Long, long[]> pages = new HashMap<>();
+
+    SlotCalendar(Duration granularity) {
+        if (granularity.isNegative() || granularity.getSeconds() == 0 || granularity.getNano() != 0) {
+            throw new IllegalArgumentException("Slot granularity must be a positive whole number of seconds: " + granularity);
+        }
+        this.granularitySeconds = granularity.getSeconds();
+    }
+
+    Duration getGranularity() {
+        return Duration.ofSeconds(granularitySeconds);
+    }
+
+    boolean isFree(LocalDateTime start, LocalDateTime end) {
+        long from = slotOf(start);
+        long to = slotOf(end);
+        for (long page = from >> PAGE_SHIFT; page <= to >> PAGE_SHIFT; page++) {
+            long[] words = pages.get(page);
+            if (words == null) {
+                continue;
+            }
+            int first = firstBit(page, from);
+            int last = lastBit(page, to);
+            for (int w = first >>> 6; w <= last >>> 6; w++) {
+                if ((words[w] & mask(w, first, last)) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    void reserve(LocalDateTime start, LocalDateTime end) {
+        long from = slotOf(start);
+        long to = slotOf(end);
+        for (long page = from >> PAGE_SHIFT; page <= to >> PAGE_SHIFT; page++) {
+            long[] words = pages.computeIfAbsent(page, p -> new long[PAGE_WORDS]);
+            int first = firstBit(page, from);
+            int last = lastBit(page, to);
+            for (int w = first >>> 6; w <= last >>> 6; w++) {
+                words[w] |= mask(w, first, last);
+            }
+        }
+    }
+
+    void release(LocalDateTime start, LocalDateTime end) {
+        long from = slotOf(start);
+        long to = slotOf(end);
+        for (long page = from >> PAGE_SHIFT; page <= to >> PAGE_SHIFT; page++) {
+            long[] words = pages.get(page);
+            if (words == null) {
+                continue;
+            }
+            int first = firstBit(page, from);
+            int last = lastBit(page, to);
+            for (int w = first >>> 6; w <= last >>> 6; w++) {
+                words[w] &= ~mask(w, first, last);
+            }
+            if (isEmpty(words)) {
+                pages.remove(page);
+            }
+        }
+    }
+
+    void clear() {
+        pages.clear();
+    }
+
+    int allocatedPages() {
+        return pages.size();
+    }
+
+    private long slotOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), granularitySeconds);
+    }
+
+    private static int firstBit(long page, long from) {
+        return page == from >> PAGE_SHIFT ? (int) (from & (PAGE_BITS - 1)) : 0;
+    }
+
+    private static int lastBit(long page, long to) {
+        return page == to >> PAGE_SHIFT ? (int) (to & (PAGE_BITS - 1)) : PAGE_BITS - 1;
+    }
+
+    private static long mask(int word, int first, int last) {
+        long mask = -1L;
+        if (word == first >>> 6) {
+            mask &= -1L << (first & 63);
+        }
+        if (word == last >>> 6) {
+            mask &= -1L >>> (63 - (last & 63));
+        }
+        return mask;
+    }
+
+    private static boolean isEmpty(long[] words) {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,6 @@
+package com.yandex.app.service;
+
+public enum SnapshotFormat {
+    CSV,
+    BINARY
+}
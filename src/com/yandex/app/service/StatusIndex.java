@@ -0,0 +1,52 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.util.IdSet;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Ids of one kind of task grouped by status. {@link #put} clears the id from every other
+ * status, so callers never need the previous status of an item that may have been
+ * changed in place.
+ */
+class StatusIndex {
+    private final EnumMap<Status, IdSet> ids = new EnumMap<>(Status.class);
+
+    StatusIndex() {
+        for (Status status : Status.values()) {
+            ids.put(status, new IdSet());
+        }
+    }
+
+    void put(int id, Status status) {
+        for (Map.Entry<Status, IdSet> entry : ids.entrySet()) {
+            if (entry.getKey() == status) {
+                entry.getValue().add(id);
+            } else {
+                entry.getValue().remove(id);
+            }
+        }
+    }
+
+    void remove(int id) {
+        for (IdSet set : ids.values()) {
+            set.remove(id);
+        }
+    }
+
+    IdSet get(Status status) {
+        return ids.get(status);
+    }
+
+    int count(Status status) {
+        return ids.get(status).size();
+    }
+
+    void clear() {
+        for (IdSet set : ids.values()) {
+            set.clear();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.yandex.app.service;
+
+import java.time.Duration;
+
+public class StorageOptions {
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+    private static final Duration DEFAULT_BATCH_WINDOW = Duration.ofMillis(10);
+    private static final int DEFAULT_BATCH_OPERATIONS = 512;
+
+    private final boolean journaled;
+    private final int compactionThreshold;
+    private final DurabilityMode durability;
+    private final Duration batchWindow;
+    private final int batchOperations;
+    private final SnapshotFormat snapshotFormat;
+
+    private StorageOptions(boolean journaled, int compactionThreshold, DurabilityMode durability,
+                           Duration batchWindow, int batchOperations, SnapshotFormat snapshotFormat) {
+        this.journaled = journaled;
+        this.compactionThreshold = compactionThreshold;
+        this.durability = durability;
+        this.batchWindow = batchWindow;
+        this.batchOperations = batchOperations;
+        this.snapshotFormat = snapshotFormat;
+    }
+
+    public static StorageOptions defaults() {
+        return new StorageOptions(false, DEFAULT_COMPACTION_THRESHOLD, DurabilityMode.NONE,
+                DEFAULT_BATCH_WINDOW, DEFAULT_BATCH_OPERATIONS, SnapshotFormat.CSV);
+    }
+
+    public StorageOptions withJournal(boolean journaled) {
+        return new StorageOptions(journaled, compactionThreshold, durability, batchWindow, batchOperations, snapshotFormat);
+    }
+
+    public StorageOptions withCompactionThreshold(int compactionThreshold) {
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Compaction threshold must be positive: " + compactionThreshold);
+        }
+        return new StorageOptions(journaled, compactionThreshold, durability, batchWindow, batchOperations, snapshotFormat);
+    }
+
+    public StorageOptions withDurability(DurabilityMode durability) {
+        return new StorageOptions(journaled, compactionThreshold, durability, batchWindow, batchOperations, snapshotFormat);
+    }
+
+    public StorageOptions withBatch(Duration batchWindow, int batchOperations) {
+        if (batchWindow.isNegative() || batchOperations <= 0) {
+            throw new IllegalArgumentException("Invalid batch window " + batchWindow + " / " + batchOperations + " operations");
+        }
+        return new StorageOptions(journaled, compactionThreshold, durability, batchWindow, batchOperations, snapshotFormat);
+    }
+
+    public StorageOptions withSnapshotFormat(SnapshotFormat snapshotFormat) {
+        return new StorageOptions(journaled, compactionThreshold, durability, batchWindow, batchOperations, snapshotFormat);
+    }
+
+    public boolean isJournaled() {
+        return journaled;
+    }
+
+    public int getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    public DurabilityMode getDurability() {
+        return durability;
+    }
+
+    public Duration getBatchWindow() {
+        return batchWindow;
+    }
+
+    public int getBatchOperations() {
+        return batchOperations;
+    }
+
+    public SnapshotFormat getSnapshotFormat() {
+        return snapshotFormat;
+    }
+}
@@ -2,8 +2,11 @@ package com.yandex.app.service;
 
 import com.yandex.app.model.*;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface TaskManager {
@@ -13,6 +16,8 @@ public interface TaskManager {
 
     int addSubtask(Subtask subtask);
 
+    void bulkLoad(Collection<? extends Task> items);
+
     void updateTask(Task task);
 
     void updateEpic(Epic epic);
@@ -39,6 +44,40 @@ public interface TaskManager {
 
     ArrayList<Subtask> getSubtasksByEpicId(int epicId);
 
+    /**
+     * Read-only collections for streaming listings without copying. Depending on the
+     * implementation they are live views, which may only be iterated by the thread that
+     * also makes every change, or snapshots, as {@link ConcurrentTaskManager} returns.
+     */
+    Collection<Task> tasksView();
+
+    Collection<Epic> epicsView();
+
+    Collection<Subtask> subtasksView();
+
+    Collection<Task> prioritizedView();
+
+    TaskPage query(TaskQuery query);
+
+    /**
+     * Returns up to {@code limit} items, in id order, whose name or description contains
+     * every word of {@code query}; {@code OR} separates alternatives and a trailing
+     * {@code *} matches a prefix.
+     */
+    List<Task> search(String query, int limit);
+
+    List<Task> findByStatus(TaskType type, Status status);
+
+    Map<Status, Integer> countByStatus(TaskType type);
+
+    /**
+     * Returns a counter that moves forward whenever an item of {@code type} is added,
+     * changed or removed, an epic's recomputed status and times included. Counters of all
+     * types and {@link Task#getVersion() task versions} are drawn from one sequence, so
+     * the largest counter of several types changes whenever any of them does.
+     */
+    long modificationCount(TaskType type);
+
     void clearTasks();
 
     void clearSubtasks();
@@ -48,4 +87,10 @@ public interface TaskManager {
     List<Task> getHistory();
 
     List<Task> getPrioritizedTasks();
+
+    List<Task> tasksStartingBetween(LocalDateTime from, LocalDateTime to);
+
+    List<Task> tasksActiveAt(LocalDateTime instant);
+
+    List<Task> nextTasks(LocalDateTime from, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Task;
+
+import java.util.List;
+
+public class TaskPage {
+    private final List<Task> items;
+    private final String nextCursor;
+
+    public TaskPage(List<Task> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Task> getItems() {
+        return items;
+    }
+
+    /**
+     * Opaque position after the last item, or {@code null} on the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
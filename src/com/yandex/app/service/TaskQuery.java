@@ -0,0 +1,119 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import com.yandex.app.model.TaskType;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Filter, order and page of a {@link TaskManager#query} listing. The start time range is
+ * half-open, {@code [from, to)}, and excludes unscheduled items once either bound is set;
+ * so does {@link TaskSort#START_TIME}. Cursors come from {@link TaskPage#getNextCursor()}
+ * and are keyset positions, so items added or removed elsewhere in the order never shift
+ * the next page.
+ */
+public class TaskQuery {
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final Set<TaskType> types;
+    private final Status status;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final TaskSort sort;
+    private final int limit;
+    private final String cursor;
+
+    private TaskQuery(Set<TaskType> types, Status status, LocalDateTime from, LocalDateTime to,
+                      TaskSort sort, int limit, String cursor) {
+        this.types = types;
+        this.status = status;
+        this.from = from;
+        this.to = to;
+        this.sort = sort;
+        this.limit = limit;
+        this.cursor = cursor;
+    }
+
+    public static TaskQuery of(TaskType type, TaskType... more) {
+        return new TaskQuery(EnumSet.of(type, more), null, null, null, TaskSort.ID, UNLIMITED, null);
+    }
+
+    public static TaskQuery all() {
+        return new TaskQuery(EnumSet.allOf(TaskType.class), null, null, null, TaskSort.ID, UNLIMITED, null);
+    }
+
+    public TaskQuery withTypes(Set<TaskType> types) {
+        if (types.isEmpty()) {
+            throw new IllegalArgumentException("At least one task type is required");
+        }
+        return new TaskQuery(EnumSet.copyOf(types), status, from, to, sort, limit, cursor);
+    }
+
+    public TaskQuery withStatus(Status status) {
+        return new TaskQuery(types, status, from, to, sort, limit, cursor);
+    }
+
+    public TaskQuery withStartBetween(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Range start " + from + " is after its end " + to);
+        }
+        return new TaskQuery(types, status, from, to, sort, limit, cursor);
+    }
+
+    public TaskQuery withSort(TaskSort sort) {
+        return new TaskQuery(types, status, from, to, sort, limit, cursor);
+    }
+
+    public TaskQuery withLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        return new TaskQuery(types, status, from, to, sort, limit, cursor);
+    }
+
+    public TaskQuery withCursor(String cursor) {
+        return new TaskQuery(types, status, from, to, sort, limit, cursor);
+    }
+
+    public Set<TaskType> getTypes() {
+        return types;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public TaskSort getSort() {
+        return sort;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    boolean matches(Task task) {
+        if (!types.contains(task.getType()) || (status != null && task.getStatus() != status)) {
+            return false;
+        }
+        if (from == null && to == null) {
+            return true;
+        }
+        LocalDateTime start = task.getStartTime();
+        return start != null && (from == null || !start.isBefore(from)) && (to == null || start.isBefore(to));
+    }
+}
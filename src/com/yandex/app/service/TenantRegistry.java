@@ -0,0 +1,312 @@
+package com.yandex.app.service;
+
+import java.io.Closeable;
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * One {@link FileBackedTaskManager} per tenant key, all stored in one directory. A tenant
+ * is loaded from its file on first use and evicted back to it when it has been idle for
+ * longer than the timeout, or when loading another tenant pushes the estimated heap of
+ * the loaded ones past the memory budget, least recently used first. The estimate is
+ * {@link #BYTES_PER_ITEM} per task, epic and subtask plus a fixed overhead per tenant,
+ * and is checked when a tenant is loaded and after writes that leave it over budget.
+ * Loading and eviction only lock the tenants involved, so a slow call on one tenant
+ * never holds up the first load of another.
+ *
+ * <p>{@link #manager()} routes every call to the tenant bound with {@link TenantScope},
+ * or to {@link #DEFAULT_TENANT} outside a scope. Calls run under a per-tenant read or
+ * write lock like {@link ConcurrentTaskManager}'s, and eviction takes the write lock, so
+ * a tenant is never written to disk while a call is in flight; background evictions skip
+ * busy tenants instead of waiting for them.
+ */
+public class TenantRegistry implements Closeable {
+    public static final String DEFAULT_TENANT = "default";
+    public static final long DEFAULT_MEMORY_BUDGET = 256L << 20;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    public static final long BYTES_PER_ITEM = 512;
+
+    private static final long TENANT_OVERHEAD_BYTES = 64 << 10;
+    private static final int HISTORY_CAPACITY = 100;
+    private static final int HISTORY_NODES = 10_000;
+    private static final Pattern KEY = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final File directory;
+    private final StorageOptions storage;
+    private final long memoryBudget;
+    private final long idleNanos;
+    private final LongSupplier clock;
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Tenant>> loading = new ConcurrentHashMap<>();
+    private final TaskManager manager = new TenantTaskManager(this);
+    private final ReentrantLock maintenance = new ReentrantLock();
+    private volatile long nextSweep;
+    private volatile boolean closed;
+
+    public TenantRegistry(File directory, StorageOptions storage, long memoryBudget, Duration idleTimeout) {
+        this(directory, storage, memoryBudget, idleTimeout, System::nanoTime);
+    }
+
+    TenantRegistry(File directory, StorageOptions storage, long memoryBudget, Duration idleTimeout, LongSupplier clock) {
+        if (memoryBudget <= 0 || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Invalid tenant limits: " + memoryBudget + " bytes, "
+                    + idleTimeout + " idle timeout");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new FileBackedTaskManager.ManagerSaveException("Error creating tenant directory: " + directory.getPath(), null);
+        }
+        this.directory = directory;
+        this.storage = storage;
+        this.memoryBudget = memoryBudget;
+        this.idleNanos = idleTimeout.toNanos();
+        this.clock = clock;
+        this.nextSweep = clock.getAsLong() + idleNanos;
+    }
+
+    public static boolean isValidKey(String key) {
+        return key != null && KEY.matcher(key).matches();
+    }
+
+    /**
+     * Returns the manager of whichever tenant is bound to the calling thread.
+     */
+    public TaskManager manager() {
+        return manager;
+    }
+
+    public int loadedCount() {
+        return tenants.size();
+    }
+
+    public boolean isLoaded(String key) {
+        return tenants.containsKey(key);
+    }
+
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (Tenant tenant : tenants.values()) {
+            bytes += tenant.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    public void evict(String key) {
+        Tenant tenant = tenants.get(key);
+        if (tenant != null) {
+            evict(tenant, true);
+        }
+    }
+
+    /**
+     * Writes every loaded tenant back to disk. Calls made afterwards fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Tenant tenant : new ArrayList<>(tenants.values())) {
+            evict(tenant, true);
+        }
+    }
+
+    <R> R call(boolean exclusive, Function<FileBackedTaskManager, R> action) {
+        String key = TenantScope.current() != null ? TenantScope.current() : DEFAULT_TENANT;
+        while (true) {
+            Tenant tenant = tenants.get(key);
+            if (tenant == null) {
+                tenant = load(key);
+            }
+            Lock lock = exclusive ? tenant.lock.writeLock() : tenant.lock.readLock();
+            R result;
+            long now;
+            lock.lock();
+            try {
+                // An evicted tenant has already left the map, so the next attempt loads it again.
+                if (tenant.evicted) {
+                    continue;
+                }
+                now = clock.getAsLong();
+                tenant.lastAccess = now;
+                result = action.apply(tenant.manager);
+            } finally {
+                lock.unlock();
+            }
+            if (now - nextSweep >= 0 || (exclusive && estimatedBytes() > memoryBudget)) {
+                maintain(tenant);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Loads {@code key} without holding any lock shared with other tenants; concurrent
+     * first calls for the same key wait for one load instead of reading the file twice.
+     */
+    private Tenant load(String key) {
+        if (closed) {
+            throw new IllegalStateException("Tenant registry is closed");
+        }
+        if (!isValidKey(key)) {
+            throw new IllegalArgumentException("Invalid tenant key: " + key);
+        }
+        CompletableFuture<Tenant> loaded = new CompletableFuture<>();
+        CompletableFuture<Tenant> pending = loading.putIfAbsent(key, loaded);
+        if (pending != null) {
+            return await(pending);
+        }
+        Tenant tenant;
+        try {
+            // A tenant still being evicted stays in the map until its file is written.
+            tenant = tenants.get(key);
+            if (tenant == null) {
+                HistoryManager history = new SessionHistoryManager(HISTORY_CAPACITY, HISTORY_NODES,
+                        SessionHistoryManager.DEFAULT_IDLE_TIMEOUT);
+                tenant = new Tenant(key, FileBackedTaskManager.loadFromFile(fileFor(key), storage, history),
+                        clock.getAsLong());
+                tenants.put(key, tenant);
+            }
+            loaded.complete(tenant);
+        } catch (RuntimeException e) {
+            loaded.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, loaded);
+        }
+        if (closed) {
+            evict(tenant, true);
+            throw new IllegalStateException("Tenant registry is closed");
+        }
+        maintain(tenant);
+        return tenant;
+    }
+
+    private static Tenant await(CompletableFuture<Tenant> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Evicts idle tenants when a sweep is due and then tenants over the memory budget,
+     * least recently used first and never {@code active}. Only one thread maintains at a
+     * time, and tenants with a call in flight are skipped rather than waited for; they
+     * are looked at again on the next sweep or write.
+     */
+    private void maintain(Tenant active) {
+        if (!maintenance.tryLock()) {
+            return;
+        }
+        try {
+            long now = clock.getAsLong();
+            if (now - nextSweep >= 0) {
+                nextSweep = now + idleNanos / 4;
+                expireIdle(now, active);
+            }
+            enforceBudget(active);
+        } finally {
+            maintenance.unlock();
+        }
+    }
+
+    private void expireIdle(long now, Tenant active) {
+        for (Tenant tenant : new ArrayList<>(tenants.values())) {
+            if (tenant != active && now - tenant.lastAccess > idleNanos) {
+                evict(tenant, false);
+            }
+        }
+    }
+
+    private void enforceBudget(Tenant active) {
+        long bytes = estimatedBytes();
+        if (bytes <= memoryBudget) {
+            return;
+        }
+        List<Tenant> candidates = new ArrayList<>(tenants.values());
+        candidates.remove(active);
+        // Access times keep moving while this runs, so sort on a copy of them.
+        long now = clock.getAsLong();
+        Map<Tenant, Long> idle = new HashMap<>();
+        for (Tenant tenant : candidates) {
+            idle.put(tenant, now - tenant.lastAccess);
+        }
+        candidates.sort(Comparator.comparing(idle::get, Comparator.reverseOrder()));
+        for (Tenant tenant : candidates) {
+            if (bytes <= memoryBudget) {
+                break;
+            }
+            long tenantBytes = tenant.estimatedBytes();
+            if (evict(tenant, false)) {
+                bytes -= tenantBytes;
+            }
+        }
+    }
+
+    /**
+     * Writes {@code tenant} back and unloads it. Without {@code wait}, gives up and
+     * returns false if a call holds the tenant.
+     */
+    private boolean evict(Tenant tenant, boolean wait) {
+        Lock lock = tenant.lock.writeLock();
+        if (wait) {
+            lock.lock();
+        } else if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (tenant.evicted) {
+                return true;
+            }
+            if (storage.isJournaled()) {
+                tenant.manager.compact();
+            }
+            tenant.manager.close();
+            tenant.evicted = true;
+            tenants.remove(tenant.key, tenant);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private File fileFor(String key) {
+        String extension = storage.getSnapshotFormat() == SnapshotFormat.BINARY ? ".bin" : ".csv";
+        return new File(directory, key + extension);
+    }
+
+    private static final class Tenant {
+        final String key;
+        final FileBackedTaskManager manager;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        volatile long lastAccess;
+        boolean evicted;
+
+        Tenant(String key, FileBackedTaskManager manager, long lastAccess) {
+            this.key = key;
+            this.manager = manager;
+            this.lastAccess = lastAccess;
+        }
+
+        /**
+         * Reads the store sizes without the lock; a racy count is good enough for an estimate.
+         */
+        long estimatedBytes() {
+            long items = (long) manager.tasksView().size() + manager.epicsView().size() + manager.subtasksView().size();
+            return TENANT_OVERHEAD_BYTES + items * BYTES_PER_ITEM;
+        }
+    }
+}
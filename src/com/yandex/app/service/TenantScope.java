@@ -0,0 +1,22 @@
+package com.yandex.app.service;
+
+import com.yandex.app.util.ThreadScope;
+
+/**
+ * Binds a tenant key to the current thread for the duration of a request, so the
+ * manager returned by {@link TenantRegistry#manager()} serves that tenant's board.
+ */
+public final class TenantScope {
+    private static final ThreadScope SCOPE = new ThreadScope();
+
+    private TenantScope() {
+    }
+
+    public static ThreadScope.Binding enter(String tenant) {
+        return SCOPE.enter(tenant);
+    }
+
+    public static String current() {
+        return SCOPE.current();
+    }
+}
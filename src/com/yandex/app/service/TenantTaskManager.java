@@ -0,0 +1,218 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Epic;
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Subtask;
+import com.yandex.app.model.Task;
+import com.yandex.app.model.TaskType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The {@link TaskManager} handed out by {@link TenantRegistry#manager()}: each call is
+ * forwarded to the current tenant's manager under that tenant's lock, mutations under
+ * the write lock and everything else under the read lock.
+ */
+class TenantTaskManager implements TaskManager {
+    private final TenantRegistry registry;
+
+    TenantTaskManager(TenantRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public int addTask(Task task) {
+        return write(manager -> manager.addTask(task));
+    }
+
+    @Override
+    public int addEpic(Epic epic) {
+        return write(manager -> manager.addEpic(epic));
+    }
+
+    @Override
+    public int addSubtask(Subtask subtask) {
+        return write(manager -> manager.addSubtask(subtask));
+    }
+
+    @Override
+    public void bulkLoad(Collection<? extends Task> items) {
+        update(manager -> manager.bulkLoad(items));
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        update(manager -> manager.updateTask(task));
+    }
+
+    @Override
+    public void updateEpic(Epic epic) {
+        update(manager -> manager.updateEpic(epic));
+    }
+
+    @Override
+    public void updateSubtask(Subtask subtask) {
+        update(manager -> manager.updateSubtask(subtask));
+    }
+
+    @Override
+    public Optional<Task> getTask(int id) {
+        return read(manager -> manager.getTask(id));
+    }
+
+    @Override
+    public Optional<Subtask> getSubtask(int id) {
+        return read(manager -> manager.getSubtask(id));
+    }
+
+    @Override
+    public Optional<Epic> getEpic(int id) {
+        return read(manager -> EpicSnapshots.of(manager.getEpic(id)));
+    }
+
+    @Override
+    public void deleteTaskById(int id) {
+        update(manager -> manager.deleteTaskById(id));
+    }
+
+    @Override
+    public void deleteEpicById(int id) {
+        update(manager -> manager.deleteEpicById(id));
+    }
+
+    @Override
+    public void deleteSubtaskById(int id) {
+        update(manager -> manager.deleteSubtaskById(id));
+    }
+
+    @Override
+    public ArrayList<Task> getAllTasks() {
+        return read(TaskManager::getAllTasks);
+    }
+
+    @Override
+    public ArrayList<Epic> getAllEpics() {
+        return read(manager -> EpicSnapshots.of(manager.getAllEpics()));
+    }
+
+    @Override
+    public ArrayList<Subtask> getAllSubtasks() {
+        return read(TaskManager::getAllSubtasks);
+    }
+
+    @Override
+    public ArrayList<Subtask> getSubtasksByEpicId(int epicId) {
+        return read(manager -> manager.getSubtasksByEpicId(epicId));
+    }
+
+    /**
+     * Returns a snapshot rather than a live view, which could not be iterated safely
+     * after the tenant's lock is released or once the tenant is evicted.
+     */
+    @Override
+    public Collection<Task> tasksView() {
+        return read(manager -> new ArrayList<>(manager.tasksView()));
+    }
+
+    @Override
+    public Collection<Epic> epicsView() {
+        return read(manager -> EpicSnapshots.of(manager.epicsView()));
+    }
+
+    @Override
+    public Collection<Subtask> subtasksView() {
+        return read(manager -> new ArrayList<>(manager.subtasksView()));
+    }
+
+    @Override
+    public Collection<Task> prioritizedView() {
+        return read(manager -> new ArrayList<>(manager.prioritizedView()));
+    }
+
+    @Override
+    public TaskPage query(TaskQuery query) {
+        return read(manager -> EpicSnapshots.of(manager.query(query)));
+    }
+
+    @Override
+    public List<Task> search(String query, int limit) {
+        return read(manager -> EpicSnapshots.of(manager.search(query, limit)));
+    }
+
+    @Override
+    public List<Task> findByStatus(TaskType type, Status status) {
+        return read(manager -> EpicSnapshots.of(manager.findByStatus(type, status)));
+    }
+
+    @Override
+    public Map<Status, Integer> countByStatus(TaskType type) {
+        return read(manager -> manager.countByStatus(type));
+    }
+
+    @Override
+    public long modificationCount(TaskType type) {
+        return read(manager -> manager.modificationCount(type));
+    }
+
+    @Override
+    public void clearTasks() {
+        update(TaskManager::clearTasks);
+    }
+
+    @Override
+    public void clearSubtasks() {
+        update(TaskManager::clearSubtasks);
+    }
+
+    @Override
+    public void clearEpics() {
+        update(TaskManager::clearEpics);
+    }
+
+    @Override
+    public List<Task> getHistory() {
+        return read(manager -> EpicSnapshots.of(manager.getHistory()));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return read(TaskManager::getPrioritizedTasks);
+    }
+
+    @Override
+    public List<Task> tasksStartingBetween(LocalDateTime from, LocalDateTime to) {
+        return read(manager -> manager.tasksStartingBetween(from, to));
+    }
+
+    @Override
+    public List<Task> tasksActiveAt(LocalDateTime instant) {
+        return read(manager -> manager.tasksActiveAt(instant));
+    }
+
+    @Override
+    public List<Task> nextTasks(LocalDateTime from, int limit) {
+        return read(manager -> manager.nextTasks(from, limit));
+    }
+
+    private <R> R read(Function<TaskManager, R> action) {
+        return registry.call(false, action::apply);
+    }
+
+    private <R> R write(Function<TaskManager, R> action) {
+        return registry.call(true, action::apply);
+    }
+
+    private void update(Consumer<TaskManager> action) {
+        registry.call(true, manager -> {
+            action.accept(manager);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,177 @@
+package com.yandex.app.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Ordered set of ids as a bitmap split into lazily allocated pages of {@link #PAGE_BITS}
+ * ids, kept in id order so a set can be walked from any id onwards. Empty pages are
+ * dropped, so sparse ids cost one page each rather than a bitmap up to the largest id.
+ */
+public final class IdSet {
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_BITS = 1 << PAGE_SHIFT;
+    private static final int PAGE_WORDS = PAGE_BITS >>> 6;
+
+    private final NavigableMap<Integer, long[]> pages = new TreeMap<>();
+    private int size;
+
+    public boolean add(int id) {
+        long[] words = pages.computeIfAbsent(id >> PAGE_SHIFT, p -> new long[PAGE_WORDS]);
+        int word = (id & (PAGE_BITS - 1)) >>> 6;
+        long mask = 1L << id;
+        if ((words[word] & mask) != 0) {
+            return false;
+        }
+        words[word] |= mask;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int id) {
+        long[] words = pages.get(id >> PAGE_SHIFT);
+        if (words == null) {
+            return false;
+        }
+        int word = (id & (PAGE_BITS - 1)) >>> 6;
+        long mask = 1L << id;
+        if ((words[word] & mask) == 0) {
+            return false;
+        }
+        words[word] &= ~mask;
+        size--;
+        if (isEmpty(words)) {
+            pages.remove(id >> PAGE_SHIFT);
+        }
+        return true;
+    }
+
+    public boolean contains(int id) {
+        long[] words = pages.get(id >> PAGE_SHIFT);
+        return words != null && (words[(id & (PAGE_BITS - 1)) >>> 6] & (1L << id)) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        pages.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the smallest id greater than {@code after}, or {@link #NONE}.
+     */
+    public int higher(int after) {
+        if (after == Integer.MAX_VALUE) {
+            return NONE;
+        }
+        int from = after + 1;
+        int page = from >> PAGE_SHIFT;
+        long[] words = pages.get(page);
+        if (words != null) {
+            int bit = nextBit(words, from & (PAGE_BITS - 1));
+            if (bit >= 0) {
+                return page << PAGE_SHIFT | bit;
+            }
+        }
+        for (Map.Entry<Integer, long[]> entry : pages.tailMap(page, false).entrySet()) {
+            int bit = nextBit(entry.getValue(), 0);
+            if (bit >= 0) {
+                return entry.getKey() << PAGE_SHIFT | bit;
+            }
+        }
+        return NONE;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (Map.Entry<Integer, long[]> entry : pages.entrySet()) {
+            int base = entry.getKey() << PAGE_SHIFT;
+            long[] words = entry.getValue();
+            for (int w = 0; w < PAGE_WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(base | (w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Iterates the ids greater than {@code after} in ascending order, scanning each page
+     * once instead of looking it up again for every id as {@link #higher} does.
+     */
+    public PrimitiveIterator.OfInt iterator(int after) {
+        return new PrimitiveIterator.OfInt() {
+            private final Iterator<Map.Entry<Integer, long[]>> rest = pages.tailMap(after >> PAGE_SHIFT, true).entrySet().iterator();
+            private long[] words;
+            private int base;
+            private int next = after == Integer.MAX_VALUE ? NONE : advance(after + 1);
+
+            private int advance(int from) {
+                while (true) {
+                    if (words != null && from - base < PAGE_BITS) {
+                        int bit = nextBit(words, from - base);
+                        if (bit >= 0) {
+                            return base | bit;
+                        }
+                    }
+                    if (!rest.hasNext()) {
+                        return NONE;
+                    }
+                    Map.Entry<Integer, long[]> page = rest.next();
+                    words = page.getValue();
+                    base = page.getKey() << PAGE_SHIFT;
+                    from = Math.max(from, base);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != NONE;
+            }
+
+            @Override
+            public int nextInt() {
+                if (next == NONE) {
+                    throw new NoSuchElementException();
+                }
+                int id = next;
+                next = id == Integer.MAX_VALUE ? NONE : advance(id + 1);
+                return id;
+            }
+        };
+    }
+
+    private static int nextBit(long[] words, int bit) {
+        int w = bit >>> 6;
+        long word = words[w] & (-1L << bit);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == PAGE_WORDS) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    private static boolean isEmpty(long[] words) {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,200 @@
+package com.yandex.app.util;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Map from int keys to non-null values, stored in two parallel arrays with linear
+ * probing, so an entry costs two array slots instead of a boxed key and an entry object.
+ * Removal shifts the following run back instead of leaving tombstones. The keys are
+ * also kept in an {@link IdSet}, which makes iteration ascending by key and lets it
+ * start from any key, as the id-ordered stores need.
+ */
+public final class IntMap<V> {
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private final IdSet order = new IdSet();
+    private final Collection<V> valuesView = new AbstractCollection<>() {
+        @Override
+        public Iterator<V> iterator() {
+            return valuesAfter(Integer.MIN_VALUE);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    public IntMap() {
+        allocate(MIN_CAPACITY);
+    }
+
+    public V get(int key) {
+        int slot = find(key);
+        return slot >= 0 ? value(slot) : null;
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Returns the previous value for {@code key}, or {@code null}.
+     */
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("IntMap does not accept null values");
+        }
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = value(slot);
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        order.add(key);
+        if (++size > threshold()) {
+            allocate(values.length << 1);
+        }
+        return null;
+    }
+
+    public V computeIfAbsent(int key, IntFunction<? extends V> factory) {
+        V value = get(key);
+        if (value == null) {
+            value = factory.apply(key);
+            put(key, value);
+        }
+        return value;
+    }
+
+    public V remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = value(slot);
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        while (values[next] != null) {
+            int home = slot(keys[next]);
+            // An entry may move back into the hole unless its home lies cyclically after the hole.
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[hole] = null;
+        order.remove(key);
+        size--;
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+        order.clear();
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Read-only view of the values in ascending key order.
+     */
+    public Collection<V> values() {
+        return valuesView;
+    }
+
+    /**
+     * Iterates the values whose keys are greater than {@code after}, in key order.
+     */
+    public Iterator<V> valuesAfter(int after) {
+        PrimitiveIterator.OfInt ids = order.iterator(after);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return ids.hasNext();
+            }
+
+            @Override
+            public V next() {
+                if (!ids.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(ids.nextInt());
+            }
+        };
+    }
+
+    public void forEachKey(IntConsumer action) {
+        order.forEach(action);
+    }
+
+    private int find(int key) {
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private int threshold() {
+        return values.length - (values.length >>> 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int slot) {
+        return (V) values[slot];
+    }
+
+    private void allocate(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        if (size == 0) {
+            return;
+        }
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
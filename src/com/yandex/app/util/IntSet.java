@@ -0,0 +1,278 @@
+package com.yandex.app.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of ints that doubles as a list in insertion order. An open-addressing table of
+ * positions makes {@link #contains} and {@link #remove} O(1): removal only marks the
+ * position as vacant, and the elements are compacted once vacant positions outnumber
+ * the live ones. {@link #get} is direct while there are none and otherwise counts its
+ * way through the vacancy bitmap, so walk the set with {@link #forEach} or the list
+ * view's iterator rather than by index.
+ */
+public final class IntSet {
+    private static final int[] EMPTY = new int[0];
+
+    private int[] elements = EMPTY;
+    private int[] positions = EMPTY;
+    private long[] vacant;
+    private int end;
+    private int size;
+
+    public IntSet() {
+    }
+
+    public IntSet(IntSet other) {
+        elements = other.toArray();
+        size = elements.length;
+        end = size;
+        if (other.vacant == null) {
+            positions = other.positions.clone();
+        } else if (size > 0) {
+            rehash(other.positions.length);
+        }
+    }
+
+    public boolean add(int value) {
+        if (find(value) >= 0) {
+            return false;
+        }
+        if (end == elements.length) {
+            if (vacant != null) {
+                compact();
+            }
+            if (end == elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(4, end + (end >>> 1)));
+            }
+        }
+        if (size + 1 > positions.length - (positions.length >>> 2)) {
+            rehash(Math.max(8, positions.length << 1));
+        }
+        elements[end] = value;
+        insert(value, end++);
+        size++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int slot = find(value);
+        if (slot < 0) {
+            return false;
+        }
+        int index = positions[slot] - 1;
+        delete(slot);
+        size--;
+        if (size == 0) {
+            clear();
+        } else if (index == end - 1 && vacant == null) {
+            end--;
+        } else {
+            if (vacant == null) {
+                vacant = new long[(elements.length + 63) >>> 6];
+            }
+            vacant[index >>> 6] |= 1L << index;
+            if (end - size > size) {
+                compact();
+            }
+        }
+        return true;
+    }
+
+    public boolean contains(int value) {
+        return find(value) >= 0;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        if (vacant == null) {
+            return elements[index];
+        }
+        int remaining = index;
+        for (int w = 0; ; w++) {
+            long live = ~vacant[w];
+            if (w == (end - 1) >>> 6 && (end & 63) != 0) {
+                live &= (1L << end) - 1;
+            }
+            int count = Long.bitCount(live);
+            if (remaining < count) {
+                for (int i = 0; i < remaining; i++) {
+                    live &= live - 1;
+                }
+                return elements[(w << 6) + Long.numberOfTrailingZeros(live)];
+            }
+            remaining -= count;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        elements = EMPTY;
+        positions = EMPTY;
+        vacant = null;
+        end = 0;
+        size = 0;
+    }
+
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < end; i++) {
+            if (isLive(i)) {
+                action.accept(elements[i]);
+            }
+        }
+    }
+
+    public int[] toArray() {
+        if (vacant == null) {
+            return Arrays.copyOf(elements, size);
+        }
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < end; i++) {
+            if (isLive(i)) {
+                result[n++] = elements[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Read-only list view that boxes on access.
+     */
+    public List<Integer> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Integer get(int index) {
+                return IntSet.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Integer && IntSet.this.contains((Integer) o);
+            }
+
+            @Override
+            public Iterator<Integer> iterator() {
+                return new Iterator<>() {
+                    private int next = skipVacant(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < end;
+                    }
+
+                    @Override
+                    public Integer next() {
+                        if (next >= end) {
+                            throw new NoSuchElementException();
+                        }
+                        int value = elements[next];
+                        next = skipVacant(next + 1);
+                        return value;
+                    }
+                };
+            }
+        };
+    }
+
+    private boolean isLive(int index) {
+        return vacant == null || (vacant[index >>> 6] & (1L << index)) == 0;
+    }
+
+    private int skipVacant(int index) {
+        while (index < end && !isLive(index)) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Moves the live elements to the front, keeping their order, and rebuilds the table.
+     */
+    private void compact() {
+        int n = 0;
+        for (int i = 0; i < end; i++) {
+            if (isLive(i)) {
+                elements[n++] = elements[i];
+            }
+        }
+        vacant = null;
+        end = n;
+        rehash(positions.length);
+    }
+
+    /**
+     * Returns the table slot holding {@code value}, or -1. Slots hold a position plus one,
+     * so zero marks an empty slot.
+     */
+    private int find(int value) {
+        if (size == 0) {
+            return -1;
+        }
+        int mask = positions.length - 1;
+        int slot = slot(value, mask);
+        while (positions[slot] != 0) {
+            if (elements[positions[slot] - 1] == value) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(int value, int index) {
+        int mask = positions.length - 1;
+        int slot = slot(value, mask);
+        while (positions[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        positions[slot] = index + 1;
+    }
+
+    private void delete(int slot) {
+        int mask = positions.length - 1;
+        int hole = slot;
+        int next = (slot + 1) & mask;
+        while (positions[next] != 0) {
+            int home = slot(elements[positions[next] - 1], mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                positions[hole] = positions[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        positions[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        positions = new int[capacity];
+        for (int i = 0; i < end; i++) {
+            if (isLive(i)) {
+                insert(elements[i], i);
+            }
+        }
+    }
+
+    private static int slot(int value, int mask) {
+        int h = value * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,37 @@
+package com.yandex.app.util;
+
+/**
+ * A key bound to the current thread until its binding is closed, so request-scoped
+ * values reach the service layer without being passed through every call. Bindings
+ * nest: closing one restores whatever was bound before it.
+ */
+public final class ThreadScope {
+    private final ThreadLocal<String> current = new ThreadLocal<>();
+
+    public Binding enter(String value) {
+        Binding binding = new Binding(current.get());
+        current.set(value);
+        return binding;
+    }
+
+    public String current() {
+        return current.get();
+    }
+
+    public final class Binding implements AutoCloseable {
+        private final String previous;
+
+        private Binding(String previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+}
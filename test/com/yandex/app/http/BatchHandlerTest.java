@@ -0,0 +1,118 @@
+package com.yandex.app.http;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.yandex.app.model.Epic;
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import com.yandex.app.service.InMemoryTaskManager;
+import com.yandex.app.service.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchHandlerTest {
+    private TaskManager taskManager;
+    private HttpTaskServer taskServer;
+    private HttpClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        taskManager = new InMemoryTaskManager();
+        taskServer = new HttpTaskServer(taskManager);
+        client = HttpClient.newHttpClient();
+        taskServer.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskServer.stop();
+    }
+
+    @Test
+    public void testPostBatch() throws IOException, InterruptedException {
+        String json = "{\"tasks\": [{\"name\": \"Task\", \"description\": \"Desc\", \"status\": \"NEW\","
+                + " \"duration\": 30, \"startTime\": \"2030-01-01T10:00:00\"}],"
+                + " \"epics\": [{\"id\": 900001, \"name\": \"Epic\", \"description\": \"Desc\"}],"
+                + " \"subtasks\": [{\"epicId\": 900001, \"name\": \"Sub\", \"description\": \"Desc\", \"status\": \"DONE\","
+                + " \"duration\": 15, \"startTime\": \"2030-01-01T12:00:00\"}]}";
+        HttpResponse<String> response = post(json);
+
+        assertEquals(201, response.statusCode(), "Status code should be 201");
+        assertEquals(1, taskManager.getAllTasks().size(), "Task should be added");
+        Epic epic = taskManager.getEpic(900001).orElseThrow();
+        assertEquals(Status.DONE, epic.getStatus(), "Epic status should be computed from the batch");
+        assertEquals(Duration.ofMinutes(15), epic.getDuration(), "Epic duration should be computed from the batch");
+    }
+
+    @Test
+    public void testPostBatchMixingGeneratedAndExplicitIds() throws IOException, InterruptedException {
+        String json = "{\"tasks\": [{\"name\": \"Generated\", \"status\": \"NEW\"},"
+                + " {\"id\": 1, \"name\": \"One\", \"status\": \"NEW\"},"
+                + " {\"id\": 2, \"name\": \"Two\", \"status\": \"NEW\"}]}";
+        HttpResponse<String> response = post(json);
+
+        assertEquals(201, response.statusCode(), "Status code should be 201");
+        assertEquals(3, taskManager.getAllTasks().size(), "No task in the batch should be overwritten");
+        assertEquals("One", taskManager.getTask(1).orElseThrow().getName(), "Explicit id should be kept");
+    }
+
+    @Test
+    public void testPostOverlappingBatch() throws IOException, InterruptedException {
+        taskManager.addTask(new Task("Task", "Desc", Status.NEW, Duration.ofMinutes(60), LocalDateTime.of(2030, 1, 1, 10, 0)));
+        String json = "{\"tasks\": [{\"name\": \"Clash\", \"description\": \"Desc\", \"status\": \"NEW\","
+                + " \"duration\": 30, \"startTime\": \"2030-01-01T10:30:00\"}]}";
+        HttpResponse<String> response = post(json);
+
+        assertEquals(406, response.statusCode(), "Status code should be 406");
+        assertEquals(1, taskManager.getAllTasks().size(), "Overlapping batch should be rejected");
+    }
+
+    @Test
+    public void testPostBatchRejectsMistypedTasks() throws IOException, InterruptedException {
+        String json = "{\"tasks\": [{\"type\": \"SUBTASK\", \"epicId\": 1, \"name\": \"Sub\", \"status\": \"NEW\"}]}";
+        HttpResponse<String> response = post(json);
+
+        assertEquals(400, response.statusCode(), "Subtask in the tasks list should be rejected");
+        assertTrue(taskManager.getAllTasks().isEmpty(), "Nothing should be stored");
+        assertTrue(taskManager.getAllSubtasks().isEmpty(), "Nothing should be stored");
+    }
+
+    @Test
+    public void testBatchErrorMessageIsEscaped() throws IOException, InterruptedException {
+        taskServer.stop();
+        taskManager = new InMemoryTaskManager() {
+            @Override
+            public void bulkLoad(Collection<? extends Task> items) {
+                throw new IllegalArgumentException("Bad \"name\" \\ value");
+            }
+        };
+        taskServer = new HttpTaskServer(taskManager);
+        taskServer.start();
+
+        HttpResponse<String> response = post("{\"tasks\": [{\"name\": \"A\", \"status\": \"NEW\"}]}");
+
+        assertEquals(400, response.statusCode(), "Rejected batch should be a bad request");
+        JsonObject body = JsonParser.parseString(response.body()).getAsJsonObject();
+        assertEquals("Bad \"name\" \\ value", body.get("error").getAsString(), "Error should survive as valid JSON");
+    }
+
+    private HttpResponse<String> post(String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/batch"))
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -79,6 +79,43 @@ public class EpicsHandlerTest {
         assertEquals("Test Epic", retrieved.getName(), "Epic name should match");
     }
 
+    @Test
+    public void testGetEpicByIdFollowsSubtaskChanges() throws IOException, InterruptedException {
+        int id = taskManager.addEpic(new Epic("Test Epic", "Description"));
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/epics/" + id))
+                .GET()
+                .build();
+        Epic before = gson.fromJson(client.send(request, HttpResponse.BodyHandlers.ofString()).body(), Epic.class);
+        assertEquals(Status.NEW, before.getStatus(), "Empty epic should be NEW");
+
+        taskManager.addSubtask(new Subtask(id, "Subtask", "Description", Status.DONE, null, null));
+
+        Epic after = gson.fromJson(client.send(request, HttpResponse.BodyHandlers.ofString()).body(), Epic.class);
+        assertEquals(Status.DONE, after.getStatus(), "Cached epic should be replaced after its status is recomputed");
+        assertEquals(1, after.getSubtaskIds().size(), "Cached epic should list the new subtask");
+        assertEquals(2, taskServer.getJsonCache().getMisses(), "Only the recompute should cause a second miss");
+    }
+
+    @Test
+    public void testConditionalGetEpicById() throws IOException, InterruptedException {
+        int id = taskManager.addEpic(new Epic("Test Epic", "Description"));
+        URI uri = URI.create("http://localhost:8080/epics/" + id);
+        String etag = client.send(HttpRequest.newBuilder().uri(uri).GET().build(), HttpResponse.BodyHandlers.ofString())
+                .headers().firstValue("ETag").orElseThrow();
+
+        HttpRequest conditional = HttpRequest.newBuilder().uri(uri).header("If-None-Match", "W/\"x\", " + etag).GET().build();
+        HttpResponse<String> unchanged = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+        assertEquals(304, unchanged.statusCode(), "Any listed tag should match");
+        assertEquals(1, taskServer.getJsonCache().getMisses() + taskServer.getJsonCache().getHits(),
+                "Not modified response should not encode the epic");
+
+        taskManager.addSubtask(new Subtask(id, "Subtask", "Description", Status.IN_PROGRESS, null, null));
+        HttpResponse<String> changed = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, changed.statusCode(), "Recomputed epic should be sent again");
+        assertEquals(Status.IN_PROGRESS, gson.fromJson(changed.body(), Epic.class).getStatus(), "Body should be current");
+    }
+
     @Test
     public void testGetEpicByIdNotFound() throws IOException, InterruptedException {
         HttpRequest request = HttpRequest.newBuilder()
@@ -138,6 +175,26 @@ public class EpicsHandlerTest {
         assertEquals("Test Epic", taskManager.getAllEpics().get(0).getName(), "Epic name should match");
     }
 
+    @Test
+    public void testAddEpicIgnoresForeignSubtaskIds() throws IOException, InterruptedException {
+        int ownerId = taskManager.addEpic(new Epic("Owner", "Description"));
+        int subtaskId = taskManager.addSubtask(new Subtask(ownerId, "Sub", "Description", Status.DONE,
+                Duration.ofMinutes(30), LocalDateTime.of(2030, 1, 1, 10, 0)));
+        Epic claimant = new Epic("Claimant", "Description");
+        claimant.addSubtaskId(subtaskId);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/epics"))
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(claimant)))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), "Status code should be 201");
+
+        Epic stored = taskManager.getAllEpics().stream().filter(e -> e.getId() != ownerId).findFirst().orElseThrow();
+        assertTrue(stored.getSubtaskIds().isEmpty(), "Another epic's subtask should not be linked");
+        assertEquals(Status.NEW, stored.getStatus(), "Status should not come from another epic's subtask");
+    }
+
     @Test
     public void testDeleteEpic() throws IOException, InterruptedException {
         Epic epic = new Epic("Test Epic", "Description");
@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import com.yandex.app.http.util.GsonUtils;
 import com.yandex.app.model.Task;
 import com.yandex.app.model.Status;
+import com.yandex.app.service.ConcurrentTaskManager;
 import com.yandex.app.service.InMemoryTaskManager;
 import com.yandex.app.service.TaskManager;
 import org.junit.jupiter.api.AfterEach;
@@ -79,4 +80,38 @@ public class HistoryHandlerTest {
         Task[] history = gson.fromJson(response.body(), Task[].class);
         assertEquals(0, history.length, "History should be empty");
     }
+
+    @Test
+    public void testHistoryIsPerSession() throws IOException, InterruptedException {
+        TaskManager sessionManager = new ConcurrentTaskManager();
+        int id1 = sessionManager.addTask(new Task("Task 1", "Description", Status.NEW, null, null));
+        int id2 = sessionManager.addTask(new Task("Task 2", "Description", Status.NEW, null, null));
+        HttpTaskServer server = new HttpTaskServer(sessionManager, HttpServerConfig.defaults().withPort(0));
+        server.start();
+        try {
+            String base = "http://localhost:" + server.getPort();
+            client.send(HttpRequest.newBuilder(URI.create(base + "/tasks/" + id1)).header("X-Session-Id", "alice").GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            client.send(HttpRequest.newBuilder(URI.create(base + "/tasks/" + id2 + "?session=bob")).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            HttpResponse<String> alice = client.send(HttpRequest.newBuilder(URI.create(base + "/history"))
+                    .header("X-Session-Id", "alice").GET().build(), HttpResponse.BodyHandlers.ofString());
+            Task[] aliceHistory = gson.fromJson(alice.body(), Task[].class);
+            assertEquals(1, aliceHistory.length, "Alice should see only her own views");
+            assertEquals("Task 1", aliceHistory[0].getName(), "Alice viewed Task 1");
+
+            HttpResponse<String> bob = client.send(HttpRequest.newBuilder(URI.create(base + "/history?session=bob"))
+                    .GET().build(), HttpResponse.BodyHandlers.ofString());
+            Task[] bobHistory = gson.fromJson(bob.body(), Task[].class);
+            assertEquals(1, bobHistory.length, "Bob should see only his own views");
+            assertEquals("Task 2", bobHistory[0].getName(), "Bob viewed Task 2");
+
+            HttpResponse<String> anonymous = client.send(HttpRequest.newBuilder(URI.create(base + "/history"))
+                    .GET().build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(0, gson.fromJson(anonymous.body(), Task[].class).length, "Anonymous history should be separate");
+        } finally {
+            server.stop();
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package com.yandex.app.http;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import com.yandex.app.service.ConcurrentTaskManager;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Local load test: for every executor type, runs closed-loop clients at increasing
+ * concurrency against GET /tasks and GET /tasks/{id} and prints p50/p99 latency.
+ * Run with {@code java ... com.yandex.app.http.HttpLoadHarness [requestsPerClient]}.
+ */
+public class HttpLoadHarness {
+    private static final int[] CONCURRENCY = {1, 8, 32, 128};
+    private static final int TASKS = 200;
+
+    public static void main(String[] args) throws Exception {
+        int requestsPerClient = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        System.out.printf("%-14s %6s %10s %10s %10s%n", "executor", "conc", "p50 ms", "p99 ms", "req/s");
+        for (ExecutorType type : ExecutorType.values()) {
+            ConcurrentTaskManager manager = new ConcurrentTaskManager();
+            LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+            for (int i = 0; i < TASKS; i++) {
+                manager.addTask(new Task("Task " + i, "Desc", Status.NEW, Duration.ofMinutes(10), start.plusHours(i)));
+            }
+            int[] ids = manager.getAllTasks().stream().mapToInt(Task::getId).toArray();
+            HttpServerConfig config = HttpServerConfig.defaults().withPort(0)
+                    .withExecutor(type, Runtime.getRuntime().availableProcessors() * 2);
+            HttpTaskServer server = new HttpTaskServer(manager, config);
+            server.start();
+            try {
+                for (int concurrency : CONCURRENCY) {
+                    run(type, concurrency, requestsPerClient, server.getPort(), ids);
+                }
+            } finally {
+                server.stop();
+            }
+        }
+    }
+
+    private static void run(ExecutorType type, int concurrency, int requestsPerClient, int port, int[] ids)
+            throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(4)).build();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> results = new ArrayList<>();
+        long begin = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            int offset = c;
+            results.add(clients.submit(() -> {
+                long[] latencies = new long[requestsPerClient];
+                for (int i = 0; i < requestsPerClient; i++) {
+                    String path = i % 2 == 0 ? "/tasks" : "/tasks/" + ids[(offset + i) % ids.length];
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+                    long sent = System.nanoTime();
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                    latencies[i] = System.nanoTime() - sent;
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[concurrency * requestsPerClient];
+        int position = 0;
+        for (Future<long[]> result : results) {
+            long[] latencies = result.get();
+            System.arraycopy(latencies, 0, all, position, latencies.length);
+            position += latencies.length;
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        clients.shutdown();
+        Arrays.sort(all);
+        System.out.printf("%-14s %6d %10.2f %10.2f %10.0f%n", type, concurrency,
+                percentile(all, 0.50), percentile(all, 0.99), all.length / seconds);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,115 @@
+package com.yandex.app.http;
+
+import com.yandex.app.model.Task;
+import com.yandex.app.service.ConcurrentTaskManager;
+import com.yandex.app.service.InMemoryTaskManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpTaskServerTest {
+    @Test
+    public void testStopDrainsInFlightExchanges() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        ConcurrentTaskManager slowManager = new ConcurrentTaskManager() {
+            @Override
+            public Collection<Task> tasksView() {
+                entered.countDown();
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.tasksView();
+            }
+        };
+        HttpTaskServer server = new HttpTaskServer(slowManager, HttpServerConfig.defaults().withPort(0));
+        server.start();
+
+        HttpClient client = HttpClient.newHttpClient();
+        CompletableFuture<HttpResponse<String>> inFlight = client.sendAsync(get(server, "/tasks"),
+                HttpResponse.BodyHandlers.ofString());
+        assertTrue(entered.await(5, TimeUnit.SECONDS), "Request should reach the handler");
+        server.stop();
+
+        assertEquals(200, inFlight.get(5, TimeUnit.SECONDS).statusCode(), "In-flight request should complete");
+    }
+
+    @Test
+    public void testExecutorTypesServeRequests() throws IOException, InterruptedException {
+        for (ExecutorType type : ExecutorType.values()) {
+            HttpServerConfig config = HttpServerConfig.defaults().withPort(0).withExecutor(type, 4);
+            HttpTaskServer server = new HttpTaskServer(new ConcurrentTaskManager(), config);
+            server.start();
+            try {
+                HttpResponse<String> response = HttpClient.newHttpClient().send(get(server, "/tasks"),
+                        HttpResponse.BodyHandlers.ofString());
+                assertEquals(200, response.statusCode(), type + " executor should serve requests");
+            } finally {
+                server.stop();
+            }
+        }
+    }
+
+    @Test
+    public void testUnsynchronizedManagerIsServedSerially() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        InMemoryTaskManager plainManager = new InMemoryTaskManager() {
+            @Override
+            public Collection<Task> tasksView() {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+                return super.tasksView();
+            }
+        };
+        HttpServerConfig config = HttpServerConfig.defaults().withPort(0).withExecutor(ExecutorType.FIXED, 4);
+        HttpTaskServer server = new HttpTaskServer(plainManager, config);
+        server.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                responses.add(client.sendAsync(get(server, "/tasks"), HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.get(5, TimeUnit.SECONDS).statusCode(), "Every request should be served");
+            }
+        } finally {
+            server.stop();
+        }
+        assertEquals(1, maxActive.get(), "A manager without locking should never be used by two requests at once");
+    }
+
+    @Test
+    public void testInvalidConfig() {
+        assertThrows(IllegalArgumentException.class, () -> HttpServerConfig.defaults().withPort(70000), "Port out of range");
+        assertThrows(IllegalArgumentException.class, () -> HttpServerConfig.defaults().withExecutor(ExecutorType.FIXED, 0),
+                "Thread count must be positive");
+        assertThrows(IllegalArgumentException.class, () -> HttpServerConfig.defaults().withDrainTimeout(Duration.ofSeconds(-1)),
+                "Drain timeout must not be negative");
+    }
+
+    private static HttpRequest get(HttpTaskServer server, String path) {
+        return HttpRequest.newBuilder().uri(URI.create("http://localhost:" + server.getPort() + path)).GET().build();
+    }
+}
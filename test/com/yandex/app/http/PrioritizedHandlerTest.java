@@ -2,6 +2,8 @@ package com.yandex.app.http;
 
 import com.google.gson.Gson;
 import com.yandex.app.http.util.GsonUtils;
+import com.yandex.app.model.Epic;
+import com.yandex.app.model.Subtask;
 import com.yandex.app.model.Task;
 import com.yandex.app.model.Status;
 import com.yandex.app.service.InMemoryTaskManager;
@@ -77,4 +79,53 @@ public class PrioritizedHandlerTest {
         Task[] tasks = gson.fromJson(response.body(), Task[].class);
         assertEquals(0, tasks.length, "Prioritized tasks should be empty");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetPrioritizedTasksInWindow() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < 6; i++) {
+            taskManager.addTask(new Task("Task " + i, "Description", Status.NEW, Duration.ofMinutes(30), start.plusHours(i)));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/prioritized?from=2030-01-01T10:00:00&to=2030-01-01T14:00:00&limit=2"))
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Status code should be 200");
+
+        Task[] tasks = gson.fromJson(response.body(), Task[].class);
+        assertEquals(2, tasks.length, "Limit should cap the window");
+        assertEquals("Task 1", tasks[0].getName(), "Window should start at from");
+        assertEquals("Task 2", tasks[1].getName(), "Tasks should be ordered by start time");
+        assertTrue(response.headers().firstValue("X-Next-Cursor").isPresent(), "Truncated window should carry a cursor");
+    }
+
+    @Test
+    public void testConditionalGet() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 9, 0);
+        taskManager.addTask(new Task("Task", "Description", Status.NEW, Duration.ofMinutes(30), start));
+        URI uri = URI.create("http://localhost:8080/prioritized");
+
+        HttpResponse<String> first = client.send(HttpRequest.newBuilder().uri(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        HttpRequest conditional = HttpRequest.newBuilder().uri(uri).header("If-None-Match", etag).GET().build();
+
+        HttpResponse<String> unchanged = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+        assertEquals(304, unchanged.statusCode(), "Unchanged listing should not be sent again");
+        assertEquals("", unchanged.body(), "Not modified response should have no body");
+        assertEquals(etag, unchanged.headers().firstValue("ETag").orElse(null), "Tag should be repeated");
+
+        int epicId = taskManager.addEpic(new Epic("Epic", "Description"));
+        assertEquals(304, client.send(conditional, HttpResponse.BodyHandlers.ofString()).statusCode(),
+                "Epics are not part of the prioritized listing");
+
+        taskManager.addSubtask(new Subtask(epicId, "Subtask", "Description", Status.NEW, Duration.ofMinutes(30), start.plusHours(1)));
+        HttpResponse<String> changed = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, changed.statusCode(), "New subtask should change the listing");
+        assertNotEquals(etag, changed.headers().firstValue("ETag").orElse(null), "Changed listing should get a new tag");
+        assertEquals(2, gson.fromJson(changed.body(), Task[].class).length, "Both items should be listed");
+    }
+}
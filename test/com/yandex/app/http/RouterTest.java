@@ -0,0 +1,100 @@
+package com.yandex.app.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouterTest {
+    private HttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Router router = new Router()
+                .get("/items", (exchange, params) -> reply(exchange, "list"))
+                .post("/items", (exchange, params) -> reply(exchange, "create"))
+                .get("/items/{id}", (exchange, params) -> reply(exchange, "item " + params[0]))
+                .get("/items/{id}/parts/{part}", (exchange, params) -> reply(exchange, Arrays.toString(params)))
+                .get("/items/first", (exchange, params) -> reply(exchange, "first"));
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", router);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testDispatchesByTemplate() throws IOException, InterruptedException {
+        assertEquals("list", send("GET", "/items").body(), "Literal route should match");
+        assertEquals("create", send("POST", "/items").body(), "Method should select the route");
+        assertEquals("item 42", send("GET", "/items/42").body(), "Int param should be parsed");
+        assertEquals("item 7", send("GET", "/items/7/").body(), "Trailing slash should be ignored");
+        assertEquals("[3, 9]", send("GET", "/items/3/parts/9").body(), "Params should be collected in order");
+        assertEquals("first", send("GET", "/items/first").body(), "Literal should win over a param");
+    }
+
+    @Test
+    public void testNotFoundAndMethodNotAllowed() throws IOException, InterruptedException {
+        assertEquals(404, send("GET", "/items/abc").statusCode(), "Non-numeric param should not match");
+        assertEquals(404, send("GET", "/items/99999999999").statusCode(), "Out of range param should not match");
+        assertEquals(404, send("GET", "/items/1/unknown").statusCode(), "Unknown path should be 404");
+        assertEquals(404, send("GET", "/").statusCode(), "Root without a route should be 404");
+
+        HttpResponse<String> response = send("DELETE", "/items");
+        assertEquals(405, response.statusCode(), "Known path with unknown method should be 405");
+        assertEquals("GET, POST", response.headers().firstValue("Allow").orElse(""), "Allow header should list methods");
+    }
+
+    @Test
+    public void testRouteErrorsBecome500() throws IOException, InterruptedException {
+        server.stop(0);
+        Router router = new Router().get("/boom", (exchange, params) -> {
+            throw new IllegalStateException("secret \"detail\"");
+        });
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/", router);
+        server.start();
+
+        HttpResponse<String> response = send("GET", "/boom");
+        assertEquals(500, response.statusCode(), "Route failure should be a server error");
+        assertEquals("{\"error\": \"Internal server error\"}", response.body(), "Exception text should not reach the client");
+    }
+
+    @Test
+    public void testDuplicateRouteIsRejected() {
+        Router router = new Router().get("/items/{id}", (exchange, params) -> { });
+        assertThrows(IllegalArgumentException.class, () -> router.get("/items/{other}", (exchange, params) -> { }),
+                "Same method and shape should not be registered twice");
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + server.getAddress().getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void reply(HttpExchange exchange, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+}
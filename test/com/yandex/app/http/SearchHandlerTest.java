@@ -0,0 +1,72 @@
+package com.yandex.app.http;
+
+import com.google.gson.Gson;
+import com.yandex.app.http.util.GsonUtils;
+import com.yandex.app.model.Epic;
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import com.yandex.app.service.InMemoryTaskManager;
+import com.yandex.app.service.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchHandlerTest {
+    private TaskManager taskManager;
+    private HttpTaskServer taskServer;
+    private Gson gson;
+    private HttpClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        taskManager = new InMemoryTaskManager();
+        taskServer = new HttpTaskServer(taskManager);
+        gson = GsonUtils.getGson();
+        client = HttpClient.newHttpClient();
+        taskServer.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskServer.stop();
+    }
+
+    @Test
+    public void testSearch() throws IOException, InterruptedException {
+        taskManager.addTask(new Task("Fix login bug", "Description", Status.NEW, null, null));
+        taskManager.addEpic(new Epic("Login redesign", "Description"));
+        taskManager.addTask(new Task("Write docs", "Description", Status.NEW, null, null));
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/search?q=log*%20OR%20docs&limit=2"))
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Status code should be 200");
+
+        Task[] tasks = gson.fromJson(response.body(), Task[].class);
+        assertEquals(2, tasks.length, "Limit should cap the results");
+        assertEquals("Fix login bug", tasks[0].getName(), "Results should be in id order");
+        assertEquals("Login redesign", tasks[1].getName(), "Epics should be searchable");
+    }
+
+    @Test
+    public void testSearchWithoutQuery() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/search"))
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Missing query should be rejected");
+    }
+}
@@ -0,0 +1,64 @@
+package com.yandex.app.http;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.yandex.app.model.Epic;
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Subtask;
+import com.yandex.app.model.Task;
+import com.yandex.app.service.InMemoryTaskManager;
+import com.yandex.app.service.TaskManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatsHandlerTest {
+    private TaskManager taskManager;
+    private HttpTaskServer taskServer;
+    private HttpClient client;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        taskManager = new InMemoryTaskManager();
+        taskServer = new HttpTaskServer(taskManager);
+        client = HttpClient.newHttpClient();
+        taskServer.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskServer.stop();
+    }
+
+    @Test
+    public void testGetStats() throws IOException, InterruptedException {
+        taskManager.addTask(new Task("Task 1", "Description", Status.NEW, null, null));
+        taskManager.addTask(new Task("Task 2", "Description", Status.DONE, null, null));
+        int epicId = taskManager.addEpic(new Epic("Epic", "Description"));
+        taskManager.addSubtask(new Subtask(epicId, "Subtask", "Description", Status.DONE, null, null));
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/stats"))
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Status code should be 200");
+
+        JsonObject stats = JsonParser.parseString(response.body()).getAsJsonObject();
+        JsonObject tasks = stats.getAsJsonObject("tasks");
+        assertEquals(1, tasks.get("NEW").getAsInt(), "One task should be NEW");
+        assertEquals(1, tasks.get("DONE").getAsInt(), "One task should be DONE");
+        assertEquals(2, tasks.get("total").getAsInt(), "Total should count every task");
+        assertEquals(1, stats.getAsJsonObject("epics").get("DONE").getAsInt(), "Epic status should follow its subtasks");
+        assertEquals(1, stats.getAsJsonObject("subtasks").get("total").getAsInt(), "Subtasks should be counted");
+    }
+}
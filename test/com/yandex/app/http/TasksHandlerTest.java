@@ -15,6 +15,7 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDateTime;
 
@@ -78,6 +79,58 @@ public class TasksHandlerTest {
         assertEquals("Test Task", retrieved.getName(), "Task name should match");
     }
 
+    @Test
+    public void testGetTaskByIdIsCachedUntilUpdated() throws IOException, InterruptedException {
+        Task task = new Task("Test Task", "Description", Status.NEW, null, null);
+        int id = taskManager.addTask(task);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/" + id))
+                .GET()
+                .build();
+
+        String first = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        String second = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        assertEquals(first, second, "Cached response should match the encoded one");
+        assertEquals(1, taskServer.getJsonCache().getHits(), "Second read should be served from the cache");
+        assertEquals(first.getBytes(StandardCharsets.UTF_8).length, taskServer.getJsonCache().getBytesSaved(),
+                "Saved bytes should count the cached response");
+
+        task.setStatus(Status.DONE);
+        taskManager.updateTask(task);
+        Task updated = gson.fromJson(client.send(request, HttpResponse.BodyHandlers.ofString()).body(), Task.class);
+        assertEquals(Status.DONE, updated.getStatus(), "Update should invalidate the cached response");
+        assertEquals(2, taskServer.getJsonCache().getMisses(), "Read after the update should be a miss");
+    }
+
+    @Test
+    public void testConditionalGetAllTasks() throws IOException, InterruptedException {
+        int id = taskManager.addTask(new Task("Test Task", "Description", Status.NEW, null, null));
+        URI uri = URI.create("http://localhost:8080/tasks");
+        String etag = client.send(HttpRequest.newBuilder().uri(uri).GET().build(), HttpResponse.BodyHandlers.ofString())
+                .headers().firstValue("ETag").orElseThrow();
+        HttpRequest conditional = HttpRequest.newBuilder().uri(uri).header("If-None-Match", etag).GET().build();
+
+        assertEquals(304, client.send(conditional, HttpResponse.BodyHandlers.ofString()).statusCode(),
+                "Unchanged listing should not be sent again");
+
+        taskManager.deleteTaskById(id);
+        HttpResponse<String> changed = client.send(conditional, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, changed.statusCode(), "Deletion should change the listing");
+        assertEquals(0, gson.fromJson(changed.body(), Task[].class).length, "Deleted task should be gone");
+    }
+
+    @Test
+    public void testAddTaskRejectsOtherTypes() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"type\": \"EPIC\", \"name\": \"Epic\", \"description\": \"Desc\"}"))
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Epic body should not be accepted as a task");
+        assertTrue(taskManager.getAllTasks().isEmpty(), "Nothing should be stored");
+    }
+
     @Test
     public void testGetTaskByIdNotFound() throws IOException, InterruptedException {
         HttpRequest request = HttpRequest.newBuilder()
@@ -138,4 +191,60 @@ public class TasksHandlerTest {
 
         assertEquals(0, taskManager.getAllTasks().size(), "Task count should be 0");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetAllTasksIsStreamed() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        for (int i = 0; i < 2000; i++) {
+            taskManager.addTask(new Task("Task " + i, "Описание", Status.NEW, Duration.ofMinutes(30), start.plusHours(i)));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks"))
+                .GET()
+                .build();
+
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Status code should be 200");
+        assertTrue(response.headers().firstValue("Content-Length").isEmpty(), "List should be sent chunked");
+
+        Task[] tasks = gson.fromJson(response.body(), Task[].class);
+        assertEquals(2000, tasks.length, "Should return every task");
+        assertEquals("Описание", tasks[0].getDescription(), "Body should be UTF-8");
+    }
+
+    @Test
+    public void testGetTasksWithQueryParameters() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            taskManager.addTask(new Task("Task " + i, "Desc", i % 2 == 0 ? Status.NEW : Status.DONE,
+                    Duration.ofMinutes(30), start.plusHours(4 - i)));
+        }
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?status=new&sort=startTime&limit=2"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), "Status code should be 200");
+        Task[] page = gson.fromJson(response.body(), Task[].class);
+        assertEquals(2, page.length, "Limit should cap the page");
+        assertEquals("Task 4", page[0].getName(), "Earliest matching task should come first");
+        assertEquals("Task 2", page[1].getName(), "Second earliest matching task should follow");
+        String cursor = response.headers().firstValue("X-Next-Cursor").orElseThrow();
+
+        response = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?status=new&sort=startTime&limit=2&cursor=" + cursor))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        page = gson.fromJson(response.body(), Task[].class);
+        assertEquals(1, page.length, "Last page should hold the remainder");
+        assertEquals("Task 0", page[0].getName(), "Cursor should continue after the first page");
+        assertTrue(response.headers().firstValue("X-Next-Cursor").isEmpty(), "Last page should have no cursor");
+
+        response = client.send(HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks?limit=0"))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Invalid parameters should be rejected");
+    }
+}
@@ -0,0 +1,77 @@
+package com.yandex.app.http;
+
+import com.google.gson.Gson;
+import com.yandex.app.http.util.GsonUtils;
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import com.yandex.app.service.StorageOptions;
+import com.yandex.app.service.TenantRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TenantHandlerTest {
+    @TempDir
+    File tempDir;
+    private TenantRegistry registry;
+    private HttpTaskServer taskServer;
+    private Gson gson;
+    private HttpClient client;
+    private String base;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        registry = new TenantRegistry(tempDir, StorageOptions.defaults().withJournal(true),
+                TenantRegistry.DEFAULT_MEMORY_BUDGET, TenantRegistry.DEFAULT_IDLE_TIMEOUT);
+        taskServer = new HttpTaskServer(registry, HttpServerConfig.defaults().withPort(0));
+        taskServer.start();
+        gson = GsonUtils.getGson();
+        client = HttpClient.newHttpClient();
+        base = "http://localhost:" + taskServer.getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskServer.stop();
+        registry.close();
+    }
+
+    @Test
+    public void testPathPrefixAndHeaderSelectTheTenant() throws IOException, InterruptedException {
+        String body = gson.toJson(new Task("Team A task", "Description", Status.NEW, null, null));
+        HttpResponse<String> created = client.send(HttpRequest.newBuilder(URI.create(base + "/tenants/team-a/tasks"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, created.statusCode(), "Task should be created in the prefixed tenant");
+
+        HttpResponse<String> byHeader = client.send(HttpRequest.newBuilder(URI.create(base + "/tasks"))
+                .header("X-Tenant-Id", "team-a").GET().build(), HttpResponse.BodyHandlers.ofString());
+        Task[] teamA = gson.fromJson(byHeader.body(), Task[].class);
+        assertEquals(1, teamA.length, "The header should select the same tenant as the prefix");
+        assertEquals("Team A task", teamA[0].getName(), "Team A should see its task");
+
+        HttpResponse<String> other = client.send(HttpRequest.newBuilder(URI.create(base + "/tenants/team-b/tasks"))
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(0, gson.fromJson(other.body(), Task[].class).length, "Team B should not see team A's tasks");
+
+        HttpResponse<String> fallback = client.send(HttpRequest.newBuilder(URI.create(base + "/tasks"))
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(0, gson.fromJson(fallback.body(), Task[].class).length, "Requests without a tenant use the default one");
+    }
+
+    @Test
+    public void testInvalidTenantIsRejected() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(base + "/tasks"))
+                .header("X-Tenant-Id", "no.dots").GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "A key that cannot name a tenant should get 400");
+    }
+}
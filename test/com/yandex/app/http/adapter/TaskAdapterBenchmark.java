@@ -0,0 +1,83 @@
+package com.yandex.app.http.adapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.yandex.app.http.util.GsonUtils;
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Subtask;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming task adapters with the reflective Gson setup they replaced.
+ * Run with {@code -prof gc} to see bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskAdapterBenchmark {
+    private Gson reflective;
+    private Gson streaming;
+    private Subtask subtask;
+    private String reflectiveJson;
+    private String streamingJson;
+
+    @Setup
+    public void setUp() {
+        reflective = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new ReflectiveDateAdapter())
+                .registerTypeAdapter(Duration.class, new DurationAdapter())
+                .create();
+        streaming = GsonUtils.getGson();
+        subtask = new Subtask(7, 42, "Write report", "Quarterly numbers", Status.IN_PROGRESS,
+                Duration.ofMinutes(90), LocalDateTime.of(2025, 6, 11, 10, 30, 15));
+        reflectiveJson = reflective.toJson(subtask);
+        streamingJson = streaming.toJson(subtask);
+    }
+
+    @Benchmark
+    public String serializeReflective() {
+        return reflective.toJson(subtask);
+    }
+
+    @Benchmark
+    public String serializeStreaming() {
+        return streaming.toJson(subtask);
+    }
+
+    @Benchmark
+    public Subtask deserializeReflective() {
+        return reflective.fromJson(reflectiveJson, Subtask.class);
+    }
+
+    @Benchmark
+    public Subtask deserializeStreaming() {
+        return streaming.fromJson(streamingJson, Subtask.class);
+    }
+
+    /**
+     * The previous LocalDateTime encoding, through {@code DateTimeFormatter} in both directions.
+     */
+    static class ReflectiveDateAdapter extends TypeAdapter<LocalDateTime> {
+        @Override
+        public void write(JsonWriter out, LocalDateTime value) throws IOException {
+            out.value(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+
+        @Override
+        public LocalDateTime read(JsonReader in) throws IOException {
+            return LocalDateTime.parse(in.nextString(), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+    }
+}
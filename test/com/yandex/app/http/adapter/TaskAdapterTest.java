@@ -0,0 +1,87 @@
+package com.yandex.app.http.adapter;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.yandex.app.http.util.GsonUtils;
+import com.yandex.app.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskAdapterTest {
+    private final Gson gson = GsonUtils.getGson();
+
+    @Test
+    void testRoundTripKeepsSubclass() {
+        LocalDateTime start = LocalDateTime.of(2025, 6, 11, 10, 0, 5, 120_000_000);
+        Task[] tasks = {
+                new Task(1, "Task", "Desc", Status.NEW, Duration.ofMinutes(30), start),
+                new Subtask(3, 2, "Sub", "Desc", Status.DONE, Duration.ofMinutes(15), start.plusHours(1)),
+                new Epic(3, "Epic", null)
+        };
+        Task[] restored = gson.fromJson(gson.toJson(tasks), Task[].class);
+
+        assertEquals(Task.class, restored[0].getClass(), "Task should stay a Task");
+        assertEquals(start, restored[0].getStartTime(), "Start time should keep its fraction");
+        assertEquals(Duration.ofMinutes(30), restored[0].getDuration(), "Duration should be restored");
+        assertEquals(3, ((Subtask) restored[1]).getEpicId(), "Subtask should keep its epic");
+        assertEquals(Status.DONE, restored[1].getStatus(), "Status should be restored");
+        assertTrue(restored[2] instanceof Epic, "Epic should be restored as Epic");
+        assertNull(restored[2].getDescription(), "Null fields should stay null");
+    }
+
+    @Test
+    void testEpicDerivedFieldsAreSerialized() {
+        Epic epic = new Epic(1, "Epic", "Desc");
+        epic.addSubtask(new Subtask(1, 2, "Sub", "Desc", Status.IN_PROGRESS, Duration.ofMinutes(45),
+                LocalDateTime.of(2025, 6, 11, 10, 0)));
+        Epic restored = gson.fromJson(gson.toJson(epic), Epic.class);
+
+        assertEquals(epic.getSubtaskIds(), restored.getSubtaskIds(), "Subtask ids should be restored");
+        assertEquals(Status.IN_PROGRESS, restored.getStatus(), "Status should be restored");
+        assertEquals(LocalDateTime.of(2025, 6, 11, 10, 45), restored.getEndTime(), "End time should be restored");
+    }
+
+    @Test
+    void testMissingDiscriminatorUsesRequestedType() {
+        Subtask subtask = gson.fromJson("{\"epicId\": 5, \"name\": \"Sub\", \"status\": \"NEW\"}", Subtask.class);
+        assertEquals(5, subtask.getEpicId(), "Body without type should be read as the requested class");
+
+        Epic epic = gson.fromJson("{\"name\": \"Epic\"}", Epic.class);
+        assertNotNull(epic.getSubtaskIds(), "Epic read without subtask ids should still have a list");
+        assertEquals(Status.NEW, epic.getStatus(), "Epic read without a status should stay NEW");
+    }
+
+    @Test
+    void testMismatchedDiscriminatorIsRejected() {
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"type\": \"TASK\", \"name\": \"Task\"}", Subtask.class),
+                "Task body should not be read as a Subtask");
+        assertThrows(JsonParseException.class, () -> gson.fromJson("{\"type\": \"STORY\"}", Task.class),
+                "Unknown type should be rejected");
+    }
+
+    @Test
+    void testDateFastPathMatchesFormatter() {
+        LocalDateTime[] values = {
+                LocalDateTime.of(2025, 1, 2, 3, 4),
+                LocalDateTime.of(2025, 12, 31, 23, 59, 59),
+                LocalDateTime.of(2025, 6, 11, 10, 0, 0, 100_000_000),
+                LocalDateTime.of(2025, 6, 11, 10, 0, 0, 123_456_789),
+                LocalDateTime.of(2025, 6, 11, 10, 0, 0, 1000),
+                LocalDateTime.of(12025, 6, 11, 10, 0)
+        };
+        for (LocalDateTime value : values) {
+            String text = LocalDateTimeAdapter.format(value);
+            assertEquals(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), text, "Should match ISO formatting");
+            assertEquals(value, LocalDateTimeAdapter.parse(text), "Should parse its own output");
+        }
+        assertEquals(LocalDateTime.of(2025, 6, 11, 10, 30), LocalDateTimeAdapter.parse("2025-06-11T10:30"),
+                "Seconds should be optional");
+        assertThrows(RuntimeException.class, () -> LocalDateTimeAdapter.parse("2025-13-11T10:30"),
+                "Invalid dates should be rejected");
+    }
+}
@@ -0,0 +1,65 @@
+package com.yandex.app.http.util;
+
+import com.google.gson.Gson;
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Subtask;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-task GET bodies for {@link #TASKS} subtasks read at random, encoded on every
+ * request or through a {@link JsonCache}. {@code writePercent} of the operations bump the
+ * version first, as an update would, so the cached run pays for its misses as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonCacheBenchmark {
+    private static final int TASKS = 4096;
+
+    @Param({"uncached", "cached"})
+    private String mode;
+
+    @Param({"0", "10"})
+    private int writePercent;
+
+    private final Gson gson = GsonUtils.getGson();
+    private Subtask[] subtasks;
+    private JsonCache cache;
+
+    @Setup
+    public void setUp() {
+        subtasks = new Subtask[TASKS];
+        LocalDateTime start = LocalDateTime.of(2025, 6, 11, 10, 30);
+        for (int i = 0; i < TASKS; i++) {
+            subtasks[i] = new Subtask(1, i + 2, "Write report " + i, "Quarterly numbers for region " + i,
+                    Status.IN_PROGRESS, Duration.ofMinutes(90), start.plusHours(2L * i));
+        }
+        cache = new JsonCache();
+    }
+
+    @Benchmark
+    public byte[] getById() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Subtask subtask = subtasks[random.nextInt(TASKS)];
+        if (random.nextInt(100) < writePercent) {
+            subtask.setVersion(subtask.getVersion() + 1);
+        }
+        if (mode.equals("cached")) {
+            return cache.encode(subtask, this::encode);
+        }
+        return encode(subtask);
+    }
+
+    private byte[] encode(Object task) {
+        return gson.toJson(task).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,76 @@
+package com.yandex.app.http.util;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonCacheTest {
+    private final AtomicInteger encodes = new AtomicInteger();
+    private final Function<Task, byte[]> encoder = task -> {
+        encodes.incrementAndGet();
+        return (task.getName() + "@" + task.getVersion()).getBytes(StandardCharsets.UTF_8);
+    };
+
+    @Test
+    void testServesUnchangedTaskFromCache() {
+        JsonCache cache = new JsonCache(16);
+        Task task = new Task(1, "Task", "Description", Status.NEW, null, null);
+
+        byte[] first = cache.encode(task, encoder);
+        byte[] second = cache.encode(task, encoder);
+        assertSame(first, second, "Unchanged task should reuse the cached bytes");
+        assertEquals(1, encodes.get(), "Task should be encoded once");
+        assertEquals(1, cache.getHits(), "Second lookup should hit");
+        assertEquals(1, cache.getMisses(), "First lookup should miss");
+        assertEquals(first.length, cache.getBytesSaved(), "Hit should count its bytes as saved");
+        assertEquals(0.5, cache.hitRate(), "Hit rate should be hits over lookups");
+    }
+
+    @Test
+    void testNewVersionIsEncodedAgain() {
+        JsonCache cache = new JsonCache(16);
+        Task task = new Task(1, "Task", "Description", Status.NEW, null, null);
+        cache.encode(task, encoder);
+
+        task.setVersion(task.getVersion() + 1);
+        assertEquals("Task@1", new String(cache.encode(task, encoder), StandardCharsets.UTF_8),
+                "Changed task should be encoded again");
+        assertEquals(2, encodes.get(), "Version change should miss");
+    }
+
+    @Test
+    void testDifferentObjectWithSameIdAndVersionMisses() {
+        JsonCache cache = new JsonCache(16);
+        cache.encode(new Task(1, "First", "Description", Status.NEW, null, null), encoder);
+
+        byte[] json = cache.encode(new Task(1, "Second", "Description", Status.NEW, null, null), encoder);
+        assertEquals("Second@0", new String(json, StandardCharsets.UTF_8), "Another board's task must not be served");
+        assertEquals(0, cache.getHits(), "Lookup should miss");
+    }
+
+    @Test
+    void testCapacityIsRoundedToPowerOfTwo() {
+        assertEquals(16, new JsonCache(10).capacity(), "Capacity should round up");
+        assertEquals(1, new JsonCache(1).capacity(), "Capacity of one should be kept");
+        assertThrows(IllegalArgumentException.class, () -> new JsonCache(0), "Zero capacity should be rejected");
+    }
+
+    @Test
+    void testIdsSharingASlotReplaceEachOther() {
+        JsonCache cache = new JsonCache(4);
+        Task first = new Task(1, "First", "Description", Status.NEW, null, null);
+        Task second = new Task(5, "Second", "Description", Status.NEW, null, null);
+
+        cache.encode(first, encoder);
+        cache.encode(second, encoder);
+        cache.encode(first, encoder);
+        assertEquals(3, encodes.get(), "Colliding ids should evict each other");
+        assertEquals(0, cache.getHits(), "No lookup should hit");
+    }
+}
@@ -1,11 +1,10 @@
 package com.yandex.app.model;
 
-import com.yandex.app.service.InMemoryTaskManager;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -60,24 +59,21 @@ class EpicTest {
 
     @Test
     void testUpdateTimeFields() {
-        InMemoryTaskManager manager = new InMemoryTaskManager() {
-            @Override
-            public Optional<Subtask> getSubtask(int id) {
-                if (id == 1) {
-                    return Optional.of(new Subtask(0, 1, "Sub1", "Desc", Status.NEW,
-                            Duration.ofMinutes(60), LocalDateTime.of(2025, 6, 11, 10, 0)));
-                } else if (id == 2) {
-                    return Optional.of(new Subtask(0, 2, "Sub2", "Desc", Status.NEW,
-                            Duration.ofMinutes(30), LocalDateTime.of(2025, 6, 11, 12, 0)));
-                }
-                return Optional.empty();
+        SubtaskView subtasks = id -> {
+            if (id == 1) {
+                return new Subtask(0, 1, "Sub1", "Desc", Status.NEW,
+                        Duration.ofMinutes(60), LocalDateTime.of(2025, 6, 11, 10, 0));
+            } else if (id == 2) {
+                return new Subtask(0, 2, "Sub2", "Desc", Status.NEW,
+                        Duration.ofMinutes(30), LocalDateTime.of(2025, 6, 11, 12, 0));
             }
+            return null;
         };
 
         Epic epic = new Epic("Epic", "Description");
         epic.addSubtaskId(1);
         epic.addSubtaskId(2);
-        epic.updateTimeFields(manager);
+        epic.updateTimeFields(subtasks);
 
         assertEquals(Duration.ofMinutes(90), epic.getDuration(), "Duration should be sum of subtasks");
         assertEquals(LocalDateTime.of(2025, 6, 11, 10, 0), epic.getStartTime(), "Start time should be earliest subtask start");
@@ -86,19 +82,50 @@ class EpicTest {
 
     @Test
     void testUpdateTimeFieldsToNull() {
-        InMemoryTaskManager manager = new InMemoryTaskManager() {
-            @Override
-            public Optional<Subtask> getSubtask(int id) {
-                return Optional.empty();
-            }
-        };
+        SubtaskView subtasks = id -> null;
 
         Epic epic = new Epic("Epic", "Description");
-        epic.updateTimeFields(manager);
+        epic.updateTimeFields(subtasks);
 
         assertNull(epic.getDuration(), "Duration should be null with no subtasks");
         assertNull(epic.getStartTime(), "Start time should be null with no subtasks");
         assertNull(epic.getEndTime(), "End time should be null with no subtasks");
     }
 
-}
\ No newline at end of file
+    @Test
+    void testIncrementalAggregates() {
+        Epic epic = new Epic(1, "Epic", "Description");
+        Subtask first = new Subtask(1, 2, "Sub1", "Desc", Status.DONE, Duration.ofMinutes(60), LocalDateTime.of(2025, 6, 11, 10, 0));
+        Subtask second = new Subtask(1, 3, "Sub2", "Desc", Status.DONE, Duration.ofMinutes(30), LocalDateTime.of(2025, 6, 11, 12, 0));
+        epic.addSubtask(first);
+        epic.addSubtask(second);
+        assertEquals(Status.DONE, epic.getStatus(), "All subtasks are DONE");
+        assertEquals(Duration.ofMinutes(90), epic.getDuration(), "Duration should be sum of subtasks");
+
+        Subtask reopened = new Subtask(1, 2, "Sub1", "Desc", Status.NEW, Duration.ofMinutes(60), LocalDateTime.of(2025, 6, 11, 13, 0));
+        epic.replaceSubtask(reopened);
+        assertEquals(Status.IN_PROGRESS, epic.getStatus(), "Mixed statuses should be IN_PROGRESS");
+        assertEquals(LocalDateTime.of(2025, 6, 11, 12, 0), epic.getStartTime(), "Moved subtask should release the earliest start");
+        assertEquals(LocalDateTime.of(2025, 6, 11, 14, 0), epic.getEndTime(), "End time should follow the moved subtask");
+
+        epic.removeSubtaskId(3);
+        assertEquals(Status.NEW, epic.getStatus(), "Only NEW subtasks remain");
+        assertEquals(Duration.ofMinutes(60), epic.getDuration(), "Removed subtask should leave the total");
+        epic.verifyAggregates(List.of(reopened));
+
+        epic.clearSubtasks();
+        assertNull(epic.getDuration(), "Duration should be null with no subtasks");
+        assertNull(epic.getStartTime(), "Start time should be null with no subtasks");
+    }
+
+    @Test
+    void testVerifyAggregatesDetectsDrift() {
+        Epic epic = new Epic(1, "Epic", "Description");
+        Subtask subtask = new Subtask(1, 2, "Sub", "Desc", Status.NEW, Duration.ofMinutes(60), LocalDateTime.of(2025, 6, 11, 10, 0));
+        epic.addSubtask(subtask);
+        subtask.setStatus(Status.DONE);
+
+        assertThrows(IllegalStateException.class, () -> epic.verifyAggregates(List.of(subtask)),
+                "Unreported subtask change should be detected");
+    }
+}
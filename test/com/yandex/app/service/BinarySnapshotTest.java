@@ -0,0 +1,73 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinarySnapshotTest {
+    @TempDir
+    File tempDir;
+
+    @Test
+    void testNullFieldsRoundTrip() throws IOException {
+        File file = new File(tempDir, "tasks.bin");
+        BinarySnapshot.write(file, List.of(new Task(7, "Task", null, Status.NEW, null, null)), 42, false);
+
+        assertTrue(BinarySnapshot.isBinary(file), "Written file should carry the magic number");
+        Task task = BinarySnapshot.read(file).get(0);
+        assertEquals(7, task.getId(), "Id should be restored");
+        assertNull(task.getDescription(), "Missing description should stay null");
+        assertNull(task.getDuration(), "Missing duration should stay null");
+        assertNull(task.getStartTime(), "Missing start time should stay null");
+        assertEquals(42, BinarySnapshot.readHighWater(file), "High-water mark should be restored");
+    }
+
+    @Test
+    void testRejectsUnknownVersion() throws IOException {
+        File file = new File(tempDir, "tasks.bin");
+        BinarySnapshot.write(file, List.of(new Task(1, "Task", "Desc", Status.NEW, null, null)), 0, false);
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(4);
+            raw.write(BinarySnapshot.VERSION + 1);
+        }
+
+        assertThrows(IOException.class, () -> BinarySnapshot.read(file), "Unknown version should be rejected");
+    }
+
+    @Test
+    void testRejectsUnknownTypeAndStatus() throws IOException {
+        File file = new File(tempDir, "tasks.bin");
+        BinarySnapshot.write(file, List.of(new Task(1, "Task", "Desc", Status.NEW, null, null)), 0, false);
+        // With one row the type and status columns are its last two bytes, after 36 bytes of wider columns.
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(32 + 36);
+            raw.write(9);
+        }
+        IOException type = assertThrows(IOException.class, () -> BinarySnapshot.read(file), "Unknown type should be rejected");
+        assertTrue(type.getMessage().contains("type 9"), "Error should name the bad type");
+
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(32 + 36);
+            raw.write(0);
+            raw.write(200);
+        }
+        IOException status = assertThrows(IOException.class, () -> BinarySnapshot.read(file), "Unknown status should be rejected");
+        assertTrue(status.getMessage().contains("status 200"), "Error should name the bad status");
+    }
+
+    @Test
+    void testCsvIsNotBinary() throws IOException {
+        File file = new File(tempDir, "tasks.csv");
+        new FileBackedTaskManager(file).addTask(new Task("Task", "Desc", Status.NEW, null, null));
+
+        assertFalse(BinarySnapshot.isBinary(file), "CSV snapshot should not be detected as binary");
+    }
+}
@@ -0,0 +1,131 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentHistoryManagerTest {
+
+    @Test
+    void testKeepsViewOrderWithoutDuplicates() {
+        HistoryManager history = new ConcurrentHistoryManager(10);
+        history.add(task(1));
+        history.add(task(2));
+        history.add(task(3));
+        history.add(task(1));
+
+        assertEquals(List.of(2, 3, 1), ids(history.getHistory()), "Viewing again should move a task to the end");
+        history.remove(3);
+        assertEquals(List.of(2, 1), ids(history.getHistory()), "Removed task should leave the history");
+    }
+
+    @Test
+    void testEvictsLeastRecentlyViewed() {
+        HistoryManager history = new ConcurrentHistoryManager(3);
+        for (int id = 1; id <= 5; id++) {
+            history.add(task(id));
+        }
+        history.add(task(3));
+
+        assertEquals(List.of(4, 5, 3), ids(history.getHistory()), "Capacity should evict the oldest views");
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentHistoryManager(0), "Capacity must be positive");
+    }
+
+    @Test
+    void testSnapshotIsStableAndImmutable() {
+        HistoryManager history = new ConcurrentHistoryManager(10);
+        history.add(task(1));
+        List<Task> snapshot = history.getHistory();
+        history.add(task(2));
+
+        assertEquals(List.of(1), ids(snapshot), "Earlier snapshot should not change");
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(task(3)), "Snapshot should be read-only");
+        assertSame(history.getHistory(), history.getHistory(), "Unchanged history should reuse its snapshot");
+    }
+
+    @Test
+    void testConcurrentViewsAreAllRecorded() throws Exception {
+        int threads = 16;
+        int perThread = 10_000;
+        HistoryManager history = new ConcurrentHistoryManager(threads * perThread);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 1; i <= perThread; i++) {
+                    history.add(task(base + i));
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        List<Task> all = history.getHistory();
+        assertEquals(threads * perThread, all.size(), "No view should be lost");
+        assertEquals(threads * perThread, new HashSet<>(ids(all)).size(), "Every task should appear once");
+    }
+
+    @Test
+    void testOwnViewIsVisibleWhileOthersDrain() throws Exception {
+        HistoryManager history = new ConcurrentHistoryManager(10_000);
+        AtomicBoolean running = new AtomicBoolean(true);
+        // Other threads keep filling and draining the buffers, cycling through few enough
+        // ids that nothing of ours is evicted.
+        List<Thread> noise = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            int base = 1_000_000 * (t + 1);
+            Thread worker = new Thread(() -> {
+                for (int i = 0; running.get(); i = (i + 1) % 2_000) {
+                    history.add(task(base + i));
+                }
+            });
+            worker.start();
+            noise.add(worker);
+        }
+        int missed = 0;
+        try {
+            for (int id = 1; id <= 500; id++) {
+                history.add(task(id));
+                if (!ids(history.getHistory()).contains(id)) {
+                    missed++;
+                }
+            }
+        } finally {
+            running.set(false);
+            for (Thread worker : noise) {
+                worker.join();
+            }
+        }
+        assertEquals(0, missed, "A view should be in the caller's next history read");
+    }
+
+    private static Task task(int id) {
+        return new Task(id, "Task " + id, "Desc", Status.NEW, null, null);
+    }
+
+    private static List<Integer> ids(List<Task> tasks) {
+        List<Integer> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,177 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTaskManagerTest extends TaskManagerTest<ConcurrentTaskManager> {
+    private static final int THREADS = 32;
+    private static final LocalDateTime BASE = LocalDateTime.of(2031, 1, 1, 0, 0);
+
+    @Override
+    protected ConcurrentTaskManager createTaskManager() {
+        return new ConcurrentTaskManager();
+    }
+
+    @Test
+    void testConcurrentAddsNeverOverlap() throws Exception {
+        AtomicInteger accepted = new AtomicInteger();
+        runConcurrently(thread -> {
+            Random random = new Random(thread);
+            for (int i = 0; i < 500; i++) {
+                LocalDateTime start = BASE.plusMinutes(random.nextInt(20_000));
+                try {
+                    manager.addTask(new Task("Task", "Desc", Status.NEW, Duration.ofMinutes(15), start));
+                    accepted.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    // Lost the slot to another thread.
+                }
+                manager.getAllTasks();
+                manager.getPrioritizedTasks();
+            }
+        });
+
+        List<Task> tasks = manager.getPrioritizedTasks();
+        assertEquals(accepted.get(), manager.getAllTasks().size(), "Every accepted task should be stored");
+        assertEquals(accepted.get(), tasks.size(), "Every accepted task should be prioritized");
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            assertTrue(ids.add(tasks.get(i).getId()), "Ids should be unique");
+            if (i > 0) {
+                assertTrue(tasks.get(i - 1).getEndTime().isBefore(tasks.get(i).getStartTime()),
+                        "Accepted tasks should not overlap");
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentSubtaskUpdatesAreNotLost() throws Exception {
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        int[] subtaskIds = new int[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            subtaskIds[i] = manager.addSubtask(new Subtask(epicId, "Sub" + i, "Desc", Status.NEW,
+                    Duration.ofMinutes(10), BASE.plusHours(i)));
+        }
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < 200; i++) {
+                Status status = i == 199 ? Status.DONE : Status.values()[i % 3];
+                manager.updateSubtask(new Subtask(epicId, subtaskIds[thread], "Sub" + thread, "Desc", status,
+                        Duration.ofMinutes(10), BASE.plusHours(thread)));
+                manager.getEpic(epicId);
+                manager.getSubtasksByEpicId(epicId);
+            }
+        });
+
+        Epic epic = manager.getEpic(epicId).orElseThrow();
+        assertEquals(Status.DONE, epic.getStatus(), "Final update of every subtask should be reflected");
+        assertDoesNotThrow(() -> epic.verifyAggregates(manager.getSubtasksByEpicId(epicId)),
+                "Epic aggregates should survive concurrent updates");
+    }
+
+    @Test
+    void testEpicReadsAreSnapshots() {
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        Epic before = manager.getEpic(epicId).orElseThrow();
+        assertSame(before, manager.getAllEpics().get(0), "Unchanged epic should be read as the same snapshot");
+
+        int sub = manager.addSubtask(new Subtask(epicId, "Sub", "Desc", Status.DONE, Duration.ofMinutes(10), BASE));
+        assertEquals(Status.NEW, before.getStatus(), "Snapshot should not follow later changes");
+        assertNull(before.getStartTime(), "Snapshot should keep its start");
+        assertTrue(before.getSubtaskIds().isEmpty(), "Snapshot should keep its subtask ids");
+
+        Epic after = manager.getEpic(epicId).orElseThrow();
+        assertNotSame(before, after, "Changed epic should be read as a new snapshot");
+        assertEquals(Status.DONE, after.getStatus(), "New snapshot should carry the change");
+        assertEquals(List.of(sub), after.getSubtaskIds(), "New snapshot should carry the subtask");
+        assertEquals(after.getVersion(), manager.query(TaskQuery.of(TaskType.EPIC)).getItems().get(0).getVersion(),
+                "Snapshot should keep the epic's version");
+    }
+
+    @Test
+    void testEpicReadsNeverSeeHalfAppliedChanges() throws Exception {
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        int sub = manager.addSubtask(new Subtask(epicId, "Sub", "Desc", Status.NEW, Duration.ofMinutes(10), BASE));
+        AtomicInteger torn = new AtomicInteger();
+        runConcurrently(thread -> {
+            for (int i = 0; i < 500; i++) {
+                if (thread == 0) {
+                    boolean done = i % 2 == 0;
+                    manager.updateSubtask(new Subtask(epicId, sub, "Sub", "Desc", done ? Status.DONE : Status.NEW,
+                            Duration.ofMinutes(done ? 20 : 10), done ? BASE.plusDays(1) : BASE));
+                } else {
+                    Epic epic = manager.getEpic(epicId).orElseThrow();
+                    boolean done = epic.getStatus() == Status.DONE;
+                    if (!epic.getDuration().equals(Duration.ofMinutes(done ? 20 : 10))
+                            || !epic.getStartTime().equals(done ? BASE.plusDays(1) : BASE)) {
+                        torn.incrementAndGet();
+                    }
+                }
+            }
+        });
+        assertEquals(0, torn.get(), "Readers should see each epic change whole");
+    }
+
+    @Test
+    void testConcurrentViewsAndDeletesKeepHistoryConsistent() throws Exception {
+        int[] taskIds = new int[200];
+        for (int i = 0; i < taskIds.length; i++) {
+            taskIds[i] = manager.addTask(new Task("Task" + i, "Desc", Status.NEW, null, null));
+        }
+
+        runConcurrently(thread -> {
+            Random random = new Random(thread);
+            for (int i = 0; i < 2_000; i++) {
+                int id = taskIds[random.nextInt(taskIds.length)];
+                if (thread == 0 && i % 20 == 0) {
+                    manager.deleteTaskById(id);
+                } else {
+                    manager.getTask(id);
+                }
+                if (i % 100 == 0) {
+                    manager.getHistory();
+                }
+            }
+        });
+
+        Set<Integer> seen = new HashSet<>();
+        for (Task task : manager.getHistory()) {
+            assertTrue(seen.add(task.getId()), "History should not repeat a task");
+            assertTrue(manager.getTask(task.getId()).isPresent(), "Deleted tasks should not stay in history");
+        }
+    }
+
+    private static void runConcurrently(IntConsumer work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    work.accept(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
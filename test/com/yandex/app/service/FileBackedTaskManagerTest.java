@@ -8,6 +8,7 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.File;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -62,6 +63,114 @@ public class FileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskMan
         }
     }
 
+    @Test
+    void testBatchedSnapshotIsWrittenByFlusher() throws Exception {
+        File batchedFile = new File(tempDir, "batched.csv");
+        FileBackedTaskManager batched = new FileBackedTaskManager(batchedFile,
+                StorageOptions.defaults().withDurability(DurabilityMode.BATCHED).withBatch(Duration.ofMillis(50), 100));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 20; i++) {
+            batched.addTask(new Task("Task" + i, "Desc", Status.NEW, Duration.ofMinutes(30), now.plusHours(i)));
+        }
+        batched.whenDurable().get(5, TimeUnit.SECONDS);
+
+        assertEquals(20, FileBackedTaskManager.loadFromFile(batchedFile).getAllTasks().size(),
+                "Flushed snapshot should contain every task");
+        batched.close();
+    }
+
+    @Test
+    void testSyncJournalSurvivesReload() {
+        File syncFile = new File(tempDir, "sync.csv");
+        StorageOptions options = StorageOptions.defaults().withJournal(true).withDurability(DurabilityMode.SYNC);
+        FileBackedTaskManager synced = new FileBackedTaskManager(syncFile, options);
+        int epicId = synced.addEpic(new Epic("Epic", "Desc"));
+        synced.addSubtask(new Subtask(epicId, "Sub", "Desc", Status.DONE, Duration.ofMinutes(30), LocalDateTime.now()));
+        assertTrue(synced.whenDurable().isDone(), "Synchronous mode should be durable on return");
+
+        FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(syncFile, options);
+        assertEquals(1, restored.getAllSubtasks().size(), "Subtask should be restored");
+        assertEquals(Status.DONE, restored.getAllEpics().get(0).getStatus(), "Epic status should be restored");
+        synced.close();
+        restored.close();
+    }
+
+    @Test
+    void testBinarySnapshotRoundTrip() {
+        File binaryFile = new File(tempDir, "tasks.bin");
+        StorageOptions options = StorageOptions.defaults().withSnapshotFormat(SnapshotFormat.BINARY);
+        FileBackedTaskManager binary = new FileBackedTaskManager(binaryFile, options);
+        LocalDateTime start = LocalDateTime.of(2025, 6, 11, 10, 0, 15, 123_000_000);
+        binary.addTask(new Task("Задача", "Desc", Status.IN_PROGRESS, Duration.ofMinutes(45), start));
+        int epicId = binary.addEpic(new Epic("Epic", "Epic Desc"));
+        binary.addSubtask(new Subtask(epicId, "Sub", "Desc", Status.DONE, Duration.ofMinutes(30), start.plusHours(2)));
+
+        FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(binaryFile, options);
+        Task task = restored.getAllTasks().get(0);
+        assertEquals("Задача", task.getName(), "Name should survive the string pool");
+        assertEquals(start, task.getStartTime(), "Start time should keep sub-second precision");
+        assertEquals(Status.IN_PROGRESS, task.getStatus(), "Status should be restored");
+        assertEquals(Status.DONE, restored.getAllEpics().get(0).getStatus(), "Epic status should be recomputed");
+        assertEquals(Duration.ofMinutes(30), restored.getAllEpics().get(0).getDuration(), "Epic duration should be recomputed");
+        assertThrows(IllegalStateException.class, () -> restored.addTask(
+                new Task("Clash", "Desc", Status.NEW, Duration.ofMinutes(10), start.plusMinutes(5))),
+                "Bulk-loaded tasks should still reserve their time slots");
+    }
+
+    @Test
+    void testCsvExportAndImport() {
+        LocalDateTime now = LocalDateTime.now();
+        manager.addTask(new Task("Task", "Desc", Status.NEW, Duration.ofMinutes(60), now));
+        int epicId = manager.addEpic(new Epic("Epic", "Epic Desc"));
+        manager.addSubtask(new Subtask(epicId, "Sub", "Desc", Status.NEW, Duration.ofMinutes(30), now.plusHours(2)));
+        File export = new File(tempDir, "export.csv");
+        manager.exportCsv(export);
+
+        File binaryFile = new File(tempDir, "imported.bin");
+        StorageOptions options = StorageOptions.defaults().withSnapshotFormat(SnapshotFormat.BINARY);
+        FileBackedTaskManager imported = FileBackedTaskManager.importCsv(export, binaryFile, options);
+        assertEquals(3, imported.getAllTasks().size() + imported.getAllEpics().size() + imported.getAllSubtasks().size(),
+                "Every row should be imported");
+
+        FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(binaryFile, options);
+        assertEquals(manager.getAllSubtasks(), restored.getAllSubtasks(), "Imported store should persist in binary form");
+        assertEquals(epicId, restored.getAllSubtasks().get(0).getEpicId(), "Subtask should keep its epic");
+    }
+
+    @Test
+    void testSearchIndexIsRebuiltOnLoad() {
+        manager.addTask(new Task("Renew certificate", "Expires next month", Status.NEW, null, null));
+        int epicId = manager.addEpic(new Epic("Infrastructure", "Certificates and keys"));
+        int subtaskId = manager.addSubtask(new Subtask(epicId, "Rotate keys", "After the certificate", Status.NEW, null, null));
+
+        FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(3, restored.search("certificat*", 10).size(), "Loaded items should be searchable");
+        assertEquals(subtaskId, restored.search("rotate keys", 10).get(0).getId(), "Loaded subtask should match its name");
+    }
+
+    @Test
+    void testIdsAreNotReusedAfterReload() {
+        int deletedId = manager.addTask(new Task("Deleted", "Desc", Status.NEW, null, null));
+        manager.deleteTaskById(deletedId);
+        int keptId = manager.addTask(new Task("Kept", "Desc", Status.NEW, null, null));
+
+        FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(file);
+        int nextId = restored.addTask(new Task("Next", "Desc", Status.NEW, null, null));
+        assertTrue(nextId > Math.max(deletedId, keptId), "Ids handed out before the reload should not come back");
+        assertTrue(nextId <= manager.idAllocator().highWater() + restored.idAllocator().getBlockSize(),
+                "Reload should resume from the persisted high-water mark");
+
+        File binary = new File(tempDir, "tasks.bin");
+        FileBackedTaskManager binaryManager = new FileBackedTaskManager(binary,
+                StorageOptions.defaults().withSnapshotFormat(SnapshotFormat.BINARY));
+        int binaryDeletedId = binaryManager.addTask(new Task("Deleted", "Desc", Status.NEW, null, null));
+        binaryManager.deleteTaskById(binaryDeletedId);
+        FileBackedTaskManager binaryRestored = FileBackedTaskManager.loadFromFile(binary,
+                StorageOptions.defaults().withSnapshotFormat(SnapshotFormat.BINARY));
+        assertTrue(binaryRestored.addTask(new Task("Next", "Desc", Status.NEW, null, null)) > binaryDeletedId,
+                "Binary snapshots should keep the high-water mark too");
+    }
+
     @Test
     void testLoadEmptyFile() {
         FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(file);
@@ -0,0 +1,62 @@
+package com.yandex.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitterTest {
+    @Test
+    void testCoalescesOperationsIntoOneCommit() throws Exception {
+        AtomicInteger commits = new AtomicInteger();
+        GroupCommitter committer = new GroupCommitter("test-flusher", commits::incrementAndGet, Duration.ofMillis(200), 1000);
+        for (int i = 0; i < 100; i++) {
+            committer.submit();
+        }
+        committer.whenDurable().get(5, TimeUnit.SECONDS);
+        assertEquals(1, commits.get(), "Operations within one window should share a commit");
+        assertTrue(committer.whenDurable().isDone(), "Nothing should be pending after the commit");
+        committer.close();
+    }
+
+    @Test
+    void testOperationLimitTriggersEarlyCommit() throws Exception {
+        AtomicInteger commits = new AtomicInteger();
+        GroupCommitter committer = new GroupCommitter("test-flusher", commits::incrementAndGet, Duration.ofSeconds(30), 10);
+        for (int i = 0; i < 10; i++) {
+            committer.submit();
+        }
+        committer.whenDurable().get(5, TimeUnit.SECONDS);
+        assertTrue(commits.get() >= 1, "Reaching the operation limit should not wait for the window");
+        committer.close();
+    }
+
+    @Test
+    void testCloseFlushesPendingOperations() throws Exception {
+        AtomicInteger commits = new AtomicInteger();
+        GroupCommitter committer = new GroupCommitter("test-flusher", commits::incrementAndGet, Duration.ofSeconds(30), 1000);
+        committer.submit();
+        CompletableFuture<Void> durable = committer.whenDurable();
+        committer.close();
+        assertTrue(durable.isDone(), "Close should commit pending operations");
+        assertEquals(1, commits.get(), "Close should commit exactly once");
+        assertThrows(IOException.class, committer::submit, "Closed committer should reject operations");
+    }
+
+    @Test
+    void testFailureIsReported() throws Exception {
+        GroupCommitter committer = new GroupCommitter("test-flusher", () -> {
+            throw new IOException("disk full");
+        }, Duration.ZERO, 1);
+        committer.submit();
+        CompletableFuture<Void> durable = committer.whenDurable();
+        assertThrows(ExecutionException.class, () -> durable.get(5, TimeUnit.SECONDS), "Waiters should see the failure");
+        assertThrows(IOException.class, committer::submit, "Later operations should see the failure");
+    }
+}
@@ -0,0 +1,80 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class HistoryBenchmark {
+    private static final int TASKS = 100_000;
+
+    @Param({"buffered", "synchronized"})
+    private String history;
+
+    private ConcurrentTaskManager manager;
+    private int[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HistoryManager historyManager = history.equals("buffered")
+                ? new ConcurrentHistoryManager()
+                : new LockedHistory(new InMemoryHistoryManager());
+        manager = new ConcurrentTaskManager(SlotCalendar.DEFAULT_GRANULARITY, historyManager);
+        ids = new int[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            ids[i] = manager.addTask(new Task("Task " + i, "Desc", Status.NEW, null, null));
+        }
+    }
+
+    @Benchmark
+    public Optional<Task> getTask() {
+        return manager.getTask(ids[ThreadLocalRandom.current().nextInt(TASKS)]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public List<Task> getTasksThenHistory() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < 63; i++) {
+            manager.getTask(ids[random.nextInt(TASKS)]);
+        }
+        return manager.getHistory();
+    }
+
+    /**
+     * The unbounded linked-list history behind one monitor, as a baseline.
+     */
+    private static class LockedHistory implements HistoryManager {
+        private final HistoryManager delegate;
+
+        LockedHistory(HistoryManager delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public synchronized void add(Task task) {
+            delegate.add(task);
+        }
+
+        @Override
+        public synchronized void remove(int id) {
+            delegate.remove(id);
+        }
+
+        @Override
+        public synchronized List<Task> getHistory() {
+            return delegate.getHistory();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.yandex.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdAllocatorTest {
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 625_000;
+
+    @Test
+    void testConcurrentAllocationsAreUnique() throws InterruptedException {
+        IdAllocator allocator = new IdAllocator();
+        int bound = THREADS * (IDS_PER_THREAD + allocator.getBlockSize());
+        AtomicLongArray seen = new AtomicLongArray(bound / 64 + 1);
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicInteger outOfRange = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    int id = allocator.next();
+                    if (id <= 0 || id > bound) {
+                        outOfRange.incrementAndGet();
+                        continue;
+                    }
+                    long mask = 1L << id;
+                    if ((seen.getAndAccumulate(id >>> 6, mask, (a, b) -> a | b) & mask) != 0) {
+                        duplicates.incrementAndGet();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, duplicates.get(), "Every id should be handed out once");
+        assertEquals(0, outOfRange.get(), "Ids should stay within the reserved blocks");
+        assertTrue(allocator.highWater() >= THREADS * IDS_PER_THREAD, "High-water mark should cover every id");
+    }
+
+    @Test
+    void testAdvancePastSkipsClaimedIds() {
+        IdAllocator allocator = new IdAllocator(8);
+        assertEquals(1, allocator.next(), "First id should be 1");
+        allocator.advancePast(5);
+        assertEquals(9, allocator.next(), "A block overtaken by a claim should be dropped");
+        allocator.advancePast(3);
+        assertEquals(10, allocator.next(), "A lower claim should not move the allocator");
+        assertEquals(16, allocator.highWater(), "High-water mark should cover the reserved block");
+        assertThrows(IllegalArgumentException.class, () -> new IdAllocator(0), "Block size must be positive");
+    }
+}
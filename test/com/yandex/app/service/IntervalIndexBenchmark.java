@@ -0,0 +1,84 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntervalIndexBenchmark {
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final int PROBES = 1024;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    private IntervalIndex index;
+    private TreeSet<Task> prioritizedTasks;
+    private Task[] probes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new IntervalIndex();
+        prioritizedTasks = new TreeSet<>(Comparator.comparing(Task::getStartTime));
+        for (int i = 1; i <= size; i++) {
+            Task task = new Task(i, "Task " + i, "Desc", Status.NEW, Duration.ofMinutes(20), BASE.plusHours(i));
+            index.add(task);
+            prioritizedTasks.add(task);
+        }
+
+        Random random = new Random(42);
+        probes = new Task[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            int slot = 1 + random.nextInt(size);
+            probes[i] = new Task(size + 1 + i, "Probe", "Desc", Status.NEW, Duration.ofMinutes(20),
+                    BASE.plusHours(slot).plusMinutes(30));
+        }
+    }
+
+    @Benchmark
+    public boolean intervalIndexInsert() {
+        Task probe = nextProbe();
+        boolean overlaps = index.overlaps(probe);
+        if (!overlaps) {
+            index.add(probe);
+            index.remove(probe.getId());
+        }
+        return overlaps;
+    }
+
+    @Benchmark
+    public boolean linearScanInsert() {
+        Task probe = nextProbe();
+        boolean overlaps = prioritizedTasks.stream()
+                .filter(t -> t.getStartTime() != null && t.getDuration() != null)
+                .anyMatch(t -> isOverlapping(probe, t));
+        if (!overlaps) {
+            prioritizedTasks.add(probe);
+            prioritizedTasks.remove(probe);
+        }
+        return overlaps;
+    }
+
+    private Task nextProbe() {
+        return probes[cursor++ & (PROBES - 1)];
+    }
+
+    private static boolean isOverlapping(Task task1, Task task2) {
+        LocalDateTime end1 = task1.getEndTime();
+        LocalDateTime end2 = task2.getEndTime();
+        return !(end1.isBefore(task2.getStartTime()) || end2.isBefore(task1.getStartTime()));
+    }
+}
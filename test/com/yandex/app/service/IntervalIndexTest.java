@@ -0,0 +1,66 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalIndexTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 6, 11, 10, 0);
+    private IntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new IntervalIndex();
+        index.add(task(1, START, 60));
+        index.add(task(2, START.plusHours(3), 60));
+    }
+
+    @Test
+    void testDetectsOverlapWithNeighbours() {
+        assertTrue(index.overlaps(task(0, START.plusMinutes(30), 60)), "Should overlap previous interval");
+        assertTrue(index.overlaps(task(0, START.plusHours(2), 90)), "Should overlap next interval");
+        assertTrue(index.overlaps(task(0, START.minusHours(1), 600)), "Should overlap enclosed intervals");
+        assertFalse(index.overlaps(task(0, START.plusHours(1).plusMinutes(30), 60)), "Gap should be free");
+    }
+
+    @Test
+    void testTouchingEndpointsOverlap() {
+        assertTrue(index.overlaps(task(0, START.plusHours(1), 30)), "Start at previous end should overlap");
+        assertTrue(index.overlaps(task(0, START.plusHours(2), 60)), "End at next start should overlap");
+    }
+
+    @Test
+    void testIgnoresItselfOnUpdate() {
+        assertFalse(index.overlaps(task(1, START.plusMinutes(15), 60)), "Task should not overlap its own interval");
+        assertTrue(index.overlaps(task(1, START.plusHours(2).plusMinutes(30), 60)), "Moved task should overlap neighbour");
+    }
+
+    @Test
+    void testCoveringIdIsHalfOpen() {
+        assertEquals(1, index.coveringId(START), "Interval should cover its start");
+        assertEquals(1, index.coveringId(START.plusMinutes(59)), "Interval should cover its inside");
+        assertEquals(-1, index.coveringId(START.plusHours(1)), "Interval should not cover its end");
+        assertEquals(-1, index.coveringId(START.minusMinutes(1)), "Nothing should cover the time before the first start");
+        assertEquals(2, index.coveringId(START.plusHours(3).plusMinutes(30)), "Later interval should be found");
+    }
+
+    @Test
+    void testRemoveAndUnscheduledTasks() {
+        index.remove(1);
+        assertEquals(1, index.size(), "Removed interval should leave the index");
+        assertFalse(index.overlaps(task(0, START, 60)), "Freed interval should be available");
+
+        index.add(new Task(3, "Task", "Desc", Status.NEW, null, START.plusHours(3)));
+        assertEquals(1, index.size(), "Tasks without duration should not be indexed");
+    }
+
+    private static Task task(int id, LocalDateTime start, int minutes) {
+        return new Task(id, "Task " + id, "Desc", Status.NEW, Duration.ofMinutes(minutes), start);
+    }
+}
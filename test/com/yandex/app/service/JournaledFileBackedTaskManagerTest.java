@@ -0,0 +1,157 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournaledFileBackedTaskManagerTest extends TaskManagerTest<FileBackedTaskManager> {
+    private static final StorageOptions JOURNALED = StorageOptions.defaults().withJournal(true);
+
+    @TempDir
+    File tempDir;
+    private File file;
+
+    @Override
+    protected FileBackedTaskManager createTaskManager() {
+        file = new File(tempDir, "tasks.csv");
+        return new FileBackedTaskManager(file, JOURNALED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    void testMutationsAreAppendedToJournal() throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        manager.addTask(new Task("Task1", "Desc", Status.NEW, Duration.ofMinutes(60), now));
+        String snapshot = Files.readString(file.toPath());
+
+        manager.addTask(new Task("Task2", "Desc", Status.NEW, Duration.ofMinutes(60), now.plusHours(2)));
+        manager.addTask(new Task("Task3", "Desc", Status.NEW, Duration.ofMinutes(60), now.plusHours(4)));
+
+        assertEquals(snapshot, Files.readString(file.toPath()), "Snapshot should not be rewritten on every mutation");
+        assertEquals(2, Files.readAllLines(FileBackedTaskManager.journalFileFor(file).toPath()).size(),
+                "Each mutation should append one journal record");
+    }
+
+    @Test
+    void testReplaySnapshotAndJournal() {
+        LocalDateTime now = LocalDateTime.now();
+        int taskId = manager.addTask(new Task("Task", "Desc", Status.NEW, Duration.ofMinutes(60), now));
+        int removedId = manager.addTask(new Task("Removed", "Desc", Status.NEW, Duration.ofMinutes(60), now.plusHours(2)));
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        int subtaskId = manager.addSubtask(new Subtask(epicId, "Sub", "Desc", Status.NEW, Duration.ofMinutes(30), now.plusHours(4)));
+        manager.updateTask(new Task(taskId, "Task", "Updated", Status.IN_PROGRESS, Duration.ofMinutes(60), now));
+        manager.updateSubtask(new Subtask(epicId, subtaskId, "Sub", "Desc", Status.DONE, Duration.ofMinutes(30), now.plusHours(4)));
+        manager.deleteTaskById(removedId);
+        manager.close();
+
+        FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(file, JOURNALED);
+        assertEquals(1, restored.getAllTasks().size(), "Deleted task should not be restored");
+        assertEquals("Updated", restored.getAllTasks().get(0).getDescription(), "Update should be replayed");
+        assertEquals(Status.IN_PROGRESS, restored.getAllTasks().get(0).getStatus(), "Updated status should be replayed");
+        assertEquals(Status.DONE, restored.getAllEpics().get(0).getStatus(), "Epic status should be recalculated on replay");
+        assertEquals(1, restored.getAllSubtasks().size(), "Subtask should be restored");
+        restored.close();
+    }
+
+    @Test
+    void testCompactionTruncatesJournal() throws IOException {
+        manager = new FileBackedTaskManager(file, JOURNALED.withCompactionThreshold(3));
+        for (int i = 0; i < 7; i++) {
+            manager.addEpic(new Epic("Epic" + i, "Desc"));
+        }
+        File journal = FileBackedTaskManager.journalFileFor(file);
+        assertEquals(0, Files.readAllLines(journal.toPath()).size(), "Journal should be truncated after compaction");
+
+        manager.clearEpics();
+        manager.close();
+        assertEquals(1, Files.readAllLines(journal.toPath()).size(), "Mutations after compaction should be journaled");
+        assertTrue(FileBackedTaskManager.loadFromFile(file).getAllEpics().isEmpty(), "Clear should be replayed");
+    }
+
+    @Test
+    void testTornFinalRecordIsIgnored() throws IOException {
+        manager.addEpic(new Epic("Epic1", "Desc"));
+        manager.addEpic(new Epic("Epic2", "Desc"));
+        manager.close();
+        Files.writeString(FileBackedTaskManager.journalFileFor(file).toPath(), "ADD,99,EP",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(file, JOURNALED);
+        assertEquals(2, restored.getAllEpics().size(), "Intact records should be replayed");
+        restored.addEpic(new Epic("Epic3", "Desc"));
+        restored.close();
+        assertEquals(3, FileBackedTaskManager.loadFromFile(file, JOURNALED).getAllEpics().size(),
+                "Journal should stay readable after recovering from a torn record");
+    }
+
+    @Test
+    void testTruncatedRecordThatStillParsesIsTorn() throws IOException {
+        manager.addEpic(new Epic("Epic1", "Desc"));
+        manager.addEpic(new Epic("Epic2", "Long description"));
+        manager.close();
+        File journal = FileBackedTaskManager.journalFileFor(file);
+        String content = Files.readString(journal.toPath(), StandardCharsets.UTF_8);
+        Files.writeString(journal.toPath(), content.substring(0, content.length() - 6), StandardCharsets.UTF_8);
+
+        FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(file, JOURNALED);
+        assertEquals(List.of("Epic1"), names(restored.getAllEpics()), "Cut record should fail its checksum and be dropped");
+        restored.close();
+    }
+
+    @Test
+    void testCompleteRecordFailingReplayIsNotDropped() throws IOException {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        manager.addTask(new Task("Existing", "Desc", Status.NEW, Duration.ofMinutes(60), start));
+        manager.close();
+
+        File otherFile = new File(tempDir, "other.csv");
+        FileBackedTaskManager other = new FileBackedTaskManager(otherFile, JOURNALED);
+        other.addTask(new Task("First", "Desc", Status.NEW, Duration.ofMinutes(10), start.minusHours(2)));
+        other.addTask(new Task("Clash", "Desc", Status.NEW, Duration.ofMinutes(60), start.plusMinutes(30)));
+        other.close();
+        File journal = FileBackedTaskManager.journalFileFor(file);
+        Files.write(journal.toPath(), Files.readAllBytes(FileBackedTaskManager.journalFileFor(otherFile).toPath()),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        long length = journal.length();
+
+        assertThrows(IllegalStateException.class, () -> FileBackedTaskManager.loadFromFile(file, JOURNALED),
+                "A complete record that cannot be replayed should fail the load");
+        assertEquals(length, journal.length(), "The failing record should stay in the journal");
+    }
+
+    private static List<String> names(List<? extends Task> tasks) {
+        List<String> names = new ArrayList<>();
+        for (Task task : tasks) {
+            names.add(task.getName());
+        }
+        return names;
+    }
+
+    @Test
+    void testSnapshotModeFoldsJournal() {
+        manager.addEpic(new Epic("Epic1", "Desc"));
+        manager.addEpic(new Epic("Epic2", "Desc"));
+        manager.close();
+
+        FileBackedTaskManager restored = FileBackedTaskManager.loadFromFile(file);
+        assertEquals(2, restored.getAllEpics().size(), "Journal should be replayed in snapshot mode");
+        assertFalse(FileBackedTaskManager.journalFileFor(file).exists(), "Journal should be folded into the snapshot");
+    }
+}
@@ -1,10 +1,16 @@
 package com.yandex.app.service;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class ManagersTest {
+    @TempDir
+    File tempDir;
+
     @Test
     void getDefault() {
         TaskManager taskManager = Managers.getDefault();
@@ -17,6 +23,21 @@ class ManagersTest {
         assertNotNull(taskManager.getHistory(), "History should be initialized");
     }
 
+    @Test
+    void getConcurrent() {
+        TaskManager taskManager = Managers.getConcurrent();
+        assertTrue(taskManager instanceof ConcurrentTaskManager, "TaskManager is instance of ConcurrentTaskManager");
+        assertNotNull(taskManager.getHistory(), "History should be initialized");
+    }
+
+    @Test
+    void getTenants() {
+        try (TenantRegistry tenants = Managers.getTenants(tempDir)) {
+            assertNotNull(tenants.manager().getAllTasks(), "Default tenant should be loaded on first use");
+            assertEquals(1, tenants.loadedCount(), "Only the default tenant should be loaded");
+        }
+    }
+
     @Test
     void getDefaultHistory() {
         HistoryManager historyManager = Managers.getDefaultHistory();
@@ -0,0 +1,59 @@
+package com.yandex.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostingListTest {
+
+    @Test
+    void testAppendsCompressGaps() {
+        PostingList list = new PostingList();
+        for (int id = 1; id <= 1000; id++) {
+            list.add(id);
+        }
+        assertEquals(1000, list.size(), "Every id should be counted");
+        assertTrue(list.encodedBytes() < 1010, "Consecutive ids should take about a byte each");
+        assertEquals(1, list.toArray()[0], "Ids should decode in order");
+        assertEquals(1000, list.toArray()[999], "Last id should decode");
+    }
+
+    @Test
+    void testAbsentRemovesAndPresentAddsAreIgnored() {
+        PostingList list = new PostingList();
+        for (int id = 2; id <= 400; id += 2) {
+            list.add(id);
+        }
+        list.remove(3);
+        list.remove(1_000);
+        list.remove(-5);
+        list.add(100);
+        list.add(2);
+        assertEquals(200, list.size(), "Absent removes and repeated adds should change nothing");
+        assertEquals(200, list.toArray().length, "Decoding should agree with the size");
+        assertEquals(2, list.toArray()[0], "First id should be kept");
+    }
+
+    @Test
+    void testRandomAddsAndRemovesMatchSortedSet() {
+        PostingList list = new PostingList();
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(5_000) - 100;
+            if (random.nextBoolean()) {
+                list.remove(id);
+                expected.remove(id);
+            } else {
+                list.add(id);
+                expected.add(id);
+            }
+        }
+        assertEquals(expected.size(), list.size(), "Size should follow adds and removes");
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), list.toArray(),
+                "Decoded ids should match the sorted set");
+    }
+}
@@ -0,0 +1,102 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SearchIndexBenchmark {
+    private static final int TASKS = 1_000_000;
+    private static final int VOCABULARY = 20_000;
+    private static final int WORDS_PER_TASK = 8;
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "ro", "su", "ta", "vi", "de", "po", "gra", "ble"};
+
+    private InMemoryTaskManager manager;
+    private List<Task> allTasks;
+    private String[] words;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(42);
+        words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int n = i; word.length() == 0 || n > 0; n /= SYLLABLES.length) {
+                word.append(SYLLABLES[n % SYLLABLES.length]);
+            }
+            words[i] = word.toString();
+        }
+
+        List<Task> batch = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            batch.add(new Task(text(3), text(WORDS_PER_TASK - 3), Status.NEW, null, null));
+        }
+        manager = new InMemoryTaskManager();
+        manager.bulkLoad(batch);
+        allTasks = manager.getAllTasks();
+    }
+
+    @Benchmark
+    public List<Task> singleTerm() {
+        return manager.search(word(), 100);
+    }
+
+    @Benchmark
+    public List<Task> andQuery() {
+        return manager.search(word() + " " + word(), 100);
+    }
+
+    @Benchmark
+    public List<Task> orQuery() {
+        return manager.search(word() + " OR " + word(), 100);
+    }
+
+    @Benchmark
+    public List<Task> prefixQuery() {
+        String word = word();
+        return manager.search(word.substring(0, Math.min(4, word.length())) + "*", 100);
+    }
+
+    @Benchmark
+    public List<Task> linearScan() {
+        String word = word();
+        return allTasks.stream()
+                .filter(task -> contains(task.getName(), word) || contains(task.getDescription(), word))
+                .limit(100)
+                .collect(Collectors.toList());
+    }
+
+    private String text(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(words[skewed()]);
+        }
+        return text.toString();
+    }
+
+    private String word() {
+        return words[skewed()];
+    }
+
+    private int skewed() {
+        double u = random.nextDouble();
+        return (int) (VOCABULARY * u * u);
+    }
+
+    private static boolean contains(String text, String word) {
+        return text.toLowerCase(Locale.ROOT).contains(word);
+    }
+}
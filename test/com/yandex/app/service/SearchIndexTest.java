@@ -0,0 +1,86 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SearchIndex();
+        index.addAll(List.of(
+                task(3, "Fix login bug", "Users cannot log in"),
+                task(1, "Write release notes", "Login changes, API v2"),
+                task(2, "Обновить зависимости", "Gradle и Logback")));
+    }
+
+    @Test
+    void testTermsAreCaseInsensitiveWords() {
+        assertArrayEquals(new int[]{1, 3}, index.search("LOGIN"), "Both name and description should be indexed");
+        assertArrayEquals(new int[]{2}, index.search("зависимости"), "Non-Latin words should be indexed");
+        assertArrayEquals(new int[]{1}, index.search("v2"), "Digits should be part of words");
+        assertArrayEquals(new int[0], index.search("logi"), "Whole words should not match a prefix");
+    }
+
+    @Test
+    void testPrefixAndBooleanQueries() {
+        assertArrayEquals(new int[]{1, 2, 3}, index.search("log*"), "Prefix should match every word starting with it");
+        assertArrayEquals(new int[]{3}, index.search("login bug"), "Words should all have to match");
+        assertArrayEquals(new int[]{3}, index.search("login AND users"), "AND should be accepted");
+        assertArrayEquals(new int[]{1, 2}, index.search("release OR gradle"), "OR should match either group");
+        assertArrayEquals(new int[]{2, 3}, index.search("fix bug OR logb*"), "AND should bind tighter than OR");
+        assertArrayEquals(new int[0], index.search("login missing"), "Unknown word should match nothing");
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        Task renamed = task(3, "Fix signup bug", "Users cannot log in");
+        index.update(renamed);
+        assertArrayEquals(new int[]{1}, index.search("login"), "Dropped word should no longer match");
+        assertArrayEquals(new int[]{3}, index.search("signup"), "New word should match");
+
+        int terms = index.termCount();
+        index.remove(renamed.getId());
+        assertArrayEquals(new int[0], index.search("bug"), "Removed task should not match");
+        assertEquals(terms - 7, index.termCount(), "Terms no longer used should be dropped");
+    }
+
+    @Test
+    void testIdsShareTermInstances() {
+        index.add(task(20, new String("login".toCharArray()), null));
+        index.addAll(List.of(task(21, new String("login".toCharArray()), null)));
+
+        String shared = index.indexedTerms(3)[List.of(index.indexedTerms(3)).indexOf("login")];
+        assertSame(shared, index.indexedTerms(1)[List.of(index.indexedTerms(1)).indexOf("login")],
+                "Ids indexed in one batch should share the term");
+        assertSame(shared, index.indexedTerms(20)[0], "Later additions should reuse the indexed term");
+        assertSame(shared, index.indexedTerms(21)[0], "Later batches should reuse the indexed term");
+    }
+
+    @Test
+    void testInPlaceChangesUseIndexedTerms() {
+        Task task = task(10, "alpha", null);
+        index.add(task);
+        task.setName("beta");
+        index.update(task);
+        assertArrayEquals(new int[0], index.search("alpha"), "Old name should be dropped");
+        assertArrayEquals(new int[]{10}, index.search("beta"), "New name should match");
+
+        task.setName("gamma");
+        index.remove(task.getId());
+        index.remove(task.getId());
+        assertArrayEquals(new int[0], index.search("beta"), "Indexed terms should be removed, not the current ones");
+        assertArrayEquals(new int[0], index.search("gamma"), "Terms never indexed should not match");
+    }
+
+    private static Task task(int id, String name, String description) {
+        return new Task(id, name, description, Status.NEW, null, null);
+    }
+}
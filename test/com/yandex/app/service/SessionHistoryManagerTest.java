@@ -0,0 +1,97 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import com.yandex.app.util.ThreadScope;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionHistoryManagerTest {
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void testSessionsKeepSeparateHistories() {
+        SessionHistoryManager history = new SessionHistoryManager(10, 100, Duration.ofMinutes(1), clock::get);
+        view(history, "alice", 1);
+        view(history, "bob", 2);
+        history.add(task(3));
+
+        assertEquals(List.of(1), ids(history, "alice"), "Alice should see only her views");
+        assertEquals(List.of(2), ids(history, "bob"), "Bob should see only his views");
+        assertEquals(List.of(3), ids(history.getHistory()), "Calls outside a session should share one history");
+
+        view(history, "bob", 1);
+        history.remove(1);
+        assertTrue(ids(history, "alice").isEmpty(), "Removal should reach every session");
+        assertEquals(List.of(2), ids(history, "bob"), "Other entries should stay");
+    }
+
+    @Test
+    void testIdleSessionsExpire() {
+        SessionHistoryManager history = new SessionHistoryManager(10, 100, Duration.ofMinutes(1), clock::get);
+        view(history, "alice", 1);
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        view(history, "bob", 2);
+        clock.addAndGet(Duration.ofSeconds(45).toNanos());
+        view(history, "carol", 3);
+
+        assertEquals(2, history.sessionCount(), "Session idle past the timeout should be dropped");
+        assertTrue(ids(history, "alice").isEmpty(), "Expired session should start over");
+        assertEquals(List.of(2), ids(history, "bob"), "Active session should be kept");
+    }
+
+    @Test
+    void testSessionCountIsCappedByTotalNodes() {
+        SessionHistoryManager history = new SessionHistoryManager(10, 40, Duration.ofHours(1), clock::get);
+        for (int i = 0; i < 3; i++) {
+            clock.incrementAndGet();
+            view(history, "client" + i, i + 1);
+        }
+        clock.incrementAndGet();
+        view(history, "client0", 1);
+        clock.incrementAndGet();
+        view(history, "client3", 4);
+
+        assertEquals(3, history.sessionCount(), "Sessions should fit the node budget with the anonymous one");
+        assertTrue(ids(history, "client1").isEmpty(), "Least recently active session should be evicted");
+        assertEquals(List.of(1), ids(history, "client0"), "Recently active session should be kept");
+        assertThrows(IllegalArgumentException.class, () -> new SessionHistoryManager(10, 10, Duration.ofMinutes(1)),
+                "Budget should hold at least two sessions");
+    }
+
+    private static void view(HistoryManager history, String session, int id) {
+        ThreadScope.Binding scope = HistoryScope.enter(session);
+        try {
+            history.add(task(id));
+        } finally {
+            scope.close();
+        }
+    }
+
+    private static List<Integer> ids(HistoryManager history, String session) {
+        ThreadScope.Binding scope = HistoryScope.enter(session);
+        try {
+            return ids(history.getHistory());
+        } finally {
+            scope.close();
+        }
+    }
+
+    private static List<Integer> ids(List<Task> tasks) {
+        List<Integer> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    private static Task task(int id) {
+        return new Task(id, "Task " + id, "Desc", Status.NEW, null, null);
+    }
+}
@@ -0,0 +1,60 @@
+package com.yandex.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotCalendarTest {
+    private static final LocalDateTime START = LocalDateTime.of(2025, 6, 11, 10, 0);
+
+    @Test
+    void testReserveAndRelease() {
+        SlotCalendar calendar = new SlotCalendar(Duration.ofMinutes(1));
+        calendar.reserve(START, START.plusMinutes(30));
+
+        assertFalse(calendar.isFree(START.plusMinutes(30), START.plusMinutes(40)), "End minute should be reserved");
+        assertFalse(calendar.isFree(START.minusMinutes(10), START), "Start minute should be reserved");
+        assertTrue(calendar.isFree(START.plusMinutes(31), START.plusMinutes(40)), "Minutes after end should be free");
+
+        calendar.release(START, START.plusMinutes(30));
+        assertTrue(calendar.isFree(START, START.plusMinutes(30)), "Released range should be free");
+        assertEquals(0, calendar.allocatedPages(), "Empty pages should be dropped");
+    }
+
+    @Test
+    void testRangesSpanningPages() {
+        SlotCalendar calendar = new SlotCalendar(Duration.ofMinutes(1));
+        LocalDateTime end = START.plusDays(30);
+        calendar.reserve(START, end);
+
+        assertFalse(calendar.isFree(START.plusDays(12), START.plusDays(12)), "Middle of long range should be reserved");
+        assertTrue(calendar.isFree(end.plusMinutes(1), end.plusDays(1)), "Range after end should be free");
+        assertTrue(calendar.isFree(START.minusDays(1), START.minusMinutes(1)), "Range before start should be free");
+
+        calendar.release(START.plusDays(10), START.plusDays(20));
+        assertTrue(calendar.isFree(START.plusDays(10), START.plusDays(20)), "Released middle should be free");
+        assertFalse(calendar.isFree(START.plusDays(20), START.plusDays(20).plusMinutes(1)), "Boundary minute should stay reserved");
+    }
+
+    @Test
+    void testGranularity() {
+        SlotCalendar calendar = new SlotCalendar(Duration.ofMinutes(15));
+        calendar.reserve(START, START.plusMinutes(5));
+
+        assertFalse(calendar.isFree(START.plusMinutes(10), START.plusMinutes(12)), "Same quarter hour should conflict");
+        assertTrue(calendar.isFree(START.plusMinutes(15), START.plusMinutes(20)), "Next quarter hour should be free");
+        assertThrows(IllegalArgumentException.class, () -> new SlotCalendar(Duration.ZERO), "Zero granularity should be rejected");
+    }
+
+    @Test
+    void testDatesBeforeEpoch() {
+        SlotCalendar calendar = new SlotCalendar(Duration.ofMinutes(1));
+        LocalDateTime start = LocalDateTime.of(1960, 1, 1, 0, 0);
+        calendar.reserve(start, start.plusHours(1));
+        assertFalse(calendar.isFree(start.plusMinutes(59), start.plusMinutes(59)), "Reservations before epoch should work");
+        assertTrue(calendar.isFree(start.plusMinutes(61), start.plusMinutes(70)), "Range after end should be free");
+    }
+}
@@ -0,0 +1,92 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Subtask;
+import com.yandex.app.util.IntMap;
+import com.yandex.app.util.IntSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap retained by the id-keyed structures of a manager holding {@link #TASKS} subtasks
+ * spread over {@link #EPICS} epics: the subtask store, the per-epic subtask index and
+ * each epic's own list of subtask ids. The tasks themselves are allocated up front and
+ * not counted. The result is the {@code bytesPerTask} counter; the time score only
+ * reflects the forced collections around each build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g", "-XX:+UseSerialGC"})
+public class StoreFootprintBenchmark {
+    private static final int TASKS = 1_000_000;
+    private static final int EPICS = 10_000;
+
+    @Param({"hashMap", "treeMap", "intMap"})
+    private String layout;
+
+    private Subtask[] subtasks;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public double bytesPerTask;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        subtasks = new Subtask[TASKS];
+        for (int i = 0; i < TASKS; i++) {
+            subtasks[i] = new Subtask(EPICS + 1 + i % EPICS, EPICS + 1 + i, "Sub", "Desc", Status.NEW, null, null);
+        }
+    }
+
+    @Benchmark
+    public Object buildStores(Footprint footprint) {
+        long before = usedHeap();
+        Object stores = layout.equals("intMap") ? primitive() : boxed(layout.equals("treeMap") ? new TreeMap<>() : new HashMap<>());
+        footprint.bytesPerTask = (usedHeap() - before) / (double) TASKS;
+        return stores;
+    }
+
+    private Object boxed(Map<Integer, Subtask> store) {
+        Map<Integer, Set<Integer>> byEpic = new HashMap<>();
+        Map<Integer, List<Integer>> epicLists = new HashMap<>();
+        for (Subtask subtask : subtasks) {
+            store.put(subtask.getId(), subtask);
+            byEpic.computeIfAbsent(subtask.getEpicId(), id -> new LinkedHashSet<>()).add(subtask.getId());
+            epicLists.computeIfAbsent(subtask.getEpicId(), id -> new ArrayList<>()).add(subtask.getId());
+        }
+        return new Object[]{store, byEpic, epicLists};
+    }
+
+    private Object primitive() {
+        IntMap<Subtask> store = new IntMap<>();
+        IntMap<IntSet> byEpic = new IntMap<>();
+        IntMap<IntSet> epicLists = new IntMap<>();
+        for (Subtask subtask : subtasks) {
+            store.put(subtask.getId(), subtask);
+            byEpic.computeIfAbsent(subtask.getEpicId(), id -> new IntSet()).add(subtask.getId());
+            epicLists.computeIfAbsent(subtask.getEpicId(), id -> new IntSet()).add(subtask.getId());
+        }
+        return new Object[]{store, byEpic, epicLists};
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
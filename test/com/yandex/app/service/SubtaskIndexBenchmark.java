@@ -0,0 +1,70 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Epic;
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Subtask;
+import com.yandex.app.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SubtaskIndexBenchmark {
+    private static final int EPICS = 10_000;
+    private static final int SUBTASKS = 1_000_000;
+
+    private InMemoryTaskManager manager;
+    private List<Subtask> allSubtasks;
+    private int[] epicIds;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = new InMemoryTaskManager();
+        epicIds = new int[EPICS];
+        for (int i = 0; i < EPICS; i++) {
+            epicIds[i] = manager.addEpic(new Epic("Epic " + i, "Desc"));
+        }
+        List<Task> batch = new ArrayList<>(SUBTASKS);
+        for (int i = 0; i < SUBTASKS; i++) {
+            batch.add(new Subtask(epicIds[i % EPICS], "Sub " + i, "Desc", Status.NEW, null, null));
+        }
+        manager.bulkLoad(batch);
+        allSubtasks = manager.getAllSubtasks();
+    }
+
+    @Benchmark
+    public List<Subtask> indexedLookup() {
+        return manager.getSubtasksByEpicId(nextEpic());
+    }
+
+    @Benchmark
+    public List<Subtask> linearScan() {
+        int epicId = nextEpic();
+        return allSubtasks.stream()
+                .filter(subtask -> subtask.getEpicId() == epicId)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @Benchmark
+    public void deleteAndRestoreEpic() {
+        int epicId = nextEpic();
+        Epic epic = manager.getEpic(epicId).orElseThrow();
+        List<Task> restored = new ArrayList<>(manager.getSubtasksByEpicId(epicId));
+        manager.deleteEpicById(epicId);
+        restored.add(0, new Epic(epicId, epic.getName(), epic.getDescription()));
+        manager.bulkLoad(restored);
+    }
+
+    private int nextEpic() {
+        return epicIds[cursor++ % EPICS];
+    }
+}
@@ -6,6 +6,10 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -110,6 +114,17 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals(task1, manager.getPrioritizedTasks().get(1), "Task with later startTime should be second");
     }
 
+    @Test
+    void testUpdateScheduledTaskInPlace() {
+        LocalDateTime now = LocalDateTime.now();
+        Task task = new Task("Task", "Desc", Status.NEW, Duration.ofMinutes(60), now);
+        int id = manager.addTask(task);
+        Task moved = new Task(id, "Task", "Desc", Status.IN_PROGRESS, Duration.ofMinutes(60), now.plusMinutes(30));
+        assertDoesNotThrow(() -> manager.updateTask(moved), "Task should not overlap its own previous interval");
+        Task blocker = new Task("Blocker", "Desc", Status.NEW, Duration.ofMinutes(10), now.plusMinutes(80));
+        assertThrows(IllegalStateException.class, () -> manager.addTask(blocker), "Should overlap the moved interval");
+    }
+
     @Test
     void testTimeSlotReservation() {
         LocalDateTime now = LocalDateTime.now();
@@ -118,4 +133,420 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         Task task2 = new Task("Task2", "Desc", Status.NEW, Duration.ofMinutes(15), now.plusMinutes(15));
         assertThrows(IllegalStateException.class, () -> manager.addTask(task2), "Should detect time slot overlap");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testBulkLoadLargeEpic() {
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        List<Subtask> batch = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            Status status = i == 0 ? Status.DONE : Status.NEW;
+            batch.add(new Subtask(epicId, "Sub" + i, "Desc", status, Duration.ofMinutes(1), start.plusMinutes(2L * i)));
+        }
+        Collections.shuffle(batch, new Random(7));
+        manager.bulkLoad(batch);
+
+        Epic epic = manager.getEpic(epicId).orElseThrow();
+        assertEquals(50_000, manager.getSubtasksByEpicId(epicId).size(), "Every subtask should be linked to the epic");
+        assertEquals(Status.IN_PROGRESS, epic.getStatus(), "Epic status should be recomputed");
+        assertEquals(Duration.ofMinutes(50_000), epic.getDuration(), "Epic duration should be recomputed");
+        assertEquals(start, epic.getStartTime(), "Epic start should be the earliest subtask start");
+        assertEquals(start, manager.getPrioritizedTasks().get(0).getStartTime(), "Prioritized tasks should be ordered");
+    }
+
+    @Test
+    void testBulkLoadMixedIdsKeepsEveryItem() {
+        Task generated = new Task("Generated", "Desc", Status.NEW, null, null);
+        manager.bulkLoad(List.of(generated,
+                new Task(1, "One", "Desc", Status.NEW, null, null),
+                new Task(2, "Two", "Desc", Status.NEW, null, null),
+                new Task(3, "Three", "Desc", Status.NEW, null, null)));
+
+        assertEquals(4, manager.getAllTasks().size(), "Every item of the batch should be stored");
+        assertTrue(generated.getId() > 3, "Generated id should skip ids set explicitly later in the batch");
+        assertEquals("Generated", manager.getTask(generated.getId()).orElseThrow().getName(), "Generated item should keep its id");
+        assertEquals("One", manager.getTask(1).orElseThrow().getName(), "Explicit item should keep its id");
+    }
+
+    @Test
+    void testBulkLoadRejectsOverlapAtomically() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 10, 0);
+        manager.addTask(new Task("Existing", "Desc", Status.NEW, Duration.ofMinutes(30), now));
+        List<Task> clashWithExisting = List.of(
+                new Task("Free", "Desc", Status.NEW, Duration.ofMinutes(30), now.plusHours(1)),
+                new Task("Clash", "Desc", Status.NEW, Duration.ofMinutes(30), now.plusMinutes(10)));
+        List<Task> clashWithinBatch = List.of(
+                new Task("First", "Desc", Status.NEW, Duration.ofMinutes(30), now.plusHours(3)),
+                new Task("Second", "Desc", Status.NEW, Duration.ofMinutes(30), now.plusHours(3).plusMinutes(20)));
+
+        assertThrows(IllegalStateException.class, () -> manager.bulkLoad(clashWithExisting), "Should detect overlap with stored tasks");
+        assertThrows(IllegalStateException.class, () -> manager.bulkLoad(clashWithinBatch), "Should detect overlap inside the batch");
+        assertEquals(1, manager.getAllTasks().size(), "Rejected batches should not be inserted");
+        assertDoesNotThrow(() -> manager.addTask(new Task("Later", "Desc", Status.NEW, Duration.ofMinutes(30), now.plusHours(1))),
+                "Rejected batches should release their time slots");
+    }
+
+    @Test
+    void testEpicAggregatesStayConsistent() {
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        int otherEpicId = manager.addEpic(new Epic("Other", "Desc"));
+        LocalDateTime start = LocalDateTime.of(2030, 2, 1, 9, 0);
+        int first = manager.addSubtask(new Subtask(epicId, "Sub1", "Desc", Status.NEW, Duration.ofMinutes(30), start));
+        int second = manager.addSubtask(new Subtask(epicId, "Sub2", "Desc", Status.DONE, Duration.ofMinutes(45), start.plusHours(1)));
+        manager.addSubtask(new Subtask(epicId, "Sub3", "Desc", Status.IN_PROGRESS, null, null));
+        assertEpicsConsistent();
+
+        manager.updateSubtask(new Subtask(epicId, first, "Sub1", "Desc", Status.DONE, Duration.ofMinutes(15), start.plusHours(3)));
+        assertEpicsConsistent();
+        manager.updateSubtask(new Subtask(otherEpicId, second, "Sub2", "Desc", Status.DONE, Duration.ofMinutes(45), start.plusHours(1)));
+        assertEpicsConsistent();
+        manager.updateEpic(new Epic(epicId, "Renamed", "Desc"));
+        assertEpicsConsistent();
+        manager.deleteSubtaskById(first);
+        assertEpicsConsistent();
+        manager.clearSubtasks();
+        assertEpicsConsistent();
+    }
+
+    @Test
+    void testSubtaskChangesDoNotTouchHistory() {
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        LocalDateTime start = LocalDateTime.of(2030, 3, 1, 9, 0);
+        int first = manager.addSubtask(new Subtask(epicId, "Sub1", "Desc", Status.NEW, Duration.ofMinutes(30), start));
+        int second = manager.addSubtask(new Subtask(epicId, "Sub2", "Desc", Status.NEW, Duration.ofMinutes(30), start.plusHours(1)));
+        manager.getEpic(epicId);
+        List<Task> before = manager.getHistory();
+
+        manager.updateSubtask(new Subtask(epicId, first, "Sub1", "Desc", Status.DONE, Duration.ofMinutes(30), start));
+        manager.deleteSubtaskById(second);
+        manager.updateEpic(new Epic(epicId, "Renamed", "Desc"));
+        Epic copy = new Epic("Copy", "Desc");
+        copy.addSubtaskId(first);
+        manager.addEpic(copy);
+
+        assertEquals(before, manager.getHistory(), "Epic aggregation should not record subtasks in history");
+    }
+
+    @Test
+    void testAddEpicOnlyTakesItsOwnSubtasks() {
+        int ownerId = manager.addEpic(new Epic("Owner", "Desc"));
+        int sub = manager.addSubtask(new Subtask(ownerId, "Sub", "Desc", Status.DONE, Duration.ofMinutes(30),
+                LocalDateTime.of(2030, 2, 1, 9, 0)));
+        Epic claimant = new Epic("Claimant", "Desc");
+        claimant.addSubtaskId(sub);
+        int claimantId = manager.addEpic(claimant);
+
+        Epic stored = manager.getEpic(claimantId).orElseThrow();
+        assertTrue(stored.getSubtaskIds().isEmpty(), "Foreign subtask ids should be dropped");
+        assertEquals(Status.NEW, stored.getStatus(), "Status should not come from another epic's subtask");
+        assertNull(stored.getDuration(), "Duration should not come from another epic's subtask");
+
+        manager.deleteSubtaskById(sub);
+        assertEquals(2, (int) manager.countByStatus(TaskType.EPIC).get(Status.NEW), "Both epics should count as new");
+        assertEquals(0, (int) manager.countByStatus(TaskType.EPIC).get(Status.DONE), "No epic should count as done");
+    }
+
+    @Test
+    void testSubtasksByEpicIndex() {
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        int otherEpicId = manager.addEpic(new Epic("Other", "Desc"));
+        int first = manager.addSubtask(new Subtask(epicId, "Sub1", "Desc", Status.NEW, null, null));
+        int second = manager.addSubtask(new Subtask(epicId, "Sub2", "Desc", Status.NEW, null, null));
+        int other = manager.addSubtask(new Subtask(otherEpicId, "Sub3", "Desc", Status.NEW, null, null));
+
+        manager.updateSubtask(new Subtask(otherEpicId, second, "Sub2", "Desc", Status.NEW, null, null));
+        assertEquals(List.of(first), ids(manager.getSubtasksByEpicId(epicId)), "Moved subtask should leave the old epic");
+        assertEquals(List.of(other, second), ids(manager.getSubtasksByEpicId(otherEpicId)), "Moved subtask should join the new epic");
+
+        manager.deleteEpicById(otherEpicId);
+        assertTrue(manager.getSubtasksByEpicId(otherEpicId).isEmpty(), "Deleted epic should have no subtasks");
+        assertEquals(List.of(first), ids(manager.getAllSubtasks()), "Only the deleted epic's subtasks should be removed");
+
+        manager.clearSubtasks();
+        assertTrue(manager.getSubtasksByEpicId(epicId).isEmpty(), "Cleared subtasks should leave the index");
+        assertTrue(manager.getEpic(epicId).orElseThrow().getSubtaskIds().isEmpty(), "Cleared subtasks should leave the epic");
+    }
+
+    @Test
+    void testSubtaskOrderSurvivesDeletion() {
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        List<Integer> added = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            added.add(manager.addSubtask(new Subtask(epicId, "Sub" + i, "Desc", Status.NEW, null, null)));
+        }
+
+        manager.deleteSubtaskById(added.get(0));
+        manager.deleteSubtaskById(added.get(2));
+        List<Integer> expected = List.of(added.get(1), added.get(3), added.get(4));
+        assertEquals(expected, ids(manager.getSubtasksByEpicId(epicId)), "Subtasks should keep insertion order");
+        assertEquals(expected, manager.getEpic(epicId).orElseThrow().getSubtaskIds(), "Epic should keep insertion order");
+    }
+
+    @Test
+    void testQueryPagesByIdAcrossTypes() {
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        int task1 = manager.addTask(new Task("Task1", "Desc", Status.DONE, null, null));
+        int sub = manager.addSubtask(new Subtask(epicId, "Sub", "Desc", Status.DONE, null, null));
+        int task2 = manager.addTask(new Task("Task2", "Desc", Status.NEW, null, null));
+
+        TaskPage first = manager.query(TaskQuery.all().withLimit(2));
+        assertEquals(List.of(epicId, task1), ids(first.getItems()), "First page should follow id order across types");
+        assertTrue(first.hasNext(), "Full page should carry a cursor");
+
+        int task3 = manager.addTask(new Task("Task3", "Desc", Status.NEW, null, null));
+        TaskPage second = manager.query(TaskQuery.all().withLimit(2).withCursor(first.getNextCursor()));
+        assertEquals(List.of(sub, task2), ids(second.getItems()), "Insert after the first page should not shift it");
+        TaskPage third = manager.query(TaskQuery.all().withLimit(2).withCursor(second.getNextCursor()));
+        assertEquals(List.of(task3), ids(third.getItems()), "New task should appear on the last page");
+        assertFalse(third.hasNext(), "Last page should have no cursor");
+
+        TaskPage done = manager.query(TaskQuery.of(TaskType.TASK, TaskType.SUBTASK).withStatus(Status.DONE));
+        assertEquals(List.of(task1, sub), ids(done.getItems()), "Status filter should apply to every type");
+        assertThrows(IllegalArgumentException.class, () -> manager.query(TaskQuery.all().withCursor("x")),
+                "Malformed cursor should be rejected");
+    }
+
+    @Test
+    void testQueryByStartTimeRange() {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 9, 0);
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        int sub = manager.addSubtask(new Subtask(epicId, "Sub", "Desc", Status.NEW, Duration.ofMinutes(30), base.plusHours(2)));
+        int late = manager.addTask(new Task("Late", "Desc", Status.NEW, Duration.ofMinutes(30), base.plusHours(4)));
+        int early = manager.addTask(new Task("Early", "Desc", Status.NEW, Duration.ofMinutes(30), base));
+        manager.addTask(new Task("Unscheduled", "Desc", Status.NEW, null, null));
+
+        TaskQuery byStart = TaskQuery.all().withSort(TaskSort.START_TIME);
+        assertEquals(List.of(early, epicId, sub, late), ids(manager.query(byStart).getItems()),
+                "Scheduled items should be ordered by start time, ties by id");
+
+        TaskQuery window = TaskQuery.of(TaskType.TASK, TaskType.SUBTASK).withSort(TaskSort.START_TIME)
+                .withStartBetween(base, base.plusHours(4)).withLimit(1);
+        TaskPage page = manager.query(window);
+        assertEquals(List.of(early), ids(page.getItems()), "Range should start at its lower bound");
+        page = manager.query(window.withCursor(page.getNextCursor()));
+        assertEquals(List.of(sub), ids(page.getItems()), "Cursor should continue after the previous page");
+        assertFalse(page.hasNext(), "Upper bound should be exclusive");
+
+        TaskPage tasksById = manager.query(TaskQuery.of(TaskType.TASK).withStartBetween(base.plusHours(1), null));
+        assertEquals(List.of(late), ids(tasksById.getItems()), "Range filter should apply in id order too");
+    }
+
+    @Test
+    void testQueryFollowsEpicStartChanges() {
+        LocalDateTime base = LocalDateTime.of(2025, 4, 1, 9, 0);
+        int task = manager.addTask(new Task("Task", "Desc", Status.NEW, Duration.ofMinutes(30), base.plusHours(3)));
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        int sub = manager.addSubtask(new Subtask(epicId, "Sub", "Desc", Status.NEW, Duration.ofMinutes(30), base.plusHours(5)));
+        TaskQuery byStart = TaskQuery.all().withSort(TaskSort.START_TIME);
+        assertEquals(List.of(task, epicId, sub), ids(manager.query(byStart).getItems()), "Epic should start with its subtask");
+
+        manager.updateSubtask(new Subtask(epicId, sub, "Sub", "Desc", Status.NEW, Duration.ofMinutes(30), base));
+        assertEquals(List.of(epicId, sub, task), ids(manager.query(byStart).getItems()), "Epic should move with its subtask");
+        manager.updateEpic(new Epic(epicId, "Renamed", "Desc"));
+        assertEquals(List.of(epicId, sub, task), ids(manager.query(byStart).getItems()), "Replaced epic should keep its place");
+
+        manager.deleteSubtaskById(sub);
+        assertEquals(List.of(task), ids(manager.query(byStart).getItems()), "Epic without subtasks should be unscheduled");
+        manager.addSubtask(new Subtask(epicId, "Sub2", "Desc", Status.NEW, Duration.ofMinutes(30), base.plusHours(1)));
+        manager.deleteEpicById(epicId);
+        assertEquals(List.of(task), ids(manager.query(byStart).getItems()), "Deleted epic should leave the index");
+    }
+
+    @Test
+    void testQueryPagesWindowById() {
+        LocalDateTime base = LocalDateTime.of(2025, 5, 1, 9, 0);
+        List<Integer> inside = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int id = manager.addTask(new Task("Task" + i, "Desc", Status.NEW, Duration.ofMinutes(30), base.plusHours(10 - i)));
+            if (i >= 1 && i <= 4) {
+                inside.add(id);
+            }
+        }
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        manager.addSubtask(new Subtask(epicId, "Sub", "Desc", Status.NEW, Duration.ofMinutes(30), base.plusHours(20)));
+        manager.addTask(new Task("Unscheduled", "Desc", Status.NEW, null, null));
+
+        TaskQuery window = TaskQuery.all().withStartBetween(base.plusHours(6), base.plusHours(10)).withLimit(3);
+        TaskPage first = manager.query(window);
+        assertEquals(inside.subList(0, 3), ids(first.getItems()), "Window should be paged in id order");
+        TaskPage second = manager.query(window.withCursor(first.getNextCursor()));
+        assertEquals(inside.subList(3, 4), ids(second.getItems()), "Cursor should continue in id order");
+        assertFalse(second.hasNext(), "Last page should have no cursor");
+    }
+
+    @Test
+    void testStatusIndexFollowsMutations() {
+        int taskId = manager.addTask(new Task("Task", "Desc", Status.NEW, null, null));
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        int otherEpicId = manager.addEpic(new Epic("Other", "Desc"));
+        int sub1 = manager.addSubtask(new Subtask(epicId, "Sub1", "Desc", Status.DONE, null, null));
+        int sub2 = manager.addSubtask(new Subtask(epicId, "Sub2", "Desc", Status.NEW, null, null));
+
+        assertEquals(List.of(epicId), ids(manager.findByStatus(TaskType.EPIC, Status.IN_PROGRESS)),
+                "Mixed subtasks should put the epic in progress");
+        assertEquals(List.of(otherEpicId), ids(manager.findByStatus(TaskType.EPIC, Status.NEW)), "Empty epic should be NEW");
+
+        manager.updateTask(new Task(taskId, "Task", "Desc", Status.DONE, null, null));
+        manager.updateSubtask(new Subtask(otherEpicId, sub2, "Sub2", "Desc", Status.NEW, null, null));
+        assertEquals(1, (int) manager.countByStatus(TaskType.TASK).get(Status.DONE), "Updated task should move to DONE");
+        assertEquals(0, (int) manager.countByStatus(TaskType.TASK).get(Status.NEW), "Updated task should leave NEW");
+        assertEquals(List.of(epicId), ids(manager.findByStatus(TaskType.EPIC, Status.DONE)),
+                "Epic left with done subtasks should become DONE");
+        assertEquals(List.of(otherEpicId), ids(manager.findByStatus(TaskType.EPIC, Status.NEW)),
+                "Epic receiving a new subtask should stay NEW");
+
+        manager.deleteSubtaskById(sub1);
+        assertEquals(List.of(sub2), ids(manager.findByStatus(TaskType.SUBTASK, Status.NEW)), "Deleted subtask should leave the index");
+        assertEquals(0, (int) manager.countByStatus(TaskType.SUBTASK).get(Status.DONE), "No subtask should be DONE");
+        assertEquals(List.of(epicId, otherEpicId), ids(manager.findByStatus(TaskType.EPIC, Status.NEW)),
+                "Epic without subtasks should go back to NEW");
+
+        TaskPage page = manager.query(TaskQuery.all().withStatus(Status.NEW));
+        assertEquals(List.of(epicId, otherEpicId, sub2), ids(page.getItems()), "Status query should use id order");
+
+        manager.clearEpics();
+        manager.clearTasks();
+        for (TaskType type : TaskType.values()) {
+            for (int count : manager.countByStatus(type).values()) {
+                assertEquals(0, count, "Cleared stores should leave empty indexes");
+            }
+        }
+    }
+
+    @Test
+    void testPrioritizedKeepsTasksWithEqualStart() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 9, 0);
+        int first = manager.addTask(new Task("First", "Desc", Status.NEW, null, start));
+        int second = manager.addTask(new Task("Second", "Desc", Status.NEW, null, start));
+
+        assertEquals(List.of(first, second), ids(manager.getPrioritizedTasks()), "Equal starts should be ordered by id");
+        manager.deleteTaskById(second);
+        assertEquals(List.of(first), ids(manager.getPrioritizedTasks()), "Only the deleted task should leave the order");
+    }
+
+    @Test
+    void testTimeWindowQueries() {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 9, 0);
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        int morning = manager.addTask(new Task("Morning", "Desc", Status.NEW, Duration.ofHours(2), base));
+        int noon = manager.addSubtask(new Subtask(epicId, "Noon", "Desc", Status.NEW, Duration.ofHours(1), base.plusHours(3)));
+        int marker = manager.addTask(new Task("Marker", "Desc", Status.NEW, null, base.plusHours(3)));
+        int evening = manager.addTask(new Task("Evening", "Desc", Status.NEW, Duration.ofHours(1), base.plusHours(8)));
+
+        assertEquals(List.of(noon, marker), ids(manager.tasksStartingBetween(base.plusHours(1), base.plusHours(8))),
+                "Window should include its start and exclude its end");
+        assertTrue(manager.tasksStartingBetween(base.plusHours(8), base).isEmpty(), "Reversed window should be empty");
+
+        assertEquals(List.of(morning), ids(manager.tasksActiveAt(base.plusMinutes(90))), "Running task should be active");
+        assertEquals(List.of(noon), ids(manager.tasksActiveAt(base.plusHours(3))), "Task should be active from its start");
+        assertTrue(manager.tasksActiveAt(base.plusHours(2)).isEmpty(), "Task should not be active at its end");
+        assertTrue(manager.tasksActiveAt(base.plusHours(6)).isEmpty(), "Gap should have no active task");
+
+        assertEquals(List.of(noon, marker), ids(manager.nextTasks(base.plusMinutes(1), 2)), "Next tasks should be capped");
+        assertEquals(List.of(evening), ids(manager.nextTasks(base.plusHours(4), 10)), "Next tasks should start at the given time");
+        assertThrows(IllegalArgumentException.class, () -> manager.nextTasks(base, 0), "Limit should be positive");
+    }
+
+    @Test
+    void testActiveLookupIgnoresItemsWithoutDuration() {
+        LocalDateTime base = LocalDateTime.of(2025, 6, 1, 9, 0);
+        int running = manager.addTask(new Task("Running", "Desc", Status.NEW, Duration.ofHours(10), base));
+        for (int i = 1; i <= 100; i++) {
+            manager.addTask(new Task("Marker" + i, "Desc", Status.NEW, null, base.plusMinutes(i)));
+        }
+
+        assertEquals(List.of(running), ids(manager.tasksActiveAt(base.plusHours(5))), "Markers should not hide the running task");
+        manager.deleteTaskById(running);
+        assertTrue(manager.tasksActiveAt(base.plusHours(5)).isEmpty(), "Deleted task should no longer be active");
+    }
+
+    @Test
+    void testExplicitIdsAdvanceTheAllocator() {
+        manager.addTask(new Task(100, "Explicit", "Desc", Status.NEW, null, null));
+        int generated = manager.addTask(new Task("Generated", "Desc", Status.NEW, null, null));
+        assertTrue(generated > 100, "Generated ids should not collide with explicit ones");
+
+        T other = createTaskManager();
+        int otherId = other.addEpic(new Epic("Epic", "Desc"));
+        assertTrue(otherId < 100, "Managers should allocate ids independently");
+    }
+
+    @Test
+    void testSearchFollowsMutations() {
+        int taskId = manager.addTask(new Task("Prepare report", "Quarterly numbers", Status.NEW, null, null));
+        int epicId = manager.addEpic(new Epic("Report automation", "Generate the report nightly"));
+        int subtaskId = manager.addSubtask(new Subtask(epicId, "Schedule job", "Cron for the report", Status.NEW, null, null));
+
+        assertEquals(List.of(taskId, epicId, subtaskId), ids(manager.search("report", 10)), "Every kind should be searchable");
+        assertEquals(List.of(taskId, epicId), ids(manager.search("report", 2)), "Limit should cap the results");
+        assertEquals(List.of(epicId, subtaskId), ids(manager.search("nightly OR cron", 10)), "OR should combine matches");
+
+        manager.updateTask(new Task(taskId, "Prepare summary", "Quarterly numbers", Status.NEW, null, null));
+        manager.deleteSubtaskById(subtaskId);
+        assertEquals(List.of(epicId), ids(manager.search("report", 10)), "Updated and deleted items should leave the index");
+        assertEquals(List.of(taskId), ids(manager.search("summ*", 10)), "Updated name should be searchable by prefix");
+
+        manager.clearEpics();
+        assertTrue(manager.search("automation", 10).isEmpty(), "Cleared epics should leave the index");
+    }
+
+    @Test
+    void testSearchFollowsInPlaceUpdates() {
+        int renamedId = manager.addTask(new Task("alpha", "Desc", Status.NEW, null, null));
+        int otherId = manager.addTask(new Task("beta", "Desc", Status.NEW, null, null));
+
+        Task renamed = manager.getTask(renamedId).orElseThrow();
+        renamed.setName("beta");
+        manager.updateTask(renamed);
+        assertEquals(List.of(renamedId, otherId), ids(manager.search("beta", 10)), "Renamed task should be found");
+
+        manager.deleteTaskById(renamedId);
+        assertEquals(List.of(otherId), ids(manager.search("beta", 10)), "Unrelated task should stay searchable");
+        assertTrue(manager.search("alpha", 10).isEmpty(), "Deleted task should not be found by its old name");
+    }
+
+    @Test
+    void testVersionsAndModificationCountsFollowMutations() {
+        long tasksBefore = manager.modificationCount(TaskType.TASK);
+        Task task = new Task("Task", "Desc", Status.NEW, null, null);
+        int taskId = manager.addTask(task);
+        long added = task.getVersion();
+        assertTrue(manager.modificationCount(TaskType.TASK) > tasksBefore, "Adding a task should count as a change");
+
+        manager.updateTask(new Task(taskId, "Task", "Desc", Status.DONE, null, null));
+        Task updated = manager.getTask(taskId).orElseThrow();
+        assertTrue(updated.getVersion() > added, "Update should move the version forward");
+        assertEquals(updated.getVersion(), manager.modificationCount(TaskType.TASK), "Counter should match the last change");
+
+        int epicId = manager.addEpic(new Epic("Epic", "Desc"));
+        long epicVersion = manager.getEpic(epicId).orElseThrow().getVersion();
+        long epics = manager.modificationCount(TaskType.EPIC);
+        long tasks = manager.modificationCount(TaskType.TASK);
+        int subtaskId = manager.addSubtask(new Subtask(epicId, "Sub", "Desc", Status.DONE, null, null));
+        assertTrue(manager.getEpic(epicId).orElseThrow().getVersion() > epicVersion, "Recomputed epic should get a new version");
+        assertTrue(manager.modificationCount(TaskType.EPIC) > epics, "Epic recompute should count as an epic change");
+        assertEquals(tasks, manager.modificationCount(TaskType.TASK), "Other collections should be left alone");
+
+        long subtasks = manager.modificationCount(TaskType.SUBTASK);
+        manager.deleteSubtaskById(subtaskId);
+        assertTrue(manager.modificationCount(TaskType.SUBTASK) > subtasks, "Deletion should count as a change");
+        long afterDelete = manager.modificationCount(TaskType.SUBTASK);
+        manager.clearSubtasks();
+        assertTrue(manager.modificationCount(TaskType.SUBTASK) > afterDelete, "Clearing should count as a change");
+    }
+
+    private static List<Integer> ids(List<? extends Task> tasks) {
+        List<Integer> ids = new ArrayList<>();
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    private void assertEpicsConsistent() {
+        for (Epic epic : manager.getAllEpics()) {
+            assertDoesNotThrow(() -> epic.verifyAggregates(manager.getSubtasksByEpicId(epic.getId())),
+                    "Epic aggregates should match a full recompute");
+        }
+    }
+}
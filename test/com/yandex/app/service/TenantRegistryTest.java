@@ -0,0 +1,144 @@
+package com.yandex.app.service;
+
+import com.yandex.app.model.Status;
+import com.yandex.app.model.Task;
+import com.yandex.app.util.ThreadScope;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantRegistryTest {
+    @TempDir
+    File tempDir;
+
+    @Test
+    void testTenantsAreIsolated() {
+        try (TenantRegistry registry = new TenantRegistry(tempDir, StorageOptions.defaults().withJournal(true),
+                TenantRegistry.DEFAULT_MEMORY_BUDGET, TenantRegistry.DEFAULT_IDLE_TIMEOUT)) {
+            TaskManager manager = registry.manager();
+            int alphaId = inTenant("alpha", () -> manager.addTask(new Task("Alpha", "Desc", Status.NEW, null, null)));
+            int betaId = inTenant("beta", () -> manager.addTask(new Task("Beta", "Desc", Status.NEW, null, null)));
+
+            assertEquals(alphaId, betaId, "Each tenant should allocate its own ids");
+            assertEquals("Alpha", inTenant("alpha", () -> manager.getTask(alphaId).orElseThrow().getName()),
+                    "Alpha should see its own task");
+            assertEquals("Beta", inTenant("beta", () -> manager.getTask(betaId).orElseThrow().getName()),
+                    "Beta should see its own task");
+            assertTrue(manager.getAllTasks().isEmpty(), "Calls outside a scope should go to the default tenant");
+            assertEquals(3, registry.loadedCount(), "Alpha, beta and the default tenant should be loaded");
+            assertThrows(IllegalArgumentException.class, () -> inTenant("../escape", manager::getAllTasks),
+                    "Keys that are not plain names should be rejected");
+        }
+    }
+
+    @Test
+    void testBudgetEvictsLeastRecentlyUsedAndReloads() {
+        long budget = 3 * (64 << 10) / 2;
+        try (TenantRegistry registry = new TenantRegistry(tempDir, StorageOptions.defaults().withJournal(true),
+                budget, TenantRegistry.DEFAULT_IDLE_TIMEOUT)) {
+            TaskManager manager = registry.manager();
+            int id = inTenant("alpha", () -> manager.addTask(new Task("Alpha", "Desc", Status.NEW, null, null)));
+            inTenant("beta", manager::getAllTasks);
+
+            assertFalse(registry.isLoaded("alpha"), "Loading beta should evict alpha to stay within the budget");
+            assertTrue(registry.isLoaded("beta"), "The tenant just loaded should stay");
+            assertTrue(registry.estimatedBytes() <= budget, "Loaded tenants should fit the budget");
+
+            assertEquals("Alpha", inTenant("alpha", () -> manager.getTask(id).orElseThrow().getName()),
+                    "An evicted tenant should be reloaded from disk");
+            assertFalse(registry.isLoaded("beta"), "Reloading alpha should evict beta");
+            int next = inTenant("alpha", () -> manager.addTask(new Task("Next", "Desc", Status.NEW, null, null)));
+            assertTrue(next > id, "Ids should continue after a reload");
+        }
+    }
+
+    @Test
+    void testTenantGrowingInPlaceEvictsOthers() {
+        long budget = 2 * (64 << 10) + 10 * TenantRegistry.BYTES_PER_ITEM;
+        try (TenantRegistry registry = new TenantRegistry(tempDir, StorageOptions.defaults(),
+                budget, TenantRegistry.DEFAULT_IDLE_TIMEOUT)) {
+            TaskManager manager = registry.manager();
+            inTenant("alpha", manager::getAllTasks);
+            inTenant("beta", manager::getAllTasks);
+            assertTrue(registry.isLoaded("alpha"), "Two empty tenants should fit the budget");
+
+            for (int i = 0; i < 20; i++) {
+                String name = "Task " + i;
+                inTenant("beta", () -> manager.addTask(new Task(name, "Desc", Status.NEW, null, null)));
+            }
+            assertFalse(registry.isLoaded("alpha"), "Writes pushing beta over the budget should evict alpha");
+            assertTrue(registry.isLoaded("beta"), "The tenant being written should stay");
+        }
+    }
+
+    @Test
+    void testBusyTenantDoesNotBlockOtherLoads() throws Exception {
+        long budget = (64 << 10) + 1;
+        try (TenantRegistry registry = new TenantRegistry(tempDir, StorageOptions.defaults(),
+                budget, TenantRegistry.DEFAULT_IDLE_TIMEOUT)) {
+            CountDownLatch entered = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<?> slow = executor.submit(() -> inTenant("alpha", () -> registry.call(true, m -> {
+                    entered.countDown();
+                    try {
+                        return release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })));
+                assertTrue(entered.await(5, TimeUnit.SECONDS), "Alpha's call should start");
+
+                Future<Integer> other = executor.submit(() -> inTenant("beta", () -> registry.manager().getAllTasks().size()));
+                assertEquals(Integer.valueOf(0), other.get(5, TimeUnit.SECONDS), "Beta should load while alpha is busy");
+                assertTrue(registry.isLoaded("alpha"), "A busy tenant should be skipped, not waited for");
+
+                release.countDown();
+                slow.get(5, TimeUnit.SECONDS);
+            } finally {
+                release.countDown();
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    void testIdleTenantsAreEvicted() {
+        AtomicLong clock = new AtomicLong();
+        Duration idle = Duration.ofMinutes(10);
+        TenantRegistry registry = new TenantRegistry(tempDir, StorageOptions.defaults(),
+                TenantRegistry.DEFAULT_MEMORY_BUDGET, idle, clock::get);
+        TaskManager manager = registry.manager();
+        inTenant("alpha", () -> manager.addTask(new Task("Alpha", "Desc", Status.NEW, null, null)));
+
+        clock.addAndGet(idle.toNanos() + 1);
+        inTenant("beta", manager::getAllTasks);
+        assertFalse(registry.isLoaded("alpha"), "An idle tenant should be evicted when another one loads");
+        assertEquals(1, inTenant("alpha", manager::getAllTasks).size(), "An idle tenant should keep its data");
+
+        registry.close();
+        assertEquals(0, registry.loadedCount(), "Closing should evict every tenant");
+        assertThrows(IllegalStateException.class, manager::getAllTasks, "A closed registry should refuse calls");
+    }
+
+    private static <R> R inTenant(String tenant, Supplier<R> action) {
+        ThreadScope.Binding scope = TenantScope.enter(tenant);
+        try {
+            return action.get();
+        } finally {
+            scope.close();
+        }
+    }
+}
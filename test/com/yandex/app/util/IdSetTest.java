@@ -0,0 +1,53 @@
+package com.yandex.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdSetTest {
+
+    @Test
+    void testAddRemoveAndSize() {
+        IdSet ids = new IdSet();
+        assertTrue(ids.add(5), "New id should be added");
+        assertFalse(ids.add(5), "Duplicate id should not be added");
+        assertTrue(ids.add(1_000_000), "Id on a distant page should be added");
+        assertEquals(2, ids.size(), "Size should count distinct ids");
+        assertTrue(ids.contains(1_000_000), "Added id should be contained");
+
+        assertTrue(ids.remove(5), "Present id should be removed");
+        assertFalse(ids.remove(5), "Absent id should not be removed");
+        assertFalse(ids.contains(5), "Removed id should not be contained");
+        assertEquals(1, ids.size(), "Size should drop after removal");
+    }
+
+    @Test
+    void testHigherWalksIdsInOrderAcrossPages() {
+        IdSet ids = new IdSet();
+        int[] values = {-7, 3, 63, 64, 4095, 4096, 70_000, Integer.MAX_VALUE};
+        for (int i = values.length - 1; i >= 0; i--) {
+            ids.add(values[i]);
+        }
+
+        List<Integer> walked = new ArrayList<>();
+        for (int id = ids.higher(Integer.MIN_VALUE); id != IdSet.NONE; id = ids.higher(id)) {
+            walked.add(id);
+        }
+        assertEquals(List.of(-7, 3, 63, 64, 4095, 4096, 70_000, Integer.MAX_VALUE), walked, "Ids should come back in order");
+        assertEquals(4096, ids.higher(4095), "Next id should cross a page boundary");
+        assertEquals(70_000, ids.higher(5000), "Gap should skip empty pages");
+
+        List<Integer> visited = new ArrayList<>();
+        ids.forEach(visited::add);
+        assertEquals(walked, visited, "forEach should visit ids in order");
+
+        List<Integer> iterated = new ArrayList<>();
+        ids.iterator(63).forEachRemaining((IntConsumer) iterated::add);
+        assertEquals(List.of(64, 4095, 4096, 70_000, Integer.MAX_VALUE), iterated, "Iterator should start after the given id");
+        assertFalse(ids.iterator(Integer.MAX_VALUE).hasNext(), "Nothing should follow the largest id");
+    }
+}
@@ -0,0 +1,74 @@
+package com.yandex.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        IntMap<String> map = new IntMap<>();
+        assertNull(map.put(0, "zero"), "First put should have no previous value");
+        assertNull(map.put(-5, "minus five"), "Negative keys should be accepted");
+        assertEquals("zero", map.put(0, "nought"), "Put should return the replaced value");
+        assertEquals("nought", map.get(0), "Get should see the latest value");
+        assertEquals(2, map.size(), "Replacing should not grow the map");
+
+        assertEquals("minus five", map.remove(-5), "Remove should return the value");
+        assertNull(map.remove(-5), "Second remove should find nothing");
+        assertFalse(map.containsKey(-5), "Removed key should be gone");
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null), "Null values should be rejected");
+    }
+
+    @Test
+    void testRandomOperationsMatchTreeMap() {
+        IntMap<Integer> map = new IntMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key), "Remove should agree for key " + key);
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i), "Put should agree for key " + key);
+            }
+        }
+        assertEquals(expected.size(), map.size(), "Sizes should agree");
+        for (int key = -1_000; key < 4_000; key++) {
+            assertEquals(expected.get(key), map.get(key), "Lookup should agree for key " + key);
+        }
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()), "Values should iterate in key order");
+
+        List<Integer> tail = new ArrayList<>();
+        map.valuesAfter(2_000).forEachRemaining(tail::add);
+        assertEquals(new ArrayList<>(expected.tailMap(2_000, false).values()), tail, "Tail should start after the key");
+
+        List<Integer> keys = new ArrayList<>();
+        map.forEachKey(keys::add);
+        assertEquals(new ArrayList<>(expected.keySet()), keys, "Keys should be visited in order");
+    }
+
+    @Test
+    void testClearAndComputeIfAbsent() {
+        IntMap<List<Integer>> map = new IntMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.computeIfAbsent(i % 10, k -> new ArrayList<>()).add(i);
+        }
+        assertEquals(10, map.size(), "One value per distinct key");
+        assertEquals(10, map.get(3).size(), "Existing value should be reused");
+
+        map.clear();
+        assertTrue(map.isEmpty(), "Cleared map should be empty");
+        assertFalse(map.values().iterator().hasNext(), "Cleared map should have no values");
+        Iterator<List<Integer>> values = map.valuesAfter(Integer.MIN_VALUE);
+        assertFalse(values.hasNext(), "Cleared map should have no tail");
+        assertNull(map.get(3), "Cleared keys should be gone");
+    }
+}
@@ -0,0 +1,67 @@
+package com.yandex.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntSetTest {
+
+    @Test
+    void testKeepsInsertionOrderAcrossRemovals() {
+        IntSet set = new IntSet();
+        assertTrue(set.add(3), "New value should be added");
+        assertTrue(set.add(1), "New value should be added");
+        assertTrue(set.add(2), "New value should be added");
+        assertFalse(set.add(1), "Duplicate should not be added");
+        assertEquals(List.of(3, 1, 2), set.asList(), "Values should keep insertion order");
+
+        assertTrue(set.remove(3), "Present value should be removed");
+        assertFalse(set.remove(3), "Absent value should not be removed");
+        assertEquals(List.of(1, 2), set.asList(), "Removal should keep the remaining order");
+        assertEquals(2, set.get(1), "Indexed access should skip removed values");
+        assertTrue(set.add(3), "Removed value should be added again");
+        assertEquals(List.of(1, 2, 3), set.asList(), "Re-added value should go last");
+        assertTrue(set.asList().contains(1), "List view should answer contains");
+        assertFalse(set.asList().contains(4), "List view should not contain absent values");
+    }
+
+    @Test
+    void testRandomOperationsMatchLinkedHashSet() {
+        IntSet set = new IntSet();
+        Set<Integer> expected = new LinkedHashSet<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(2_000) - 500;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value), "Add should agree for " + value);
+            } else {
+                assertEquals(expected.remove(value), set.remove(value), "Remove should agree for " + value);
+            }
+        }
+        assertEquals(expected.size(), set.size(), "Sizes should agree");
+        assertEquals(new ArrayList<>(expected), set.asList(), "Contents and order should agree");
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), set.toArray(), "Array should agree");
+        List<Integer> indexed = new ArrayList<>();
+        for (int i = 0; i < set.size(); i++) {
+            indexed.add(set.get(i));
+        }
+        assertEquals(new ArrayList<>(expected), indexed, "Indexed access should agree");
+        for (int value = -500; value < 1_500; value++) {
+            assertEquals(expected.contains(value), set.contains(value), "Contains should agree for " + value);
+        }
+
+        IntSet copy = new IntSet(set);
+        assertEquals(set.asList(), copy.asList(), "Copy should keep the order");
+        copy.add(10_000);
+        assertFalse(set.contains(10_000), "Copy should not share storage");
+        set.clear();
+        assertTrue(set.isEmpty(), "Cleared set should be empty");
+        assertEquals(expected.size() + 1, copy.size(), "Copy should keep its values");
+    }
+}
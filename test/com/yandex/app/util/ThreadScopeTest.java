@@ -0,0 +1,34 @@
+package com.yandex.app.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThreadScopeTest {
+
+    @Test
+    void testBindingsNestAndRestore() {
+        ThreadScope scope = new ThreadScope();
+        assertNull(scope.current(), "Nothing should be bound initially");
+
+        ThreadScope.Binding outer = scope.enter("outer");
+        ThreadScope.Binding inner = scope.enter("inner");
+        assertEquals("inner", scope.current(), "Innermost binding should win");
+        inner.close();
+        assertEquals("outer", scope.current(), "Closing should restore the previous value");
+        outer.close();
+        assertNull(scope.current(), "Closing the last binding should clear the thread");
+    }
+
+    @Test
+    void testScopesAreIndependent() {
+        ThreadScope first = new ThreadScope();
+        ThreadScope second = new ThreadScope();
+        ThreadScope.Binding binding = first.enter("value");
+        try {
+            assertNull(second.current(), "Another scope should not see the value");
+        } finally {
+            binding.close();
+        }
+    }
+}